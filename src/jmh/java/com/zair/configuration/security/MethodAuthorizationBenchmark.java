@@ -0,0 +1,84 @@
+package com.zair.configuration.security;
+
+import com.zair.models.enums.Permission;
+import com.zair.models.enums.UserRole;
+import com.zair.utils.JwtAuthentication;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compara la decisión de autorización de un método anotado con {@code @PreAuthorize}, que evalúa su expresión
+ * SpEL en cada invocación, frente a {@link RequiresPermission}, compilada a una máscara al arrancar. Solo mide
+ * la decisión, sin el proxy ni el interceptor, que son comunes a ambos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodAuthorizationBenchmark {
+
+    private final PreAuthorizeAuthorizationManager preAuthorizeManager = new PreAuthorizeAuthorizationManager();
+
+    private final PermissionAuthorizationManager permissionManager = new PermissionAuthorizationManager();
+
+    private Supplier<Authentication> authentication;
+
+    private MethodInvocation preAuthorizeInvocation;
+
+    private MethodInvocation permissionInvocation;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        Authentication client = new JwtAuthentication("client@example.com", UserRole.CLIENT.getAuthorities(),
+                UserRole.CLIENT.getPermissions());
+        authentication = () -> client;
+
+        Endpoints endpoints = new Endpoints();
+        preAuthorizeInvocation = new SimpleMethodInvocation(endpoints, Endpoints.class.getMethod("preAuthorize"));
+        permissionInvocation = new SimpleMethodInvocation(endpoints, Endpoints.class.getMethod("requiresPermission"));
+
+        if (!preAuthorize().isGranted() || !requiresPermission().isGranted()) {
+            throw new IllegalStateException("Access denied");
+        }
+    }
+
+    @Benchmark
+    public AuthorizationDecision preAuthorize() {
+        return preAuthorizeManager.check(authentication, preAuthorizeInvocation);
+    }
+
+    @Benchmark
+    public AuthorizationDecision requiresPermission() {
+        return permissionManager.check(authentication, permissionInvocation);
+    }
+
+    public static class Endpoints {
+
+        @PreAuthorize("hasAnyAuthority('ADMIN', 'CLIENT')")
+        public void preAuthorize() {
+        }
+
+        @RequiresPermission(Permission.USERS_COMMON)
+        public void requiresPermission() {
+        }
+    }
+}
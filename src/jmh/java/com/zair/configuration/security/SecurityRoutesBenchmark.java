@@ -0,0 +1,69 @@
+package com.zair.configuration.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.List;
+
+/**
+ * Compara la clasificación de una ruta con la tabla precompilada frente a probar cada patrón en orden con
+ * {@link AntPathRequestMatcher}, como hacía la cadena de {@code requestMatchers} (que en una aplicación
+ * Spring MVC usa además el introspector de los handlers, por lo que es una cota inferior de su coste).
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityRoutesBenchmark {
+
+    @Param({"/api/users/common", "/api/public/hello", "/actuator/metrics/auth.filter"})
+    private String path;
+
+    private SecurityRoutes routes;
+
+    private List<RequestMatcher> matchers;
+
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setup() {
+        routes = new SecurityRoutesConfig().securityRoutes();
+        matchers = List.of(
+                new AntPathRequestMatcher("/api/auth/**"),
+                new AntPathRequestMatcher("/api/public/**"),
+                new AntPathRequestMatcher("/actuator/health"),
+                new AntPathRequestMatcher("/actuator/**"),
+                new AntPathRequestMatcher("/api/users/admin"),
+                new AntPathRequestMatcher("/api/users/client"),
+                new AntPathRequestMatcher("/api/users/common"),
+                new AntPathRequestMatcher("/api/admin/**"));
+
+        request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+    }
+
+    @Benchmark
+    public SecurityRoutes.Rule routeTable() {
+        return routes.match(path);
+    }
+
+    @Benchmark
+    public int requestMatchers() {
+        for (int i = 0; i < matchers.size(); i++) {
+            if (matchers.get(i).matches(request)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,90 @@
+package com.zair.utils;
+
+import com.zair.models.entities.User;
+import com.zair.models.enums.UserRole;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+
+/**
+ * Mide el rechazo de tokens inválidos: el parser de jjwt capturando su excepción, como hacía el filtro,
+ * frente a {@link JwtUtil#validateToken}, que devuelve el motivo sin lanzar excepciones. Con
+ * {@code -prof gc} se compara además la memoria asignada por rechazo. Sin el códec rápido, los tokens con la
+ * firma alterada los rechaza jjwt, que verifica el único HMAC de cada token.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvalidTokenBenchmark {
+
+    private static final String SECRET = "Jz0Op5yWlA3BG4c$8UtR6Q9rFhvx7ohD";
+
+    @Param({"garbage", "tampered", "expired"})
+    public String kind;
+
+    @Param({"false", "true"})
+    public boolean fastCodec;
+
+    private JwtUtil jwtUtil;
+
+    private JwtParser jwtParser;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = newJwtUtil(3_600_000L, fastCodec);
+        jwtParser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build();
+
+        User user = new User(42L, "Name", "Last", "user@example.com", "password", UserRole.CLIENT);
+        token = switch (kind) {
+            case "garbage" -> "Bearer-garbage-that-is-not-a-jwt-at-all";
+            case "tampered" -> tamper(jwtUtil.generateToken(user));
+            case "expired" -> newJwtUtil(-60_000L, fastCodec).generateToken(user);
+            default -> throw new IllegalArgumentException("Unknown kind: " + kind);
+        };
+    }
+
+    @Benchmark
+    public Object jjwtWithException() {
+        try {
+            return jwtParser.parseSignedClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public TokenValidation validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    private static JwtUtil newJwtUtil(long expiration, boolean fastCodec) {
+        return new JwtUtil(SECRET, expiration, fastCodec, false,
+                new SigningKeyRing("HS256", 3_600_000L, "", "", Duration.ZERO, ""), AuthMetrics.noop());
+    }
+
+    /**
+     * Cambia un carácter en mitad del payload, manteniendo la estructura del token.
+     */
+    private static String tamper(String token) {
+        int index = token.indexOf('.') + 10;
+        char replacement = token.charAt(index) == 'A' ? 'B' : 'A';
+
+        return token.substring(0, index) + replacement + token.substring(index + 1);
+    }
+}
@@ -0,0 +1,138 @@
+package com.zair.utils;
+
+import com.zair.configuration.security.SecurityRoutesConfig;
+import com.zair.models.entities.User;
+import com.zair.models.enums.UserRole;
+import com.zair.services.impl.CachingUserDetailsService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.zair.repositories.RevocationStore;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide una pasada completa de JwtAuthenticationFilter sobre objetos servlet simulados, con una búsqueda
+ * de usuario en memoria en lugar de la base de datos y un registro de revocaciones con 10.000 tokens y
+ * 10.000 usuarios revocados.
+ * <p>
+ * El parámetro {@code metrics} mide el coste de la instrumentación de {@link AuthMetrics} frente a medidores
+ * sin efecto.
+ * <p>
+ * Presupuesto de asignación: con {@code tokenCache=true} y {@code metrics=none}, {@code gc.alloc.rate.norm}
+ * no debe superar 256 B/op en ninguno de los dos modos (el principal, la autenticación, sus detalles, el
+ * contexto de seguridad y la búsqueda de la cabecera en MockHttpServletRequest).
+ * {@code JwtAuthenticationFilterAllocationTests} hace cumplir el mismo presupuesto en {@code gradle test}.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean tokenCache;
+
+    @Param({"false", "true"})
+    public boolean stateless;
+
+    /**
+     * Instrumentación: ninguna (medidores sin efecto), temporizadores con histogramas como en producción,
+     * o además la cabecera Server-Timing.
+     */
+    @Param({"none", "histograms", "server-timing"})
+    public String metrics;
+
+    private JwtAuthenticationFilter filter;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    private FilterChain chain;
+
+    @Setup
+    public void setup() {
+        AuthMetrics authMetrics = "none".equals(metrics)
+                ? AuthMetrics.noop()
+                : new AuthMetrics(histogramRegistry(), "server-timing".equals(metrics));
+        JwtUtil jwtUtil = new JwtUtil("Jz0Op5yWlA3BG4c$8UtR6Q9rFhvx7ohD", 3_600_000L, false, false,
+                new SigningKeyRing("HS256", 3_600_000L, "", "", Duration.ZERO, ""), authMetrics);
+        User user = new User(42L, "Name", "Last", "user@example.com", "password", UserRole.CLIENT);
+
+        TokenRevocationRegistry registry = new TokenRevocationRegistry(
+                new DefaultListableBeanFactory().getBeanProvider(RevocationStore.class), 100_000, 0.01);
+        Instant expiration = Instant.now().plusSeconds(3600);
+        for (long i = 0; i < 10_000; i++) {
+            registry.revoke(new VerifiedToken("other@example.com", 1_000 + i, UserRole.CLIENT,
+                    UserRole.CLIENT.getPermissions(), expiration, Instant.now(), "revoked-" + i));
+            registry.revokeAll(1_000 + i);
+        }
+
+        filter = new JwtAuthenticationFilter(jwtUtil, new VerifiedTokenCache(jwtUtil, tokenCache, 10_000), registry,
+                new CachingUserDetailsService(username -> user, id -> user, false, Duration.ZERO, 0, authMetrics), authMetrics, new SecurityRoutesConfig().securityRoutes());
+        ReflectionTestUtils.setField(filter, "statelessMode", stateless);
+
+        request = new MockHttpServletRequest("GET", "/api/users/client");
+        request.setServletPath("/api/users/client");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(user));
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> { };
+    }
+
+    /**
+     * Cada llamada deja el estado como lo encontró, dentro del propio método: un {@code @TearDown(Level.Invocation)}
+     * añadiría a cada medición una sobrecarga de JMH del mismo orden que la pasada del filtro. El coste de
+     * limpiar el contexto y la respuesta queda incluido, y es constante entre los parámetros.
+     */
+    @Benchmark
+    public void doFilterInternal() throws ServletException, IOException {
+        try {
+            filter.doFilterInternal(request, response, chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+            response.reset();
+        }
+    }
+
+    /**
+     * Registro en memoria con los mismos histogramas acotados que configura application.properties.
+     */
+    private static MeterRegistry histogramRegistry() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .minimumExpectedValue((double) TimeUnit.MICROSECONDS.toNanos(5))
+                        .maximumExpectedValue((double) TimeUnit.SECONDS.toNanos(5))
+                        .build()
+                        .merge(config);
+            }
+        });
+
+        return registry;
+    }
+}
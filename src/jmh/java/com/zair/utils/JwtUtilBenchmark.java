@@ -0,0 +1,57 @@
+package com.zair.utils;
+
+import com.zair.models.entities.User;
+import com.zair.models.enums.UserRole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+
+/**
+ * Mide la generación y la verificación de tokens a través de la API pública de JwtUtil, con el secreto
+ * compartido (HS256) y con cada algoritmo asimétrico del anillo de claves.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    @Param({"HS256", "ES256", "EdDSA", "RS256"})
+    public String algorithm;
+
+    private JwtUtil jwtUtil;
+
+    private User user;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil("Jz0Op5yWlA3BG4c$8UtR6Q9rFhvx7ohD", 3_600_000L, false, false,
+                new SigningKeyRing(algorithm, 3_600_000L, "", "", Duration.ZERO, ""), AuthMetrics.noop());
+        user = new User(42L, "Name", "Last", "user@example.com", "password", UserRole.CLIENT);
+        token = jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtUtil.isTokenValid(token, user);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyToken() {
+        return jwtUtil.verifyToken(token);
+    }
+}
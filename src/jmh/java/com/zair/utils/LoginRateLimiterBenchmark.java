@@ -0,0 +1,57 @@
+package com.zair.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mide la comprobación del limitador de inicios de sesión con 16 hilos concurrentes: todos contra la misma
+ * cuenta e IP ({@code hot}, máxima contención sobre una ranura) o repartidos entre 100.000 cuentas y 10.000
+ * IPs ({@code spread}). Las cuotas son tan altas que todas las llamadas se admiten, de modo que cada una
+ * actualiza sus ranuras con CAS, el caso más costoso.
+ */
+@State(Scope.Benchmark)
+@Threads(16)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginRateLimiterBenchmark {
+
+    @Param({"hot", "spread"})
+    public String keys;
+
+    private LoginRateLimiter limiter;
+
+    private String[] emails;
+
+    private String[] ips;
+
+    @Setup
+    public void setup() {
+        limiter = new LoginRateLimiter(true, 65_536, 1_000_000_000, Duration.ofSeconds(1), 1_000_000_000, Duration.ofSeconds(1),
+                1_000_000_000, Duration.ofSeconds(1), AuthMetrics.noop());
+
+        int accounts = "hot".equals(keys) ? 1 : 100_000;
+        emails = new String[accounts];
+        ips = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            emails[i] = "user" + i + "@example.com";
+            ips[i] = "10.0." + (i % 10_000 / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        int i = emails.length == 1 ? 0 : ThreadLocalRandom.current().nextInt(emails.length);
+        return limiter.tryAcquire(emails[i], ips[i]);
+    }
+}
@@ -0,0 +1,468 @@
+package com.zair.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zair.JwtSpringSecurityApplication;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Prueba de carga de extremo a extremo: Tomcat, la cadena de seguridad, los controladores y la base de datos.
+ * <p>
+ * Arranca la aplicación contra la base de datos embebida (perfil {@code embedded}), registra un conjunto de
+ * usuarios y lanza {@code loadtest.clients} clientes concurrentes que eligen cada solicitud según la mezcla
+ * configurada: registro, inicio de sesión, {@code /api/users/*} con el token de un usuario y {@code /api/public}.
+ * Tras el calentamiento, la latencia de cada endpoint se registra en un {@link Recorder} de HdrHistogram.
+ * <p>
+ * Sin {@code loadtest.rate} cada cliente envía la siguiente solicitud al recibir la respuesta anterior. Con una
+ * tasa total, los clientes siguen un calendario fijo y la latencia se mide desde el instante en que debía salir
+ * la solicitud, de modo que un servidor saturado no oculta la espera acumulada (omisión coordinada).
+ * <p>
+ * El informe muestra throughput y p50/p95/p99/p99.9 por endpoint. En {@code loadtest.output} se escriben la
+ * distribución de percentiles de cada endpoint ({@code <endpoint>.hgrm}, en milisegundos, legible por el
+ * visor de HdrHistogram) y {@code summary.json}; con {@code loadtest.baseline} apuntando al {@code summary.json}
+ * de otra versión se imprime además la variación de throughput y p99 de cada endpoint.
+ * <p>
+ * Propiedades: {@code loadtest.clients}, {@code loadtest.seconds}, {@code loadtest.warmup-seconds},
+ * {@code loadtest.rate} (solicitudes por segundo en total, 0 sin límite), {@code loadtest.mix} (pesos, por
+ * ejemplo {@code register=2,login=8,common=40,client=20,admin=10,public=20}), {@code loadtest.users},
+ * {@code loadtest.output}, {@code loadtest.baseline} y {@code loadtest.app.<propiedad>} para configurar la
+ * aplicación. El limitador de inicios de sesión se deshabilita, ya que todos los clientes comparten la IP
+ * local; {@code loadtest.app.auth.rate-limit.enabled=true} lo mantiene.
+ */
+public final class EndToEndLoadTest {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private static final String PASSWORD = "password";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private EndToEndLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("loadtest.clients", 64);
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.seconds", 30));
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10));
+        double rate = Double.parseDouble(System.getProperty("loadtest.rate", "0"));
+        int users = Integer.getInteger("loadtest.users", 200);
+        String mixSpec = System.getProperty("loadtest.mix", "register=2,login=8,common=40,client=20,admin=10,public=20");
+        Path output = Path.of(System.getProperty("loadtest.output", "build/reports/loadtest"));
+        String baseline = System.getProperty("loadtest.baseline", "");
+
+        Endpoint[] mix = parseMix(mixSpec);
+
+        try (ConfigurableApplicationContext context = start()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            Workload workload = new Workload(client, "http://localhost:" + port);
+            workload.registerUsers(users);
+
+            List<Thread> threads = new ArrayList<>(clients);
+            CountDownLatch started = new CountDownLatch(clients);
+            long intervalNanos = rate > 0 ? (long) (clients * 1_000_000_000.0 / rate) : 0;
+            long start = System.nanoTime();
+            long end = start + warmup.toNanos() + duration.toNanos();
+
+            for (int i = 0; i < clients; i++) {
+                SplittableRandom random = new SplittableRandom(i);
+                // Los clientes se reparten a lo largo del primer intervalo para no salir todos a la vez
+                long firstSend = start + (intervalNanos * i) / clients;
+                Thread thread = new Thread(() -> {
+                    started.countDown();
+                    workload.drive(mix, random, firstSend, intervalNanos, end);
+                }, "load-client-" + i);
+                thread.setDaemon(true);
+                threads.add(thread);
+                thread.start();
+            }
+            started.await();
+
+            // Descarta las mediciones del calentamiento
+            LockSupport.parkNanos(start + warmup.toNanos() - System.nanoTime());
+            workload.reset();
+            long measureStart = System.nanoTime();
+
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            double seconds = (System.nanoTime() - measureStart) / 1_000_000_000.0;
+
+            Map<String, Object> summary = report(workload, seconds, output);
+            summary.put("config", config(clients, duration, warmup, rate, mixSpec, users));
+            Files.createDirectories(output);
+            MAPPER.writeValue(output.resolve("summary.json").toFile(), summary);
+            System.out.println("Summary written to " + output.resolve("summary.json").toAbsolutePath());
+
+            if (!baseline.isEmpty()) {
+                compare(MAPPER.readTree(Path.of(baseline).toFile()), summary);
+            }
+        }
+    }
+
+    /**
+     * Arranca la aplicación contra la base de datos embebida, con las propiedades {@code loadtest.app.*}.
+     */
+    private static ConfigurableApplicationContext start() {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "auth.rate-limit.enabled=false"));
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("loadtest.app."))
+                .sorted()
+                .forEach(name -> properties.add(name.substring("loadtest.app.".length()) + "=" + System.getProperty(name)));
+
+        return new SpringApplicationBuilder(JwtSpringSecurityApplication.class)
+                .profiles("embedded")
+                .properties(properties.toArray(String[]::new))
+                .run();
+    }
+
+    /**
+     * Convierte la mezcla {@code nombre=peso,...} en una tabla de 100 entradas en la que cada endpoint aparece
+     * en proporción a su peso.
+     */
+    private static Endpoint[] parseMix(String spec) {
+        Map<Endpoint, Integer> weights = new LinkedHashMap<>();
+        int total = 0;
+
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            weights.put(Endpoint.valueOf(parts[0].trim().toUpperCase()), weight);
+            total += weight;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("loadtest.mix has no positive weights: " + spec);
+        }
+
+        List<Endpoint> table = new ArrayList<>(100);
+        int accumulated = 0;
+        for (Map.Entry<Endpoint, Integer> entry : weights.entrySet()) {
+            accumulated += entry.getValue();
+            while (table.size() < Math.round(accumulated * 100.0 / total)) {
+                table.add(entry.getKey());
+            }
+        }
+
+        return table.toArray(Endpoint[]::new);
+    }
+
+    /**
+     * Imprime el informe, escribe la distribución de cada endpoint y construye el resumen.
+     */
+    private static Map<String, Object> report(Workload workload, double seconds, Path output) throws IOException {
+        Files.createDirectories(output);
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        long totalErrors = 0;
+
+        StringBuilder report = new StringBuilder(String.format("%-9s %9s %10s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms"));
+
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = workload.histogram(endpoint);
+            long errors = workload.errors(endpoint);
+            if (histogram.getTotalCount() == 0 && errors == 0) {
+                continue;
+            }
+            total.add(histogram);
+            totalErrors += errors;
+
+            try (PrintStream out = new PrintStream(output.resolve(endpoint.key + ".hgrm").toFile())) {
+                histogram.outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+            endpoints.put(endpoint.key, stats(histogram, errors, seconds));
+            report.append(line(endpoint.key, histogram, errors, seconds));
+        }
+        report.append(line("total", total, totalErrors, seconds));
+
+        System.out.println();
+        System.out.print(report);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("timestamp", Instant.now().toString());
+        summary.put("java", Runtime.version().toString());
+        summary.put("processors", Runtime.getRuntime().availableProcessors());
+        summary.put("seconds", seconds);
+        summary.put("endpoints", endpoints);
+        summary.put("total", stats(total, totalErrors, seconds));
+
+        return summary;
+    }
+
+    private static String line(String name, Histogram histogram, long errors, double seconds) {
+        return String.format("%-9s %9d %10.0f %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n", name,
+                histogram.getTotalCount(), histogram.getTotalCount() / seconds, errors,
+                millis(histogram, 50), millis(histogram, 95), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / NANOS_PER_MILLI);
+    }
+
+    private static Map<String, Object> stats(Histogram histogram, long errors, double seconds) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", histogram.getTotalCount());
+        stats.put("errors", errors);
+        stats.put("throughput", histogram.getTotalCount() / seconds);
+        stats.put("p50Ms", millis(histogram, 50));
+        stats.put("p95Ms", millis(histogram, 95));
+        stats.put("p99Ms", millis(histogram, 99));
+        stats.put("p999Ms", millis(histogram, 99.9));
+        stats.put("maxMs", histogram.getMaxValue() / NANOS_PER_MILLI);
+
+        return stats;
+    }
+
+    private static Map<String, Object> config(int clients, Duration duration, Duration warmup, double rate,
+                                              String mix, int users) {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("clients", clients);
+        config.put("seconds", duration.toSeconds());
+        config.put("warmupSeconds", warmup.toSeconds());
+        config.put("rate", rate);
+        config.put("mix", mix);
+        config.put("users", users);
+
+        return config;
+    }
+
+    /**
+     * Imprime la variación de throughput y p99 de cada endpoint respecto a un resumen anterior.
+     */
+    private static void compare(JsonNode baseline, Map<String, Object> summary) {
+        JsonNode current = MAPPER.valueToTree(summary);
+        StringBuilder report = new StringBuilder(String.format("%nVersus baseline from %s%n%-9s %12s %12s%n",
+                baseline.path("timestamp").asText(), "endpoint", "req/s", "p99"));
+
+        current.path("endpoints").fields().forEachRemaining(entry -> {
+            JsonNode before = baseline.path("endpoints").path(entry.getKey());
+            if (!before.isMissingNode()) {
+                report.append(String.format("%-9s %+11.1f%% %+11.1f%%%n", entry.getKey(),
+                        change(before.path("throughput").asDouble(), entry.getValue().path("throughput").asDouble()),
+                        change(before.path("p99Ms").asDouble(), entry.getValue().path("p99Ms").asDouble())));
+            }
+        });
+
+        System.out.print(report);
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? Double.NaN : (after - before) / before * 100;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Endpoints de la mezcla y el estado HTTP de una respuesta correcta.
+     */
+    private enum Endpoint {
+        REGISTER("register"),
+        LOGIN("login"),
+        COMMON("common"),
+        CLIENT("client"),
+        ADMIN("admin"),
+        PUBLIC("public");
+
+        private final String key;
+
+        Endpoint(String key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Las solicitudes de cada endpoint y sus mediciones, compartidas por todos los clientes.
+     */
+    private static final class Workload {
+
+        private final HttpClient client;
+
+        private final String baseUrl;
+
+        private final Recorder[] recorders = new Recorder[Endpoint.values().length];
+
+        private final LongAdder[] errors = new LongAdder[Endpoint.values().length];
+
+        private final Histogram[] histograms = new Histogram[Endpoint.values().length];
+
+        private final AtomicLong registrations = new AtomicLong();
+
+        private final List<String> emails = new ArrayList<>();
+
+        private final List<String> clientTokens = new ArrayList<>();
+
+        private final List<String> adminTokens = new ArrayList<>();
+
+        Workload(HttpClient client, String baseUrl) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            for (int i = 0; i < recorders.length; i++) {
+                recorders[i] = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+                errors[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Registra los usuarios iniciales, uno de cada diez administrador, y guarda sus tokens.
+         */
+        void registerUsers(int count) throws Exception {
+            for (int i = 0; i < count; i++) {
+                String role = i % 10 == 0 ? "ADMIN" : "CLIENT";
+                String email = "load-" + i + "@test.com";
+                HttpResponse<String> response = client.send(register(email, role), HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Could not register " + email + ": " + response.statusCode()
+                            + " " + response.body());
+                }
+
+                String token = response.body().replaceAll(".*\"token\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+                emails.add(email);
+                (role.equals("ADMIN") ? adminTokens : clientTokens).add(token);
+            }
+            if (adminTokens.isEmpty() || clientTokens.isEmpty()) {
+                throw new IllegalArgumentException("loadtest.users must be at least 2 to have both roles");
+            }
+        }
+
+        /**
+         * Bucle de un cliente hasta {@code end}: abierto con un calendario fijo si {@code intervalNanos} es
+         * positivo, cerrado en caso contrario.
+         */
+        void drive(Endpoint[] mix, SplittableRandom random, long firstSend, long intervalNanos, long end) {
+            long intended = firstSend;
+
+            while (true) {
+                if (intervalNanos > 0) {
+                    long wait = intended - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+                long sent = System.nanoTime();
+                if (sent >= end) {
+                    return;
+                }
+                long start = intervalNanos > 0 ? intended : sent;
+
+                Endpoint endpoint = mix[random.nextInt(mix.length)];
+                boolean ok;
+                try {
+                    ok = client.send(request(endpoint, random), HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                } catch (IOException e) {
+                    ok = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long latency = System.nanoTime() - start;
+
+                if (ok) {
+                    recorders[endpoint.ordinal()].recordValue(Math.min(latency, HIGHEST_TRACKABLE_NANOS));
+                } else {
+                    errors[endpoint.ordinal()].increment();
+                }
+                intended += intervalNanos;
+            }
+        }
+
+        /**
+         * Descarta lo registrado hasta ahora y empieza la medición.
+         */
+        void reset() {
+            for (int i = 0; i < recorders.length; i++) {
+                recorders[i].getIntervalHistogram();
+                errors[i].reset();
+            }
+        }
+
+        /**
+         * Obtiene el histograma de un endpoint desde {@link #reset()}; las llamadas posteriores devuelven el mismo.
+         */
+        Histogram histogram(Endpoint endpoint) {
+            int index = endpoint.ordinal();
+            if (histograms[index] == null) {
+                histograms[index] = recorders[index].getIntervalHistogram();
+            }
+            return histograms[index];
+        }
+
+        long errors(Endpoint endpoint) {
+            return errors[endpoint.ordinal()].sum();
+        }
+
+        private HttpRequest request(Endpoint endpoint, SplittableRandom random) {
+            return switch (endpoint) {
+                case REGISTER -> register("load-new-" + registrations.incrementAndGet() + "@test.com", "CLIENT");
+                case LOGIN -> post("/api/auth/login",
+                        "{\"email\":\"" + emails.get(random.nextInt(emails.size())) + "\",\"password\":\"" + PASSWORD + "\"}");
+                case COMMON -> get("/api/users/common", random.nextBoolean() ? pick(adminTokens, random) : pick(clientTokens, random));
+                case CLIENT -> get("/api/users/client", pick(clientTokens, random));
+                case ADMIN -> get("/api/users/admin", pick(adminTokens, random));
+                case PUBLIC -> get("/api/public", null);
+            };
+        }
+
+        private HttpRequest register(String email, String role) {
+            return post("/api/auth/register", "{\"name\":\"Load\",\"lastName\":\"Test\",\"email\":\"" + email
+                    + "\",\"password\":\"" + PASSWORD + "\",\"role\":\"" + role + "\"}");
+        }
+
+        private HttpRequest post(String path, String body) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+
+        private HttpRequest get(String path, String token) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET();
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder.build();
+        }
+
+        private static String pick(List<String> tokens, SplittableRandom random) {
+            return tokens.get(random.nextInt(tokens.size()));
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.zair.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de arranque de la aplicación empaquetada en {@code build/cds} (tarea {@code cdsLayout}).
+ * <p>
+ * Cada ejecución lanza una JVM nueva contra la base de datos embebida de {@code application-embedded.properties}
+ * y mide, desde el lanzamiento del proceso, el tiempo hasta la primera respuesta HTTP y hasta la primera solicitud
+ * autenticada (registro de un usuario y {@code GET /api/users/common} con su token). Se compara el arranque por
+ * defecto con AppCDS y, si el JAR incluye las clases generadas por AOT ({@code -Paot}), con AOT y AOT más AppCDS.
+ * El archivo AppCDS de cada modo se genera con una ejecución de entrenamiento propia, ya que el classpath incluye
+ * H2 y debe coincidir con el de las mediciones.
+ * <p>
+ * Propiedades: {@code startup.app-jar}, {@code startup.aot}, {@code startup.runs} por modo y
+ * {@code startup.timeout-seconds} por arranque.
+ */
+public final class StartupBenchmark {
+
+    private static final String MAIN_CLASS = "com.zair.JwtSpringSecurityApplication";
+
+    private static final String REGISTER_BODY = "{\"name\":\"Startup\",\"lastName\":\"Test\",\"email\":\"startup@test.com\","
+            + "\"password\":\"password\",\"role\":\"CLIENT\"}";
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path appJar = Path.of(System.getProperty("startup.app-jar", "build/cds/app.jar")).toAbsolutePath();
+        boolean aot = Boolean.getBoolean("startup.aot");
+        int runs = Integer.getInteger("startup.runs", 5);
+        Duration timeout = Duration.ofSeconds(Long.getLong("startup.timeout-seconds", 120));
+
+        if (!Files.isRegularFile(appJar)) {
+            throw new IllegalStateException("Packaged application not found at " + appJar + ", run the cdsLayout task first");
+        }
+
+        // H2 no forma parte de la aplicación: se añade al final del classpath de la JVM medida
+        String classPath = appJar + File.pathSeparator
+                + Path.of(Class.forName("org.h2.Driver").getProtectionDomain().getCodeSource().getLocation().toURI());
+        List<String> appArgs = embeddedArguments();
+        Path workDir = appJar.getParent();
+        Files.deleteIfExists(workDir.resolve("startup-benchmark.log"));
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+
+        List<Mode> modes = new ArrayList<>(List.of(new Mode("default", false, false), new Mode("appcds", false, true)));
+        if (aot) {
+            modes.add(new Mode("aot", true, false));
+            modes.add(new Mode("aot+appcds", true, true));
+        }
+
+        StringBuilder report = new StringBuilder(String.format("%-11s %5s %14s %14s %14s %14s%n",
+                "mode", "runs", "ready p50 ms", "auth p50 ms", "auth min ms", "auth max ms"));
+
+        for (Mode mode : modes) {
+            List<String> jvmArgs = new ArrayList<>();
+            if (mode.aot) {
+                jvmArgs.add("-Dspring.aot.enabled=true");
+            }
+            if (mode.appCds) {
+                Path archive = workDir.resolve("startup-benchmark-" + mode.name.replace('+', '-') + ".jsa");
+                Files.deleteIfExists(archive);
+                train(jvmArgs, archive, classPath, appArgs, workDir, timeout);
+                // Falla en lugar de medir sin el archivo si no se puede usar
+                jvmArgs.add("-Xshare:on");
+                jvmArgs.add("-XX:SharedArchiveFile=" + archive);
+            }
+
+            long[] ready = new long[runs];
+            long[] authenticated = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                long[] sample = measure(client, jvmArgs, classPath, appArgs, workDir, timeout);
+                ready[i] = sample[0];
+                authenticated[i] = sample[1];
+            }
+            Arrays.sort(ready);
+            Arrays.sort(authenticated);
+
+            report.append(String.format("%-11s %5d %14.0f %14.0f %14.0f %14.0f%n", mode.name, runs,
+                    millis(ready[runs / 2]), millis(authenticated[runs / 2]),
+                    millis(authenticated[0]), millis(authenticated[runs - 1])));
+        }
+
+        System.out.println();
+        System.out.print(report);
+    }
+
+    /**
+     * Ejecución de entrenamiento: arranca la aplicación hasta refrescar el contexto y vuelca las clases
+     * cargadas en el archivo AppCDS al terminar.
+     */
+    private static void train(List<String> jvmArgs, Path archive, String classPath, List<String> appArgs,
+                              Path workDir, Duration timeout) throws Exception {
+        List<String> trainingArgs = new ArrayList<>(jvmArgs);
+        trainingArgs.add("-XX:ArchiveClassesAtExit=" + archive);
+        trainingArgs.add("-Dspring.context.exit=onRefresh");
+
+        Process process = launch(trainingArgs, classPath, appArgs, freePort(), workDir);
+        if (!process.waitFor(timeout.toSeconds(), TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            throw new IllegalStateException("Training run did not finish, see " + workDir.resolve("startup-benchmark.log"));
+        }
+        if (process.exitValue() != 0 || !Files.isRegularFile(archive)) {
+            throw new IllegalStateException("Training run failed, see " + workDir.resolve("startup-benchmark.log"));
+        }
+    }
+
+    /**
+     * Arranca la aplicación y espera a la primera solicitud autenticada.
+     *
+     * @return Los nanosegundos hasta la primera respuesta HTTP y hasta la primera solicitud autenticada.
+     */
+    private static long[] measure(HttpClient client, List<String> jvmArgs, String classPath, List<String> appArgs,
+                                  Path workDir, Duration timeout) throws Exception {
+        int port = freePort();
+        long start = System.nanoTime();
+        Process process = launch(jvmArgs, classPath, appArgs, port, workDir);
+
+        try {
+            long deadline = start + timeout.toNanos();
+            HttpRequest register = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/register"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(REGISTER_BODY))
+                    .build();
+
+            HttpResponse<String> registered = null;
+            while (registered == null) {
+                if (!process.isAlive() || System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Application did not start, see " + workDir.resolve("startup-benchmark.log"));
+                }
+                try {
+                    registered = client.send(register, HttpResponse.BodyHandlers.ofString());
+                } catch (ConnectException e) {
+                    Thread.sleep(5);
+                }
+            }
+            long ready = System.nanoTime() - start;
+
+            String token = registered.body().replaceAll(".*\"token\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+            HttpRequest common = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/common"))
+                    .header("Authorization", "Bearer " + token)
+                    .GET()
+                    .build();
+            int status = client.send(common, HttpResponse.BodyHandlers.discarding()).statusCode();
+            long authenticated = System.nanoTime() - start;
+
+            if (registered.statusCode() != 200 || status != 200) {
+                throw new IllegalStateException("First authenticated request failed: register "
+                        + registered.statusCode() + ", /api/users/common " + status);
+            }
+
+            return new long[]{ready, authenticated};
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static Process launch(List<String> jvmArgs, String classPath, List<String> appArgs, int port, Path workDir)
+            throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(classPath);
+        command.add(MAIN_CLASS);
+        command.addAll(appArgs);
+        command.add("--server.port=" + port);
+
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(workDir.resolve("startup-benchmark.log").toFile()))
+                .start();
+    }
+
+    /**
+     * Convierte la configuración de la base de datos embebida en argumentos de la aplicación.
+     */
+    private static List<String> embeddedArguments() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream input = StartupBenchmark.class.getResourceAsStream("/application-embedded.properties")) {
+            if (input == null) {
+                throw new IllegalStateException("application-embedded.properties not found on the classpath");
+            }
+            properties.load(input);
+        }
+
+        List<String> args = new ArrayList<>();
+        // El puerto lo asigna cada medición
+        properties.stringPropertyNames().stream()
+                .filter(name -> !name.equals("server.port"))
+                .sorted()
+                .forEach(name -> args.add("--" + name + "=" + properties.getProperty(name)));
+        args.add("--spring.main.banner-mode=off");
+        args.add("--logging.level.root=WARN");
+
+        return args;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private record Mode(String name, boolean aot, boolean appCds) {
+    }
+}
@@ -0,0 +1,173 @@
+package com.zair.loadtest;
+
+import com.zair.JwtSpringSecurityApplication;
+import com.zair.configuration.VirtualThreadPinningMonitor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prueba de carga que compara el modelo actual de hilos de plataforma con el modo de hilos virtuales.
+ * <p>
+ * Arranca la aplicación dos veces contra una base de datos embebida (perfil {@code embedded}), la segunda con
+ * el perfil {@code virtual}, y para cada nivel de concurrencia mantiene ese número de solicitudes autenticadas
+ * en vuelo contra {@code /api/users/common}, cada una con su búsqueda de usuario por JDBC. Reporta throughput,
+ * p50/p99, la capacidad de conexiones concurrentes (el mayor nivel sin errores y con p99 dentro del límite)
+ * y los bloqueos de hilos portadores detectados.
+ * <p>
+ * Propiedades: {@code loadtest.concurrency} (lista separada por comas), {@code loadtest.seconds} por nivel y
+ * {@code loadtest.p99-limit-ms}.
+ */
+public final class VirtualThreadLoadTest {
+
+    private VirtualThreadLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads require Java 21+, running on " + Runtime.version());
+        }
+
+        int[] levels = Arrays.stream(System.getProperty("loadtest.concurrency", "50,200,1000,2000").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.seconds", 10));
+        long p99LimitMillis = Long.getLong("loadtest.p99-limit-ms", 500);
+
+        StringBuilder report = new StringBuilder(String.format("%-9s %11s %10s %12s %10s %10s %8s%n",
+                "mode", "concurrency", "requests", "req/s", "p50 ms", "p99 ms", "errors"));
+
+        for (boolean virtual : new boolean[]{false, true}) {
+            String mode = virtual ? "virtual" : "platform";
+            int capacity = 0;
+
+            try (ConfigurableApplicationContext context = start(virtual)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .build();
+                String token = register(client, port);
+
+                for (int concurrency : levels) {
+                    Result result = run(client, port, token, concurrency, duration);
+                    report.append(String.format("%-9s %11d %10d %12.0f %10.2f %10.2f %8d%n",
+                            mode, concurrency, result.requests, result.throughput(duration),
+                            result.percentileMillis(50), result.percentileMillis(99), result.errors));
+
+                    if (result.errors == 0 && result.percentileMillis(99) <= p99LimitMillis) {
+                        capacity = concurrency;
+                    }
+                }
+
+                context.getBeanProvider(VirtualThreadPinningMonitor.class).ifAvailable(monitor ->
+                        report.append(String.format("%-9s pinned carrier events: %d %s%n",
+                                mode, monitor.getPinnedCount(), monitor.getPinnedBySite())));
+            }
+
+            report.append(String.format("%-9s concurrent-connection capacity (no errors, p99 <= %d ms): %d%n",
+                    mode, p99LimitMillis, capacity));
+        }
+
+        System.out.println();
+        System.out.print(report);
+    }
+
+    /**
+     * Arranca la aplicación contra la base de datos embebida.
+     */
+    private static ConfigurableApplicationContext start(boolean virtual) {
+        String[] profiles = virtual ? new String[]{"embedded", "virtual"} : new String[]{"embedded"};
+
+        return new SpringApplicationBuilder(JwtSpringSecurityApplication.class)
+                .profiles(profiles)
+                .properties("spring.main.banner-mode=off", "logging.level.root=WARN")
+                .run();
+    }
+
+    /**
+     * Registra un usuario de prueba y devuelve su token.
+     */
+    private static String register(HttpClient client, int port) throws Exception {
+        String body = "{\"name\":\"Load\",\"lastName\":\"Test\",\"email\":\"load@test.com\","
+                + "\"password\":\"password\",\"role\":\"CLIENT\"}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        String response = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+
+        return response.replaceAll(".*\"token\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+    }
+
+    /**
+     * Mantiene {@code concurrency} solicitudes en vuelo durante {@code duration}.
+     */
+    private static Result run(HttpClient client, int port, String token, int concurrency, Duration duration)
+            throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/common"))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        Semaphore inFlight = new Semaphore(concurrency);
+        long[] latencies = new long[4_000_000];
+        AtomicInteger recorded = new AtomicInteger();
+        LongAdder errors = new LongAdder();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        while (System.nanoTime() < deadline) {
+            inFlight.acquire();
+            long start = System.nanoTime();
+
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                if (error != null || response.statusCode() != 200) {
+                    errors.increment();
+                } else {
+                    int index = recorded.getAndIncrement();
+                    if (index < latencies.length) {
+                        latencies[index] = System.nanoTime() - start;
+                    }
+                }
+                inFlight.release();
+            });
+        }
+
+        // Espera a que terminen las solicitudes en vuelo
+        inFlight.tryAcquire(concurrency, 60, TimeUnit.SECONDS);
+
+        int count = Math.min(recorded.get(), latencies.length);
+        long[] samples = Arrays.copyOf(latencies, count);
+        Arrays.sort(samples);
+
+        return new Result(samples, count + errors.sum(), errors.sum());
+    }
+
+    private record Result(long[] sortedLatencies, long requests, long errors) {
+
+        double throughput(Duration duration) {
+            return (requests - errors) / (duration.toMillis() / 1000.0);
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.min(sortedLatencies.length - 1, Math.ceil(percentile / 100 * sortedLatencies.length) - 1);
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
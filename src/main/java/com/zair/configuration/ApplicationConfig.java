@@ -1,58 +1,90 @@
 package com.zair.configuration;
 
 import com.zair.repositories.UserRepository;
+import com.zair.services.impl.CachingUserDetailsService;
+import com.zair.utils.AuthMetrics;
+import com.zair.utils.ReadYourWritesTracker;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.util.function.Function;
+
 /**
  * Clase de configuración de la aplicación que define los beans necesarios para la autenticación.
  */
 @Configuration
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class ApplicationConfig {
 
     private final UserRepository userRepository;
 
+    private final AuthMetrics authMetrics;
+
+    private final ReadYourWritesTracker readYourWrites;
+
+    @Value("${auth.user-cache.enabled:false}")
+    private boolean userCacheEnabled;
+
+    @Value("${auth.user-cache.ttl:60s}")
+    private Duration userCacheTtl;
+
+    @Value("${auth.user-cache.maximum-size:10000}")
+    private long userCacheMaximumSize;
+
     /**
-     * Bean que proporciona un servicio para cargar detalles de usuario basados en el nombre de usuario.
+     * Bean que proporciona un servicio para cargar detalles de usuario basados en el nombre de usuario, usado
+     * por el filtro JWT en cada solicitud.
      *
-     * @return Implementación de UserDetailsService que busca usuarios por su correo electrónico.
+     * @return Implementación de UserDetailsService que busca la proyección de id, correo electrónico y rol
+     * del usuario, sin su contraseña, por correo electrónico o por identificador (tokens compactos),
+     * opcionalmente a través de una caché acotada.
      */
     @Bean
-    public UserDetailsService userDetailsService() {
-        return username -> userRepository.findByEmail(username)
+    public CachingUserDetailsService userDetailsService() {
+        UserDetailsService loader = username -> readYourWrites
+                .read(username, () -> userRepository.findAuthViewByEmail(username))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        Function<Long, UserDetails> idLoader = id -> readYourWrites
+                .read(() -> userRepository.findAuthViewById(id))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-    }
 
-    /**
-     * Bean que proporciona un codificador de contraseñas para encriptar y comparar contraseñas.
-     *
-     * @return BCryptPasswordEncoder que utiliza el algoritmo de hashing bcrypt.
-     */
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new CachingUserDetailsService(loader, idLoader, userCacheEnabled, userCacheTtl, userCacheMaximumSize,
+                authMetrics);
     }
 
     /**
      * Bean que proporciona un proveedor de autenticación que utiliza los servicios de usuario y codificador de contraseñas.
+     * <p>
+     * El inicio de sesión necesita el hash de la contraseña, por lo que carga la entidad completa sin pasar por
+     * la caché de usuarios.
      *
+     * @param passwordEncoder        Codificador de contraseñas.
+     * @param passwordUpgradeService Servicio que reescribe los hashes con un factor de coste inferior al actual.
      * @return DaoAuthenticationProvider configurado con UserDetailsService y PasswordEncoder.
      */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder,
+                                                         UserDetailsPasswordService passwordUpgradeService) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
-        provider.setUserDetailsService(userDetailsService());
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setUserDetailsService(username -> readYourWrites
+                .read(username, () -> userRepository.findByEmail(username))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found")));
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(passwordUpgradeService);
 
         return provider;
     }
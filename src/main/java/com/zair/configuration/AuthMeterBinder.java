@@ -0,0 +1,164 @@
+package com.zair.configuration;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.zair.services.impl.CachingUserDetailsService;
+import com.zair.utils.LoginEventPipeline;
+import com.zair.utils.PasswordHashingExecutor;
+import com.zair.utils.TokenRevocationRegistry;
+import com.zair.utils.VerifiedTokenCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Publica en Micrometer los contadores que ya mantienen los componentes de autenticación: las cachés de
+ * tokens y de usuarios, el pool de hashing de contraseñas, el registro de revocaciones y el canal de eventos de
+ * inicio de sesión.
+ * <p>
+ * Los medidores leen esos contadores solo cuando se consultan las métricas, por lo que no añaden ningún
+ * coste al camino de las solicitudes.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthMeterBinder implements MeterBinder {
+
+    private final VerifiedTokenCache tokenCache;
+
+    private final ObjectProvider<CachingUserDetailsService> userDetailsService;
+
+    private final PasswordHashingExecutor hashingExecutor;
+
+    private final TokenRevocationRegistry revocationRegistry;
+
+    private final ObjectProvider<LoginEventPipeline> loginEvents;
+
+    /**
+     * Registra los medidores.
+     *
+     * @param registry El registro de Micrometer.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindCache(registry, "auth.token.cache", tokenCache, VerifiedTokenCache::stats);
+        Gauge.builder("auth.token.cache.size", tokenCache, VerifiedTokenCache::estimatedSize)
+                .description("Estimated number of cached verified tokens")
+                .register(registry);
+
+        // El servicio con caché de usuarios no existe en la variante reactiva
+        userDetailsService.ifAvailable(service -> bindUserCache(registry, service));
+
+        Gauge.builder("auth.hashing.queue.depth", hashingExecutor, PasswordHashingExecutor::getQueueDepth)
+                .description("Password hashing tasks waiting for a thread")
+                .register(registry);
+        Gauge.builder("auth.hashing.active", hashingExecutor, PasswordHashingExecutor::getActiveCount)
+                .description("Threads currently hashing passwords")
+                .register(registry);
+        FunctionCounter.builder("auth.hashing.rejected", hashingExecutor, PasswordHashingExecutor::getRejectedCount)
+                .description("Password hashing tasks rejected because the queue was full")
+                .register(registry);
+        FunctionTimer.builder("auth.hashing.wait", hashingExecutor,
+                        PasswordHashingExecutor::getCompletedCount,
+                        executor -> executor.getTotalWaitTime().toNanos(),
+                        TimeUnit.NANOSECONDS)
+                .description("Time password hashing tasks spent queued")
+                .register(registry);
+        FunctionTimer.builder("auth.hashing.execution", hashingExecutor,
+                        PasswordHashingExecutor::getCompletedCount,
+                        executor -> executor.getTotalHashTime().toNanos(),
+                        TimeUnit.NANOSECONDS)
+                .description("Time password hashing tasks spent running")
+                .register(registry);
+
+        Gauge.builder("auth.revocation.tokens", revocationRegistry, TokenRevocationRegistry::revokedTokenCount)
+                .description("Individually revoked tokens not yet expired")
+                .register(registry);
+        Gauge.builder("auth.revocation.watermarks", revocationRegistry, TokenRevocationRegistry::watermarkCount)
+                .description("Users with a revoke-all watermark")
+                .register(registry);
+
+        // El canal de eventos escribe por JDBC, que no existe en la variante reactiva
+        loginEvents.ifAvailable(pipeline -> bindLoginEvents(registry, pipeline));
+    }
+
+    /**
+     * Registra los eventos pendientes, su retraso y el resultado de cada evento del canal de inicio de sesión.
+     *
+     * @param registry El registro de Micrometer.
+     * @param pipeline El canal de eventos.
+     */
+    private static void bindLoginEvents(MeterRegistry registry, LoginEventPipeline pipeline) {
+        Gauge.builder("auth.login.events.pending", pipeline, LoginEventPipeline::getPendingCount)
+                .description("Login events buffered and not yet taken by the writer")
+                .register(registry);
+        TimeGauge.builder("auth.login.events.lag", pipeline, TimeUnit.MILLISECONDS, LoginEventPipeline::getLagMillis)
+                .description("Age of the oldest login event not yet written")
+                .register(registry);
+        FunctionCounter.builder("auth.login.events", pipeline, LoginEventPipeline::getWrittenCount)
+                .description("Login events by outcome")
+                .tag("outcome", "written")
+                .register(registry);
+        FunctionCounter.builder("auth.login.events", pipeline, LoginEventPipeline::getDroppedCount)
+                .description("Login events by outcome")
+                .tag("outcome", "dropped")
+                .register(registry);
+        FunctionCounter.builder("auth.login.events", pipeline, LoginEventPipeline::getFailedCount)
+                .description("Login events by outcome")
+                .tag("outcome", "failed")
+                .register(registry);
+        FunctionTimer.builder("auth.login.events.write", pipeline,
+                        LoginEventPipeline::getBatchCount,
+                        p -> p.getTotalWriteTime().toNanos(),
+                        TimeUnit.NANOSECONDS)
+                .description("JDBC batch writes of login events")
+                .register(registry);
+    }
+
+    /**
+     * Registra los medidores de la caché de usuarios y la duración de sus cargas desde la base de datos. La
+     * caché de tokens no tiene este medidor: guarda los tokens que ya verificó el filtro y nunca carga entradas.
+     *
+     * @param registry El registro de Micrometer.
+     * @param service  El servicio con caché de usuarios.
+     */
+    private static void bindUserCache(MeterRegistry registry, CachingUserDetailsService service) {
+        bindCache(registry, "auth.user.cache", service, CachingUserDetailsService::stats);
+        FunctionTimer.builder("auth.user.cache.loads", service,
+                        s -> s.stats().loadCount(),
+                        s -> s.stats().totalLoadTime(),
+                        TimeUnit.NANOSECONDS)
+                .description("Time spent loading users missing from the cache")
+                .register(registry);
+    }
+
+    /**
+     * Registra los aciertos, fallos y desalojos de una caché de Caffeine.
+     *
+     * @param registry El registro de Micrometer.
+     * @param name     El prefijo de los medidores.
+     * @param owner    El componente que contiene la caché, al que los medidores mantienen una referencia débil.
+     * @param stats    La función que obtiene las estadísticas de la caché.
+     * @param <T>      El tipo del componente.
+     */
+    private static <T> void bindCache(MeterRegistry registry, String name, T owner, Function<T, CacheStats> stats) {
+        FunctionCounter.builder(name + ".requests", owner, o -> stats.apply(o).hitCount())
+                .description("Cache lookups by result")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder(name + ".requests", owner, o -> stats.apply(o).missCount())
+                .description("Cache lookups by result")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder(name + ".evictions", owner, o -> stats.apply(o).evictionCount())
+                .description("Entries evicted by size or expiry")
+                .register(registry);
+    }
+}
@@ -0,0 +1,52 @@
+package com.zair.configuration;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Calibra el factor de coste de BCrypt contra una latencia objetivo en el hardware actual.
+ * <p>
+ * Cada incremento del factor duplica el trabajo, por lo que basta con medir el coste mínimo y extrapolar:
+ * se elige el mayor factor cuya latencia estimada no supere el objetivo, nunca por debajo del mínimo de
+ * seguridad ni por encima de 31.
+ */
+final class BCryptCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+
+    private static final int MAX_STRENGTH = 31;
+
+    private BCryptCalibrator() {
+    }
+
+    /**
+     * Calcula el factor de coste para la latencia objetivo.
+     *
+     * @param targetLatency La latencia objetivo de un hash.
+     * @param minStrength   El factor de coste mínimo permitido.
+     * @return El factor de coste calibrado.
+     */
+    static int calibrate(Duration targetLatency, int minStrength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+
+        // La primera ejecución incluye la carga de clases y la compilación JIT, se descarta
+        encoder.encode(SAMPLE_PASSWORD);
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        int strength = minStrength;
+        long estimated = best;
+        while (strength < MAX_STRENGTH && estimated * 2 <= targetLatency.toNanos()) {
+            estimated *= 2;
+            strength++;
+        }
+
+        return strength;
+    }
+}
@@ -0,0 +1,42 @@
+package com.zair.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Clase de configuración del codificador de contraseñas, compartido por las variantes servlet y reactiva.
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+    @Value("${auth.password.strength:0}")
+    private int passwordStrength;
+
+    @Value("${auth.password.target-latency:250ms}")
+    private Duration passwordTargetLatency;
+
+    @Value("${auth.password.min-strength:10}")
+    private int passwordMinStrength;
+
+    /**
+     * Bean que proporciona un codificador de contraseñas para encriptar y comparar contraseñas.
+     * <p>
+     * Si no se fija un factor de coste, se calibra al arrancar contra la latencia objetivo, sin bajar del
+     * mínimo de seguridad. Los hashes con un factor inferior se actualizan en el siguiente inicio de sesión.
+     *
+     * @return BCryptPasswordEncoder que utiliza el algoritmo de hashing bcrypt.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        int strength = passwordStrength > 0
+                ? Math.max(passwordStrength, passwordMinStrength)
+                : BCryptCalibrator.calibrate(passwordTargetLatency, passwordMinStrength);
+
+        return new BCryptPasswordEncoder(strength);
+    }
+}
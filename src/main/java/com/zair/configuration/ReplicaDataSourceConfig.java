@@ -0,0 +1,86 @@
+package com.zair.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuración de la réplica de lectura. Solo se activa si se define {@code auth.datasource.replica.url};
+ * sin ella la aplicación usa únicamente el origen de datos de {@code spring.datasource}.
+ * <p>
+ * La principal se construye a partir de {@code spring.datasource} y recibe las escrituras, las transacciones
+ * de lectura y escritura y el DDL de Hibernate. La réplica recibe las transacciones de solo lectura, entre
+ * ellas las búsquedas de usuario de la autenticación.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnExpression("!'${auth.datasource.replica.url:}'.isEmpty()")
+public class ReplicaDataSourceConfig {
+
+    @Value("${auth.datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${auth.datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${auth.datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    /**
+     * Bean que proporciona el origen de datos de la aplicación, que enruta cada conexión a la principal o a
+     * la réplica.
+     *
+     * @param properties Las propiedades de {@code spring.datasource}.
+     * @return El origen de datos enrutado, que obtiene la conexión real con la primera sentencia.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties) {
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primaryDataSource(properties), replicaDataSource()));
+    }
+
+    /**
+     * Bean que proporciona el pool de conexiones de la base de datos principal, configurable con
+     * {@code spring.datasource.hikari.*} como el pool que crea Spring Boot sin réplica.
+     *
+     * @param properties Las propiedades de {@code spring.datasource}.
+     * @return El pool de la principal.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+
+        return primary;
+    }
+
+    /**
+     * Bean que proporciona el pool de conexiones de la réplica, con las conexiones marcadas de solo lectura.
+     *
+     * @return El pool de la réplica.
+     */
+    @Bean
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(replicaUrl);
+        replica.setUsername(replicaUsername);
+        replica.setPassword(replicaPassword);
+        replica.setReadOnly(true);
+
+        return replica;
+    }
+}
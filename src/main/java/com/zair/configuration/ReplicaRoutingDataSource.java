@@ -0,0 +1,64 @@
+package com.zair.configuration;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Origen de datos que envía las transacciones de solo lectura a la réplica y todo lo demás a la principal.
+ * <p>
+ * La decisión se toma al pedir la conexión, por lo que debe envolverse en un
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: así la conexión se obtiene con
+ * la primera sentencia, cuando la transacción ya ha marcado si es de solo lectura. Las lecturas que no
+ * admiten el retraso de la réplica se fuerzan a la principal con {@link #onPrimary(Supplier)}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+
+    private static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    /**
+     * Construye el origen de datos.
+     *
+     * @param primary La base de datos principal, que recibe las escrituras.
+     * @param replica La réplica de solo lectura.
+     */
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Ejecuta una consulta en la base de datos principal aunque su transacción sea de solo lectura.
+     *
+     * @param query La consulta.
+     * @param <T>   El tipo del resultado.
+     * @return El resultado de la consulta.
+     */
+    public static <T> T onPrimary(Supplier<T> query) {
+        Boolean previous = PRIMARY_PINNED.get();
+        PRIMARY_PINNED.set(Boolean.TRUE);
+
+        try {
+            return query.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_PINNED.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && PRIMARY_PINNED.get() == null
+                ? REPLICA
+                : PRIMARY;
+    }
+}
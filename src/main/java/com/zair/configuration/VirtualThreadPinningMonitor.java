@@ -0,0 +1,152 @@
+package com.zair.configuration;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Diagnóstico de hilos virtuales que fijan (pin) su hilo portador en el camino de autenticación.
+ * <p>
+ * Se activa junto con {@code spring.threads.virtual.enabled} y escucha el evento JFR
+ * {@code jdk.VirtualThreadPinned} (Java 21+), que se emite cuando un hilo virtual se bloquea dentro de un
+ * bloque {@code synchronized} o una llamada nativa. Cada evento se atribuye al primer marco de la pila que
+ * pertenece a la aplicación, al driver JDBC, a Hibernate, a Hikari o a Spring Security (incluido BCrypt),
+ * y se contabiliza por ubicación.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final List<String> AUTH_PATH_PACKAGES = List.of(
+            "com.zair.",
+            "com.mysql.",
+            "org.h2.",
+            "com.zaxxer.hikari.",
+            "org.hibernate.",
+            "org.springframework.security."
+    );
+
+    private final Duration threshold;
+
+    private final Map<String, LongAdder> pinnedBySite = new ConcurrentHashMap<>();
+
+    private final LongAdder pinnedTotal = new LongAdder();
+
+    private RecordingStream stream;
+
+    /**
+     * Construye el monitor.
+     *
+     * @param threshold La duración mínima de un bloqueo para ser reportado.
+     */
+    public VirtualThreadPinningMonitor(@Value("${auth.virtual-threads.pinning-threshold:5ms}") Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Inicia la escucha de eventos JFR si la JVM los soporta.
+     */
+    @PostConstruct
+    public void start() {
+        if (Runtime.version().feature() < 21) {
+            log.warn("Virtual thread pinning diagnostics require Java 21+, running on {}", Runtime.version());
+            return;
+        }
+
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+    }
+
+    /**
+     * Obtiene el número total de bloqueos detectados.
+     *
+     * @return El número de eventos de fijación.
+     */
+    public long getPinnedCount() {
+        return pinnedTotal.sum();
+    }
+
+    /**
+     * Obtiene el número de bloqueos por ubicación en el código.
+     *
+     * @return Un mapa de ubicación a número de eventos.
+     */
+    public Map<String, Long> getPinnedBySite() {
+        Map<String, Long> snapshot = new ConcurrentHashMap<>();
+        pinnedBySite.forEach((site, count) -> snapshot.put(site, count.sum()));
+
+        return snapshot;
+    }
+
+    /**
+     * Detiene la escucha de eventos JFR.
+     */
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * Registra un evento de fijación, atribuyéndolo a su ubicación en el camino de autenticación.
+     *
+     * @param event El evento JFR.
+     */
+    private void onPinned(RecordedEvent event) {
+        pinnedTotal.increment();
+
+        String site = authPathSite(event.getStackTrace());
+        LongAdder counter = pinnedBySite.computeIfAbsent(site, ignored -> new LongAdder());
+        counter.increment();
+
+        // Solo se registra la primera ocurrencia de cada ubicación para no saturar el log
+        if (counter.sum() == 1) {
+            log.warn("Virtual thread pinned its carrier for {} at {}", event.getDuration(), site);
+        }
+    }
+
+    /**
+     * Obtiene el primer marco de la pila que pertenece al camino de autenticación.
+     *
+     * @param stackTrace La pila del evento.
+     * @return La ubicación como "clase.método:línea".
+     */
+    private static String authPathSite(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+
+            if (AUTH_PATH_PACKAGES.stream().anyMatch(type::startsWith)) {
+                return describe(frame);
+            }
+        }
+
+        return describe(stackTrace.getFrames().get(0));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
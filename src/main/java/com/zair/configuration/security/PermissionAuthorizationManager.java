@@ -0,0 +1,172 @@
+package com.zair.configuration.security;
+
+import com.zair.models.enums.Permission;
+import com.zair.models.enums.UserRole;
+import com.zair.utils.JwtAuthentication;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.authorization.method.AuthorizationInterceptorsOrder;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Gestor de autorización de los métodos anotados con {@link RequiresPermission}.
+ * <p>
+ * El punto de corte se evalúa una vez por método al crear los proxies de los beans durante el arranque, y en ese
+ * momento la anotación se compila a la máscara de los permisos exigidos. En cada invocación la decisión se toma
+ * con una búsqueda en el mapa de máscaras y una operación a nivel de bits sobre la máscara que lleva
+ * {@link JwtAuthentication}, sin evaluar expresiones SpEL ni recorrer cadenas de permisos.
+ * <p>
+ * En la variante reactiva la autorización de métodos de Spring Security solo intercepta métodos que devuelven
+ * un {@code Publisher}, y los controladores compartidos con la variante servlet devuelven valores síncronos. Allí
+ * la anotación se comprueba al autorizar el intercambio, sobre el método del controlador que atenderá la
+ * solicitud (véase {@link #reactive}).
+ */
+public final class PermissionAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+
+    private static final Long NONE = 0L;
+
+    private final Map<Method, Long> requiredPermissions = new ConcurrentHashMap<>();
+
+    private final Pointcut pointcut = new StaticMethodMatcherPointcut() {
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return required(method, targetClass) != 0;
+        }
+    };
+
+    /**
+     * Crea el interceptor de métodos que aplica {@link RequiresPermission}, en la posición que ocuparía
+     * {@code @PreAuthorize}.
+     *
+     * @return El interceptor, que también es el advisor que registra el proxy.
+     */
+    public static AuthorizationManagerBeforeMethodInterceptor interceptor() {
+        PermissionAuthorizationManager manager = new PermissionAuthorizationManager();
+        AuthorizationManagerBeforeMethodInterceptor interceptor = new AuthorizationManagerBeforeMethodInterceptor(manager.pointcut, manager);
+        interceptor.setOrder(AuthorizationInterceptorsOrder.PRE_AUTHORIZE.getOrder());
+
+        return interceptor;
+    }
+
+    /**
+     * Crea el gestor de autorización de los intercambios de la variante reactiva: tras conceder el acceso la
+     * tabla de rutas, resuelve el método del controlador de la solicitud y exige los permisos de su anotación
+     * {@link RequiresPermission}. Las solicitudes sin controlador anotado solo dependen de la tabla de rutas.
+     *
+     * @param routes         El gestor de autorización de la tabla de rutas.
+     * @param handlerMapping La resolución de los métodos de los controladores.
+     * @return El gestor de autorización combinado.
+     */
+    public static ReactiveAuthorizationManager<AuthorizationContext> reactive(
+            ReactiveAuthorizationManager<AuthorizationContext> routes, RequestMappingHandlerMapping handlerMapping) {
+        PermissionAuthorizationManager manager = new PermissionAuthorizationManager();
+
+        return (authentication, context) -> {
+            // La autenticación se resuelve una sola vez para ambas comprobaciones
+            Mono<Authentication> resolved = authentication.cache();
+
+            return routes.check(resolved, context)
+                    .defaultIfEmpty(DENIED)
+                    .flatMap(decision -> !decision.isGranted() ? Mono.just(decision) : handlerMapping.getHandler(context.getExchange())
+                            .ofType(HandlerMethod.class)
+                            .map(handler -> manager.required(handler.getMethod(), handler.getBeanType()))
+                            .filter(required -> required != 0)
+                            .flatMap(required -> resolved
+                                    .map(value -> (permissions(value) & required) == required ? GRANTED : DENIED)
+                                    .defaultIfEmpty(DENIED))
+                            .defaultIfEmpty(GRANTED));
+        };
+    }
+
+    /**
+     * Decide si la autenticación tiene todos los permisos que exige el método invocado.
+     *
+     * @param authentication La autenticación de la solicitud.
+     * @param invocation     La invocación del método.
+     * @return La decisión de autorización.
+     */
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        Method method = invocation.getMethod();
+        Long required = requiredPermissions.get(method);
+
+        if (required == null) {
+            // Método que no pasó por el punto de corte (por ejemplo, declarado en una interfaz)
+            Object target = invocation.getThis();
+            required = required(method, target != null ? target.getClass() : method.getDeclaringClass());
+        }
+        if (required == 0) {
+            return GRANTED;
+        }
+
+        long granted = permissions(authentication.get());
+
+        return (granted & required) == required ? GRANTED : DENIED;
+    }
+
+    /**
+     * Compila la anotación del método o, en su defecto, la de su clase, y guarda la máscara del método.
+     *
+     * @param method      El método.
+     * @param targetClass La clase del bean.
+     * @return La máscara de los permisos exigidos, 0 si el método no está anotado.
+     * @throws IllegalStateException Si la anotación no declara ningún permiso.
+     */
+    private long required(Method method, Class<?> targetClass) {
+        return requiredPermissions.computeIfAbsent(method, key -> {
+            RequiresPermission annotation = AnnotatedElementUtils.findMergedAnnotation(key, RequiresPermission.class);
+            if (annotation == null && targetClass != null) {
+                annotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, RequiresPermission.class);
+            }
+            if (annotation == null) {
+                return NONE;
+            }
+            if (annotation.value().length == 0) {
+                throw new IllegalStateException("At least one permission is required for " + key);
+            }
+
+            return Permission.mask(annotation.value());
+        });
+    }
+
+    /**
+     * Obtiene la máscara de permisos de una autenticación. Las autenticaciones construidas desde el token ya la
+     * llevan; las demás la derivan de sus roles.
+     *
+     * @param authentication La autenticación, o null.
+     * @return La máscara de permisos, 0 si no hay un usuario autenticado.
+     */
+    private static long permissions(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated() || TRUST_RESOLVER.isAnonymous(authentication)) {
+            return 0;
+        }
+        if (authentication instanceof JwtAuthentication jwtAuthentication) {
+            return jwtAuthentication.getPermissions();
+        }
+
+        return UserRole.permissionsOf(authentication.getAuthorities());
+    }
+}
@@ -0,0 +1,101 @@
+package com.zair.configuration.security;
+
+import com.zair.utils.JwtReactiveAuthenticationManager;
+import com.zair.utils.JwtServerSecurityContextRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Clase de configuración para la seguridad de la variante reactiva (perfil {@code reactive}).
+ * <p>
+ * Equivale a {@link SecurityConfig} y autoriza con la misma {@link SecurityRoutes}, que también exige los
+ * roles de cada ruta. Las anotaciones {@link RequiresPermission} de los controladores se comprueban al autorizar
+ * cada intercambio, con {@link PermissionAuthorizationManager#reactive}.
+ */
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+@RequiredArgsConstructor
+public class ReactiveSecurityConfig {
+
+    private static final byte[] UNAUTHORIZED_BODY = "{\"error\": \"Unauthorized\"}".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] BAD_REQUEST_BODY = "{\"error\": \"Bad request\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final JwtReactiveAuthenticationManager authenticationManager;
+
+    private final JwtServerSecurityContextRepository securityContextRepository;
+
+    private final SecurityRoutes securityRoutes;
+
+    /**
+     * Configura la cadena de filtros de seguridad reactiva.
+     *
+     * @param http           El objeto ServerHttpSecurity utilizado para configurar la seguridad HTTP.
+     * @param handlerMapping La resolución de los métodos de los controladores, cuyas anotaciones
+     *                       {@link RequiresPermission} se comprueban al autorizar.
+     * @return La cadena de filtros de seguridad configurada.
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping) {
+        return http
+                // Deshabilita la protección CSRF y los mecanismos de autenticación con sesión
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                // Rechaza con 400 las rutas ambiguas, como el StrictHttpFirewall de la variante servlet
+                .addFilterAt((exchange, chain) -> SecurityRoutes.isAmbiguous(exchange.getRequest().getPath().value())
+                        ? writeError(exchange.getResponse(), HttpStatus.BAD_REQUEST, BAD_REQUEST_BODY)
+                        : chain.filter(exchange), SecurityWebFiltersOrder.FIRST)
+                // El contexto de seguridad se reconstruye en cada solicitud a partir del token JWT
+                .authenticationManager(authenticationManager)
+                .securityContextRepository(securityContextRepository)
+                // Autoriza cada intercambio con la tabla de rutas compartida con la variante servlet y con los
+                // permisos que exige el controlador
+                .authorizeExchange(exchanges -> exchanges
+                        .anyExchange().access(PermissionAuthorizationManager.reactive(
+                                securityRoutes.reactiveAuthorizationManager(), handlerMapping))
+                )
+                // Responde 401 en JSON cuando falta el token o no es válido
+                .exceptionHandling(exceptionHandlingSpec -> exceptionHandlingSpec
+                        .authenticationEntryPoint((exchange, e) -> writeError(exchange.getResponse(), HttpStatus.UNAUTHORIZED, UNAUTHORIZED_BODY))
+                )
+                .build();
+    }
+
+    /**
+     * Usa Netty como servidor incluso con Tomcat presente en el classpath por la variante servlet.
+     *
+     * @return La fábrica del servidor web reactivo.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    private static Mono<Void> writeError(ServerHttpResponse response, HttpStatus status, byte[] body) {
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+
+        return response.writeWith(Mono.just(buffer));
+    }
+}
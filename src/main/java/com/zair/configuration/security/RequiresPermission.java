@@ -0,0 +1,27 @@
+package com.zair.configuration.security;
+
+import com.zair.models.enums.Permission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Exige que la autenticación tenga todos los permisos indicados para invocar el método (o cualquier método de la
+ * clase anotada). Sustituye a {@code @PreAuthorize}: {@link PermissionAuthorizationManager} compila la anotación
+ * a una máscara al crear el proxy del bean y cada invocación se decide con una operación a nivel de bits.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequiresPermission {
+
+    /**
+     * Los permisos exigidos.
+     *
+     * @return Los permisos, al menos uno.
+     */
+    Permission[] value();
+}
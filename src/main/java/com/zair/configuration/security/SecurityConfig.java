@@ -2,8 +2,12 @@ package com.zair.configuration.security;
 
 import com.zair.utils.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.Role;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -17,6 +21,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  * Clase de configuración para la seguridad de la aplicación.
  */
 @Configuration
+@Profile("!reactive")
 @EnableWebSecurity
 @EnableMethodSecurity
 @RequiredArgsConstructor
@@ -26,6 +31,8 @@ public class SecurityConfig {
 
     private final AuthenticationProvider authenticationProvider;
 
+    private final SecurityRoutes securityRoutes;
+
     /**
      * Configura el filtro de seguridad y la cadena de filtros de seguridad HTTP.
      *
@@ -38,11 +45,10 @@ public class SecurityConfig {
         http
                 // Deshabilita la protección CSRF
                 .csrf(AbstractHttpConfigurer::disable)
-                // Autoriza las peticiones HTTP mediante el objeto authorizationManagerRequestMatcherRegistry
+                // Autoriza las peticiones HTTP con la tabla de rutas compartida con el filtro JWT: una sola
+                // clasificación por solicitud en lugar de probar cada patrón por separado
                 .authorizeHttpRequests(authorizationManagerRequestMatcherRegistry -> authorizationManagerRequestMatcherRegistry
-                        .requestMatchers("/api/auth/**").permitAll()    // Permite el acceso a todas las URL que comiencen con '/api/auth/'
-                        .requestMatchers("/api/public/**").permitAll()  // Permite el acceso a todas las URL que comiencen con '/api/public/'
-                        .anyRequest().authenticated()                     // Cualquier otra URL requiere autenticación
+                        .anyRequest().access(securityRoutes.authorizationManager())
                 )
                 // Configura la gestión de sesiones como 'STATELESS' (sin estado)
                 .sessionManagement(httpSecuritySessionManagementConfigurer -> httpSecuritySessionManagementConfigurer
@@ -60,4 +66,16 @@ public class SecurityConfig {
 
         return http.build();
     }
+
+    /**
+     * Registra la autorización de los métodos anotados con {@link RequiresPermission}. Es estático para que el
+     * advisor exista antes de que se creen los proxies de los controladores.
+     *
+     * @return El advisor que aplica los permisos exigidos por la anotación.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor requiresPermissionAdvisor() {
+        return PermissionAuthorizationManager.interceptor();
+    }
 }
@@ -0,0 +1,411 @@
+package com.zair.configuration.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+
+/**
+ * Tabla precompilada de las reglas de acceso de cada ruta, compartida por el filtro JWT y las reglas de
+ * autorización de las variantes servlet y reactiva.
+ * <p>
+ * Los patrones son rutas exactas ({@code /actuator/health}) o prefijos de segmentos completos
+ * ({@code /api/auth/**}, que también incluye {@code /api/auth}). Se compilan en un árbol de segmentos en el que
+ * cada ruta se clasifica con un único recorrido que compara los segmentos sobre la propia cadena, sin dividirla
+ * ni asignar memoria. Gana el patrón más específico; las rutas sin patrón exigen un usuario autenticado.
+ * <p>
+ * La variante servlet clasifica la ruta ya decodificada y normalizada por el servidor, tras el
+ * {@code StrictHttpFirewall}. La reactiva clasifica los segmentos decodificados y sin parámetros de matriz de
+ * la ruta, igual que los ve el enrutado de WebFlux, y {@link #isAmbiguous} detecta las rutas que ese cortafuegos
+ * rechazaría.
+ */
+public final class SecurityRoutes {
+
+    /**
+     * Atributo de la solicitud en el que se guarda la regla ya resuelta, para clasificar la ruta una sola vez.
+     */
+    public static final String RULE_ATTRIBUTE = SecurityRoutes.class.getName() + ".RULE";
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+
+    private final Node root;
+
+    private final Rule defaultRule;
+
+    private SecurityRoutes(Node root, Rule defaultRule) {
+        this.root = root;
+        this.defaultRule = defaultRule;
+    }
+
+    /**
+     * Crea un constructor de la tabla.
+     *
+     * @return El constructor, en el que las rutas sin patrón exigen un usuario autenticado.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Obtiene la regla de una ruta.
+     *
+     * @param path La ruta, que empieza por '/'.
+     * @return La regla del patrón más específico que la incluye, o la regla por defecto.
+     */
+    public Rule match(String path) {
+        Node node = root;
+        Rule prefixRule = node.prefixRule;
+        int length = path.length();
+        int start = 0;
+
+        while (start < length) {
+            // Las barras consecutivas o finales no forman segmentos
+            if (path.charAt(start) == '/') {
+                start++;
+                continue;
+            }
+
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+
+            node = node.child(path, start, end - start);
+            if (node == null) {
+                return prefixRule != null ? prefixRule : defaultRule;
+            }
+            if (node.prefixRule != null) {
+                prefixRule = node.prefixRule;
+            }
+
+            start = end;
+        }
+
+        if (node.exactRule != null) {
+            return node.exactRule;
+        }
+
+        return prefixRule != null ? prefixRule : defaultRule;
+    }
+
+    /**
+     * Obtiene la regla de una ruta reactiva a partir de sus segmentos decodificados, sin parámetros de matriz.
+     *
+     * @param path La ruta dentro de la aplicación.
+     * @return La regla del patrón más específico que la incluye, o la regla por defecto.
+     */
+    public Rule match(PathContainer path) {
+        Node node = root;
+        Rule prefixRule = node.prefixRule;
+
+        for (PathContainer.Element element : path.elements()) {
+            if (!(element instanceof PathContainer.PathSegment segment) || segment.valueToMatch().isEmpty()) {
+                continue;
+            }
+
+            String value = segment.valueToMatch();
+            node = node.child(value, 0, value.length());
+            if (node == null) {
+                return prefixRule != null ? prefixRule : defaultRule;
+            }
+            if (node.prefixRule != null) {
+                prefixRule = node.prefixRule;
+            }
+        }
+
+        if (node.exactRule != null) {
+            return node.exactRule;
+        }
+
+        return prefixRule != null ? prefixRule : defaultRule;
+    }
+
+    /**
+     * Indica si una ruta sin decodificar es ambigua: contiene parámetros de matriz ({@code ;}), barras invertidas,
+     * barras, puntos o '%' codificados, o segmentos {@code .} y {@code ..}. Son las rutas que rechaza el
+     * {@code StrictHttpFirewall} de la variante servlet, ya que el segmento que se autoriza podría no coincidir
+     * con el que resuelve el enrutado.
+     *
+     * @param rawPath La ruta tal como llega en la solicitud.
+     * @return true si la ruta debe rechazarse, false en caso contrario.
+     */
+    public static boolean isAmbiguous(String rawPath) {
+        int length = rawPath.length();
+
+        for (int i = 0; i < length; i++) {
+            char ch = rawPath.charAt(i);
+
+            if (ch == ';' || ch == '\\') {
+                return true;
+            }
+            if (ch == '%' && i + 2 < length) {
+                char high = rawPath.charAt(i + 1);
+                char low = Character.toLowerCase(rawPath.charAt(i + 2));
+                if ((high == '2' && (low == 'f' || low == 'e' || low == '5')) || (high == '5' && low == 'c')) {
+                    return true;
+                }
+            }
+            if (ch == '.' && (i == 0 || rawPath.charAt(i - 1) == '/')) {
+                int end = rawPath.indexOf('/', i);
+                int segmentLength = (end < 0 ? length : end) - i;
+                if (segmentLength == 1 || segmentLength == 2 && rawPath.charAt(i + 1) == '.') {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Obtiene la regla de la solicitud, clasificándola la primera vez y reutilizando el resultado después.
+     *
+     * @param request La solicitud HTTP.
+     * @return La regla de la ruta de la solicitud.
+     */
+    public Rule resolve(HttpServletRequest request) {
+        Object cached = request.getAttribute(RULE_ATTRIBUTE);
+
+        if (cached instanceof Rule rule) {
+            return rule;
+        }
+
+        String pathInfo = request.getPathInfo();
+        Rule rule = match(pathInfo == null ? request.getServletPath() : request.getServletPath() + pathInfo);
+        request.setAttribute(RULE_ATTRIBUTE, rule);
+
+        return rule;
+    }
+
+    /**
+     * Crea el gestor de autorización de la variante servlet, que decide con la regla de la solicitud.
+     *
+     * @return El gestor de autorización.
+     */
+    public AuthorizationManager<RequestAuthorizationContext> authorizationManager() {
+        return (authentication, context) -> {
+            Rule rule = resolve(context.getRequest());
+
+            return rule.permitAll() || rule.allows(authentication.get()) ? GRANTED : DENIED;
+        };
+    }
+
+    /**
+     * Crea el gestor de autorización de la variante reactiva. En las rutas públicas no se suscribe a la
+     * autenticación, de modo que el token ni siquiera se lee. Deniega las rutas ambiguas, que además rechaza
+     * antes el filtro de {@code ReactiveSecurityConfig}.
+     *
+     * @return El gestor de autorización.
+     */
+    public ReactiveAuthorizationManager<AuthorizationContext> reactiveAuthorizationManager() {
+        return (authentication, context) -> {
+            RequestPath path = context.getExchange().getRequest().getPath();
+            if (isAmbiguous(path.value())) {
+                return Mono.just(DENIED);
+            }
+
+            Rule rule = match(path.pathWithinApplication());
+
+            if (rule.permitAll()) {
+                return Mono.just(GRANTED);
+            }
+
+            return authentication
+                    .map(value -> rule.allows(value) ? GRANTED : DENIED)
+                    .defaultIfEmpty(DENIED);
+        };
+    }
+
+    /**
+     * Regla de acceso de una ruta.
+     */
+    public static final class Rule {
+
+        private final boolean permitAll;
+
+        private final String[] authorities;
+
+        private Rule(boolean permitAll, String[] authorities) {
+            this.permitAll = permitAll;
+            this.authorities = authorities;
+        }
+
+        /**
+         * Indica si la ruta es pública: no se autentica ni se lee el token.
+         *
+         * @return true si la ruta es pública, false en caso contrario.
+         */
+        public boolean permitAll() {
+            return permitAll;
+        }
+
+        /**
+         * Indica si la autenticación cumple la regla: un usuario autenticado, no anónimo, con alguno de los
+         * permisos exigidos si la regla los define.
+         *
+         * @param authentication La autenticación de la solicitud, o null.
+         * @return true si se concede el acceso, false en caso contrario.
+         */
+        public boolean allows(Authentication authentication) {
+            if (permitAll) {
+                return true;
+            }
+            if (authentication == null || !authentication.isAuthenticated() || TRUST_RESOLVER.isAnonymous(authentication)) {
+                return false;
+            }
+            if (authorities.length == 0) {
+                return true;
+            }
+
+            for (GrantedAuthority granted : authentication.getAuthorities()) {
+                for (String authority : authorities) {
+                    if (authority.equals(granted.getAuthority())) {
+                        return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Constructor de la tabla. Los patrones se pueden declarar en cualquier orden.
+     */
+    public static final class Builder {
+
+        private final Node root = new Node(null);
+
+        private Builder() {
+        }
+
+        /**
+         * Declara rutas públicas.
+         *
+         * @param patterns Los patrones de las rutas.
+         * @return El constructor.
+         */
+        public Builder permitAll(String... patterns) {
+            return add(new Rule(true, new String[0]), patterns);
+        }
+
+        /**
+         * Declara rutas que exigen un usuario autenticado, con cualquier permiso.
+         *
+         * @param patterns Los patrones de las rutas.
+         * @return El constructor.
+         */
+        public Builder authenticated(String... patterns) {
+            return add(new Rule(false, new String[0]), patterns);
+        }
+
+        /**
+         * Declara una ruta que exige alguno de los permisos indicados.
+         *
+         * @param pattern     El patrón de la ruta.
+         * @param authorities Los permisos admitidos.
+         * @return El constructor.
+         */
+        public Builder hasAnyAuthority(String pattern, String... authorities) {
+            if (authorities.length == 0) {
+                throw new IllegalArgumentException("At least one authority is required for " + pattern);
+            }
+
+            return add(new Rule(false, authorities.clone()), pattern);
+        }
+
+        /**
+         * Construye la tabla.
+         *
+         * @return La tabla, inmutable.
+         */
+        public SecurityRoutes build() {
+            return new SecurityRoutes(root, new Rule(false, new String[0]));
+        }
+
+        private Builder add(Rule rule, String... patterns) {
+            for (String pattern : patterns) {
+                boolean prefix = pattern.endsWith("/**");
+                String path = prefix ? pattern.substring(0, pattern.length() - 3) : pattern;
+
+                if (!path.startsWith("/") || path.contains("*")) {
+                    throw new IllegalArgumentException("Unsupported route pattern: " + pattern);
+                }
+
+                Node node = root;
+                for (String segment : path.split("/")) {
+                    if (!segment.isEmpty()) {
+                        node = node.childOrCreate(segment);
+                    }
+                }
+
+                if (prefix) {
+                    node.prefixRule = rule;
+                } else {
+                    node.exactRule = rule;
+                }
+            }
+
+            return this;
+        }
+    }
+
+    /**
+     * Nodo del árbol: un segmento con sus hijos y las reglas del patrón exacto y del prefijo que terminan en él.
+     */
+    private static final class Node {
+
+        private final String segment;
+
+        private Node[] children = new Node[0];
+
+        private Rule exactRule;
+
+        private Rule prefixRule;
+
+        private Node(String segment) {
+            this.segment = segment;
+        }
+
+        /**
+         * Busca el hijo cuyo segmento coincide con una parte de la ruta. Cada nodo tiene pocos hijos, por lo
+         * que un recorrido lineal es más rápido que un mapa y no exige extraer el segmento.
+         */
+        private Node child(String path, int offset, int length) {
+            for (Node child : children) {
+                if (child.segment.length() == length && path.regionMatches(offset, child.segment, 0, length)) {
+                    return child;
+                }
+            }
+
+            return null;
+        }
+
+        private Node childOrCreate(String segment) {
+            Node child = child(segment, 0, segment.length());
+
+            if (child == null) {
+                child = new Node(segment);
+                children = Arrays.copyOf(children, children.length + 1);
+                children[children.length - 1] = child;
+            }
+
+            return child;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.zair.configuration.security;
+
+import com.zair.models.enums.UserRole;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Clase de configuración de las reglas de acceso por ruta, comunes a las variantes servlet y reactiva.
+ */
+@Configuration
+public class SecurityRoutesConfig {
+
+    /**
+     * Bean que proporciona la tabla de rutas que consultan el filtro JWT y las reglas de autorización.
+     *
+     * @return La tabla de rutas; cualquier otra ruta requiere autenticación.
+     */
+    @Bean
+    public SecurityRoutes securityRoutes() {
+        String admin = UserRole.ADMIN.name();
+        String client = UserRole.CLIENT.name();
+
+        return SecurityRoutes.builder()
+                .permitAll("/api/auth/**", "/api/public/**", "/actuator/health", "/actuator/health/liveness",
+                        "/actuator/health/readiness")
+                .hasAnyAuthority("/api/users/admin", admin)
+                .hasAnyAuthority("/api/users/client", client)
+                .hasAnyAuthority("/api/users/common", admin, client)
+                .hasAnyAuthority("/api/admin/**", admin)
+                .hasAnyAuthority("/actuator/**", admin)
+                .build();
+    }
+}
@@ -3,45 +3,135 @@ package com.zair.controllers;
 import com.zair.models.dtos.LoginDTO;
 import com.zair.models.dtos.RegisterDTO;
 import com.zair.services.AuthService;
+import com.zair.utils.ClientIpResolver;
+import com.zair.utils.LoginRateLimiter;
+import com.zair.utils.PasswordHashingExecutor;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("api/auth")
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class AuthController {
 
     private final AuthService service;
 
+    private final PasswordHashingExecutor hashingExecutor;
+
+    private final LoginRateLimiter rateLimiter;
+
+    private final ClientIpResolver clientIpResolver;
+
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginDTO dto) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginDTO dto, HttpServletRequest request) {
+        String clientIp = clientIpResolver.resolve(request.getRemoteAddr(),
+                Collections.list(request.getHeaders(ClientIpResolver.X_FORWARDED_FOR)));
+
+        // La cuota se comprueba antes de encolar BCrypt, de modo que un intento rechazado no cuesta ningún hash
+        long retryAfterMillis = rateLimiter.tryAcquire(dto.getEmail(), clientIp);
+        if (retryAfterMillis > 0) {
+            return CompletableFuture.completedFuture(tooManyLoginAttempts(retryAfterMillis));
+        }
+
         try {
-            return ResponseEntity.status(HttpStatus.OK)
-                    .body(service.login(dto));
-        } catch (BadCredentialsException | UsernameNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body("{\"error\": \"Invalid credentials\"}");
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .build();
+            return hashingExecutor.submit(() -> service.login(dto, clientIp))
+                    .<ResponseEntity<?>>thenApply(auth -> {
+                        rateLimiter.loginSucceeded(dto.getEmail(), clientIp);
+                        return ResponseEntity.status(HttpStatus.OK)
+                                .body(auth);
+                    })
+                    .exceptionally(e -> {
+                        Throwable cause = unwrap(e);
+
+                        if (cause instanceof BadCredentialsException || cause instanceof UsernameNotFoundException) {
+                            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                    .body("{\"error\": \"Invalid credentials\"}");
+                        }
+
+                        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                                .build();
+                    });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(serviceUnavailable());
         }
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody RegisterDTO dto) {
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody RegisterDTO dto) {
+        try {
+            return hashingExecutor.submit(() -> service.register(dto))
+                    .<ResponseEntity<?>>thenApply(auth -> ResponseEntity.status(HttpStatus.OK)
+                            .body(auth))
+                    .exceptionally(e -> ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                            .body("{\"error\": \"Error registering user\"}"));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(serviceUnavailable());
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String header) {
+        try {
+            service.logout(bearerToken(header));
+            return ResponseEntity.noContent().build();
+        } catch (JwtException | IllegalArgumentException e) {
+            return invalidToken();
+        }
+    }
+
+    @PostMapping("/logout-all")
+    public ResponseEntity<?> logoutAll(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String header) {
         try {
-            return ResponseEntity.status(HttpStatus.OK)
-                    .body(service.register(dto));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body("{\"error\": \"Error registering user\"}");
+            service.logoutAll(bearerToken(header));
+            return ResponseEntity.noContent().build();
+        } catch (JwtException | IllegalArgumentException e) {
+            return invalidToken();
+        }
+    }
+
+    private ResponseEntity<?> serviceUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(hashingExecutor.getRetryAfterSeconds()))
+                .body("{\"error\": \"Too many authentication requests, retry later\"}");
+    }
+
+    private static ResponseEntity<?> tooManyLoginAttempts(long retryAfterMillis) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf((retryAfterMillis + 999) / 1000))
+                .body("{\"error\": \"Too many login attempts, retry later\"}");
+    }
+
+    private static ResponseEntity<?> invalidToken() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body("{\"error\": \"Invalid token\"}");
+    }
+
+    private static String bearerToken(String header) {
+        if (header == null || !header.startsWith("Bearer ")) {
+            throw new IllegalArgumentException("Missing bearer token");
         }
+        return header.substring("Bearer ".length());
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
     }
 }
@@ -0,0 +1,48 @@
+package com.zair.controllers;
+
+import com.zair.utils.SigningKeyRing;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("api/public/.well-known")
+@RequiredArgsConstructor
+public class JwksController {
+
+    private static final MediaType JWK_SET = MediaType.parseMediaType("application/jwk-set+json");
+
+    private final SigningKeyRing keyRing;
+
+    @Value("${jwt.signing.jwks-max-age:5m}")
+    private Duration maxAge;
+
+    @GetMapping("/jwks.json")
+    public ResponseEntity<String> jwks(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = keyRing.jwksETag();
+        CacheControl cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+
+        if (eTag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(cacheControl)
+                    .eTag(eTag)
+                    .build();
+        }
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(JWK_SET)
+                .cacheControl(cacheControl)
+                .eTag(eTag)
+                .body(keyRing.jwks());
+    }
+}
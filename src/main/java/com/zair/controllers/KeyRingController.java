@@ -0,0 +1,33 @@
+package com.zair.controllers;
+
+import com.zair.configuration.security.RequiresPermission;
+import com.zair.models.enums.Permission;
+import com.zair.utils.SigningKeyRing;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("api/admin/keys")
+@RequiredArgsConstructor
+public class KeyRingController {
+
+    private final SigningKeyRing keyRing;
+
+    @PostMapping("/rotate")
+    @RequiresPermission(Permission.KEYS_ROTATE)
+    public ResponseEntity<?> rotate() {
+        try {
+            return ResponseEntity.status(HttpStatus.OK)
+                    .body(Map.of("kid", keyRing.rotate()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+}
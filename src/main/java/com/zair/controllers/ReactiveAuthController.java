@@ -0,0 +1,113 @@
+package com.zair.controllers;
+
+import com.zair.models.dtos.LoginDTO;
+import com.zair.models.dtos.RegisterDTO;
+import com.zair.services.ReactiveAuthService;
+import com.zair.utils.ClientIpResolver;
+import com.zair.utils.LoginRateLimiter;
+import com.zair.utils.PasswordHashingExecutor;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("api/auth")
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAuthController {
+
+    private final ReactiveAuthService service;
+
+    private final PasswordHashingExecutor hashingExecutor;
+
+    private final LoginRateLimiter rateLimiter;
+
+    private final ClientIpResolver clientIpResolver;
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<?>> login(@RequestBody LoginDTO dto, ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String clientIp = clientIpResolver.resolve(remoteAddress != null ? remoteAddress.getHostString() : null,
+                request.getHeaders().get(ClientIpResolver.X_FORWARDED_FOR));
+
+        // La cuota se comprueba antes de encolar BCrypt, de modo que un intento rechazado no cuesta ningún hash
+        long retryAfterMillis = rateLimiter.tryAcquire(dto.getEmail(), clientIp);
+        if (retryAfterMillis > 0) {
+            return Mono.just(tooManyLoginAttempts(retryAfterMillis));
+        }
+
+        return service.login(dto)
+                .doOnNext(auth -> rateLimiter.loginSucceeded(dto.getEmail(), clientIp))
+                .<ResponseEntity<?>>map(auth -> ResponseEntity.status(HttpStatus.OK)
+                        .body(auth))
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(serviceUnavailable()))
+                .onErrorResume(BadCredentialsException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body("{\"error\": \"Invalid credentials\"}")))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .build()));
+    }
+
+    @PostMapping("/register")
+    public Mono<ResponseEntity<?>> register(@RequestBody RegisterDTO dto) {
+        return service.register(dto)
+                .<ResponseEntity<?>>map(auth -> ResponseEntity.status(HttpStatus.OK)
+                        .body(auth))
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(serviceUnavailable()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body("{\"error\": \"Error registering user\"}")));
+    }
+
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<?>> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String header) {
+        return Mono.defer(() -> service.logout(bearerToken(header)))
+                .then(Mono.<ResponseEntity<?>>fromSupplier(() -> ResponseEntity.noContent().build()))
+                .onErrorResume(e -> e instanceof JwtException || e instanceof IllegalArgumentException,
+                        e -> Mono.just(invalidToken()));
+    }
+
+    @PostMapping("/logout-all")
+    public Mono<ResponseEntity<?>> logoutAll(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String header) {
+        return Mono.defer(() -> service.logoutAll(bearerToken(header)))
+                .then(Mono.<ResponseEntity<?>>fromSupplier(() -> ResponseEntity.noContent().build()))
+                .onErrorResume(e -> e instanceof JwtException || e instanceof IllegalArgumentException,
+                        e -> Mono.just(invalidToken()));
+    }
+
+    private ResponseEntity<?> serviceUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(hashingExecutor.getRetryAfterSeconds()))
+                .body("{\"error\": \"Too many authentication requests, retry later\"}");
+    }
+
+    private static ResponseEntity<?> tooManyLoginAttempts(long retryAfterMillis) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf((retryAfterMillis + 999) / 1000))
+                .body("{\"error\": \"Too many login attempts, retry later\"}");
+    }
+
+    private static ResponseEntity<?> invalidToken() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body("{\"error\": \"Invalid token\"}");
+    }
+
+    private static String bearerToken(String header) {
+        if (header == null || !header.startsWith("Bearer ")) {
+            throw new IllegalArgumentException("Missing bearer token");
+        }
+        return header.substring("Bearer ".length());
+    }
+}
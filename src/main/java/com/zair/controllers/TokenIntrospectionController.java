@@ -0,0 +1,61 @@
+package com.zair.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zair.configuration.security.RequiresPermission;
+import com.zair.models.dtos.IntrospectionRequestDTO;
+import com.zair.models.enums.Permission;
+import com.zair.services.TokenIntrospectionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+@RestController
+@RequestMapping("api/admin/tokens")
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class TokenIntrospectionController {
+
+    private final TokenIntrospectionService introspectionService;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Comprueba un lote de tokens y responde con el resultado de cada uno, en el mismo orden. El cuerpo se
+     * serializa completo antes de responder para enviarlo con {@code Content-Length} en lugar de por bloques,
+     * de modo que los clientes que reutilizan la conexión leen la respuesta sin esperar al bloque final.
+     */
+    @PostMapping("/introspect")
+    @RequiresPermission(Permission.TOKENS_INTROSPECT)
+    public ResponseEntity<byte[]> introspect(@RequestBody IntrospectionRequestDTO request) throws JsonProcessingException {
+        if (request.getTokens() == null || request.getTokens().isEmpty()) {
+            return error("At least one token is required");
+        }
+
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(Map.of("results", introspectionService.introspect(request.getTokens())));
+            return json(ResponseEntity.ok(), body);
+        } catch (IllegalArgumentException e) {
+            return error(e.getMessage());
+        }
+    }
+
+    private ResponseEntity<byte[]> error(String message) throws JsonProcessingException {
+        return json(ResponseEntity.badRequest(), objectMapper.writeValueAsBytes(Map.of("error", message)));
+    }
+
+    private static ResponseEntity<byte[]> json(ResponseEntity.BodyBuilder builder, byte[] body) {
+        return builder
+                .contentType(new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_8))
+                .contentLength(body.length)
+                .body(body);
+    }
+}
@@ -1,6 +1,7 @@
 package com.zair.controllers;
 
-import org.springframework.security.access.prepost.PreAuthorize;
+import com.zair.configuration.security.RequiresPermission;
+import com.zair.models.enums.Permission;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -10,19 +11,19 @@ import org.springframework.web.bind.annotation.RestController;
 public class UserController {
 
     @GetMapping("/admin")
-    @PreAuthorize("hasAuthority('ADMIN')")
+    @RequiresPermission(Permission.USERS_ADMIN)
     public String adminEndpoint() {
         return "If you see this, then you are an administrator.";
     }
 
     @GetMapping("/client")
-    @PreAuthorize("hasAuthority('CLIENT')")
+    @RequiresPermission(Permission.USERS_CLIENT)
     public String clientEndpoint() {
         return "If you see this, then you are a client";
     }
 
     @GetMapping("/common")
-    @PreAuthorize("hasAnyAuthority('ADMIN', 'CLIENT')")
+    @RequiresPermission(Permission.USERS_COMMON)
     public String commonEndpoint() {
         return "If you see this, then you are an administrator or a client.";
     }
@@ -0,0 +1,86 @@
+package com.zair.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zair.configuration.security.RequiresPermission;
+import com.zair.models.dtos.ImportErrorDTO;
+import com.zair.models.dtos.ImportProgressDTO;
+import com.zair.models.enums.ImportFormat;
+import com.zair.models.enums.Permission;
+import com.zair.services.UserImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+@RestController
+@RequestMapping("api/admin/users")
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class UserImportController {
+
+    private static final String TEXT_CSV = "text/csv";
+
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private final UserImportService importService;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Importa usuarios desde un cuerpo CSV o NDJSON y responde en NDJSON a medida que avanza: una línea
+     * {@code error} por fila rechazada, una línea {@code progress} por lote y una línea {@code summary} final.
+     */
+    @PostMapping(value = "/import", consumes = {TEXT_CSV, APPLICATION_NDJSON})
+    @RequiresPermission(Permission.USERS_IMPORT)
+    public void importUsers(@RequestHeader("Content-Type") MediaType contentType,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        ImportFormat format = contentType.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV))
+                ? ImportFormat.CSV
+                : ImportFormat.NDJSON;
+        BufferedReader body = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(APPLICATION_NDJSON);
+        Writer writer = response.getWriter();
+
+        try {
+            ImportProgressDTO summary = importService.importUsers(body, format, new UserImportService.Listener() {
+                @Override
+                public void onError(ImportErrorDTO error) throws IOException {
+                    writeLine(writer, "error", error);
+                }
+
+                @Override
+                public void onProgress(ImportProgressDTO progress) throws IOException {
+                    writeLine(writer, "progress", progress);
+                    writer.flush();
+                }
+            });
+            writeLine(writer, "summary", summary);
+        } catch (IllegalArgumentException e) {
+            // Solo la cabecera o un cuerpo vacío invalidan la importación completa, antes de escribir la respuesta
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            writer.write("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+
+    private void writeLine(Writer writer, String type, Object event) throws IOException {
+        writer.write(objectMapper.writeValueAsString(Map.of(type, event)));
+        writer.write('\n');
+    }
+}
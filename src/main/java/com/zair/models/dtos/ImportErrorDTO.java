@@ -0,0 +1,14 @@
+package com.zair.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO (Data Transfer Object) que representa una fila rechazada de una importación masiva de usuarios.
+ */
+@Data @AllArgsConstructor
+public class ImportErrorDTO {
+    long line;
+    String email;
+    String error;
+}
@@ -0,0 +1,16 @@
+package com.zair.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO (Data Transfer Object) que representa el avance, o el resultado final, de una importación masiva de usuarios.
+ */
+@Data @AllArgsConstructor
+public class ImportProgressDTO {
+    long processed;
+    long imported;
+    long rejected;
+    long elapsedMillis;
+    double rowsPerSecond;
+}
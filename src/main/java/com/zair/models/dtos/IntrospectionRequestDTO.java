@@ -0,0 +1,13 @@
+package com.zair.models.dtos;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO (Data Transfer Object) con los tokens de una solicitud de introspección por lotes.
+ */
+@Data
+public class IntrospectionRequestDTO {
+    List<String> tokens;
+}
@@ -0,0 +1,23 @@
+package com.zair.models.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.zair.models.enums.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO (Data Transfer Object) que representa el resultado de la introspección de un token: sus claims si está
+ * activo, o el motivo del rechazo si no lo está.
+ */
+@Data @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IntrospectionResultDTO {
+    boolean active;
+    String sub;
+    @JsonProperty("user_id")
+    Long userId;
+    UserRole role;
+    Long exp;
+    String reason;
+}
@@ -1,6 +1,9 @@
 package com.zair.models.dtos;
 
 import com.zair.models.enums.UserRole;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 /**
@@ -8,9 +11,15 @@ import lombok.Data;
  */
 @Data
 public class RegisterDTO {
+    @NotBlank(message = "Missing field: name")
     String name;
+    @NotBlank(message = "Missing field: lastName")
     String lastName;
+    @NotBlank(message = "Missing field: email")
+    @Email(message = "Invalid email")
     String email;
+    @NotBlank(message = "Missing field: password")
     String password;
+    @NotNull(message = "Missing field: role")
     UserRole role;
 }
@@ -0,0 +1,50 @@
+package com.zair.models.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Entidad que representa el resultado de un intento de inicio de sesión, para la auditoría: el último inicio de
+ * sesión correcto de un usuario, sus intentos fallidos y la IP de origen de cada intento.
+ */
+@Entity
+@Table(name = "login_event", indexes = @Index(name = "idx_login_event_email", columnList = "email, occurred_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String email;
+
+    /**
+     * El identificador del usuario, null si el intento falló.
+     */
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private boolean success;
+
+    @Column(name = "ip_address", length = 45)
+    private String ipAddress;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+}
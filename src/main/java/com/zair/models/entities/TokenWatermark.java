@@ -0,0 +1,31 @@
+package com.zair.models.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Entidad que representa la marca de agua de un usuario: sus tokens emitidos antes de ella ya no son válidos.
+ */
+@Entity
+@Table(name = "token_watermark")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenWatermark {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "not_before", nullable = false)
+    private Instant notBefore;
+}
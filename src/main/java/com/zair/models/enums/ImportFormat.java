@@ -0,0 +1,15 @@
+package com.zair.models.enums;
+
+/**
+ * Enumeración que define los formatos admitidos por la importación masiva de usuarios.
+ */
+public enum ImportFormat {
+    /**
+     * CSV con cabecera: name, lastName, email, password, role.
+     */
+    CSV,
+    /**
+     * Un objeto JSON por línea con los mismos campos que el registro.
+     */
+    NDJSON
+}
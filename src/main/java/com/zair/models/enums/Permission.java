@@ -0,0 +1,45 @@
+package com.zair.models.enums;
+
+/**
+ * Enumeración que define los permisos de grano fino que agrupa cada rol.
+ * <p>
+ * Cada permiso ocupa un bit fijo, estable e independiente del orden de declaración, de la máscara que viaja en
+ * el claim {@code perms} de los tokens. Un bit publicado no se reutiliza para otro permiso.
+ */
+public enum Permission {
+    USERS_COMMON(0),
+    USERS_CLIENT(1),
+    USERS_ADMIN(2),
+    USERS_IMPORT(3),
+    TOKENS_INTROSPECT(4),
+    KEYS_ROTATE(5);
+
+    private final long mask;
+
+    Permission(int bit) {
+        this.mask = 1L << bit;
+    }
+
+    /**
+     * Obtiene la máscara del permiso, con un único bit activo.
+     *
+     * @return La máscara del permiso.
+     */
+    public long getMask() {
+        return mask;
+    }
+
+    /**
+     * Combina varios permisos en una máscara.
+     *
+     * @param permissions Los permisos.
+     * @return La máscara con el bit de cada permiso activo.
+     */
+    public static long mask(Permission... permissions) {
+        long mask = 0;
+        for (Permission permission : permissions) {
+            mask |= permission.mask;
+        }
+        return mask;
+    }
+}
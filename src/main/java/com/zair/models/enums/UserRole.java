@@ -1,9 +1,97 @@
 package com.zair.models.enums;
 
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
 /**
- * Enumeración que define los roles de usuario en el sistema.
+ * Enumeración que define los roles de usuario en el sistema y los permisos que concede cada uno.
  */
 public enum UserRole {
-    ADMIN,
-    CLIENT
+    ADMIN(1, Permission.USERS_COMMON, Permission.USERS_ADMIN, Permission.USERS_IMPORT, Permission.TOKENS_INTROSPECT,
+            Permission.KEYS_ROTATE),
+    CLIENT(2, Permission.USERS_COMMON, Permission.USERS_CLIENT);
+
+    private static final UserRole[] VALUES = values();
+
+    private final int code;
+
+    private final long permissions;
+
+    private final List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(name()));
+
+    UserRole(int code, Permission... permissions) {
+        this.code = code;
+        this.permissions = Permission.mask(permissions);
+    }
+
+    /**
+     * Obtiene el código numérico del rol, estable e independiente del orden de declaración, que lo representa
+     * en los tokens compactos.
+     *
+     * @return El código del rol.
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Obtiene el rol correspondiente a un código numérico.
+     *
+     * @param code El código del rol.
+     * @return El rol, o null si el código no corresponde a ningún rol.
+     */
+    public static UserRole fromCode(long code) {
+        for (UserRole role : VALUES) {
+            if (role.code == code) {
+                return role;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Obtiene la máscara de los permisos de grano fino del rol.
+     *
+     * @return La máscara de permisos del rol.
+     */
+    public long getPermissions() {
+        return permissions;
+    }
+
+    /**
+     * Obtiene la máscara de permisos correspondiente a una colección de permisos de Spring Security. Las listas
+     * compartidas de cada rol se reconocen por identidad, sin recorrerlas.
+     *
+     * @param authorities Los permisos de la autenticación.
+     * @return La unión de las máscaras de los roles presentes en la colección.
+     */
+    public static long permissionsOf(Collection<? extends GrantedAuthority> authorities) {
+        for (UserRole role : VALUES) {
+            if (role.authorities == authorities) {
+                return role.permissions;
+            }
+        }
+
+        long permissions = 0;
+        for (GrantedAuthority authority : authorities) {
+            for (UserRole role : VALUES) {
+                if (role.name().equals(authority.getAuthority())) {
+                    permissions |= role.permissions;
+                }
+            }
+        }
+        return permissions;
+    }
+
+    /**
+     * Obtiene los permisos del rol. La lista es inmutable y se comparte entre todas las solicitudes.
+     *
+     * @return La lista de permisos del rol.
+     */
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
 }
@@ -0,0 +1,70 @@
+package com.zair.models.projections;
+
+import com.zair.models.enums.UserRole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+
+/**
+ * Proyección de un usuario con los únicos datos que necesita la autenticación de cada solicitud.
+ * <p>
+ * Se obtiene con una consulta que selecciona solo tres columnas y no pasa por el contexto de persistencia, de
+ * modo que el hash de la contraseña no se lee ni se retiene en memoria. No sirve para iniciar sesión.
+ *
+ * @param id    El identificador del usuario.
+ * @param email El correo electrónico del usuario.
+ * @param role  El rol del usuario.
+ */
+public record UserAuthView(Long id, String email, UserRole role) implements UserDetails {
+
+    /**
+     * Obtiene los roles asignados al usuario.
+     *
+     * @return Una lista de los roles asignados al usuario.
+     */
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return role.getAuthorities();
+    }
+
+    /**
+     * La proyección no incluye la contraseña.
+     *
+     * @return Siempre null.
+     */
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    /**
+     * Obtiene el nombre de usuario del usuario.
+     *
+     * @return El correo electrónico del usuario.
+     */
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
@@ -0,0 +1,41 @@
+package com.zair.repositories;
+
+import com.zair.models.entities.LoginEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Almacenamiento de eventos de inicio de sesión que los inserta en un único lote JDBC, por el mismo motivo que
+ * {@link UserBatchRepository}: Hibernate no agrupa inserciones con {@code GenerationType.IDENTITY}.
+ */
+@Repository
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class JdbcLoginEventStore implements LoginEventStore {
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO login_event (email, user_id, success, ip_address, occurred_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void saveAll(List<LoginEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.getEmail());
+            if (event.getUserId() != null) {
+                ps.setLong(2, event.getUserId());
+            } else {
+                ps.setNull(2, Types.BIGINT);
+            }
+            ps.setBoolean(3, event.isSuccess());
+            ps.setString(4, event.getIpAddress());
+            ps.setTimestamp(5, Timestamp.from(event.getOccurredAt()));
+        });
+    }
+}
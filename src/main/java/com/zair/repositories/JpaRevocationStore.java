@@ -0,0 +1,63 @@
+package com.zair.repositories;
+
+import com.zair.models.entities.RevokedToken;
+import com.zair.models.entities.TokenWatermark;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Almacenamiento de revocaciones en la base de datos relacional de la aplicación.
+ * <p>
+ * Las lecturas se hacen en transacciones de lectura y escritura para que, con una réplica configurada, se
+ * ejecuten en la principal: una revocación que aún no se haya replicado no puede perderse al arrancar.
+ */
+@Repository
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class JpaRevocationStore implements RevocationStore {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final TokenWatermarkRepository watermarkRepository;
+
+    @Override
+    public void saveRevokedToken(String tokenId, Instant expiration) {
+        revokedTokenRepository.save(new RevokedToken(tokenId, expiration));
+    }
+
+    @Override
+    public void saveWatermark(Long userId, Instant notBefore) {
+        watermarkRepository.save(new TokenWatermark(userId, notBefore));
+    }
+
+    @Override
+    @Transactional
+    public Map<String, Instant> findRevokedTokens(Instant now) {
+        Map<String, Instant> tokens = new HashMap<>();
+        revokedTokenRepository.findByExpiresAtAfter(now)
+                .forEach(token -> tokens.put(token.getTokenId(), token.getExpiresAt()));
+
+        return tokens;
+    }
+
+    @Override
+    @Transactional
+    public Map<Long, Instant> findWatermarks() {
+        Map<Long, Instant> watermarks = new HashMap<>();
+        watermarkRepository.findAll()
+                .forEach(watermark -> watermarks.put(watermark.getUserId(), watermark.getNotBefore()));
+
+        return watermarks;
+    }
+
+    @Override
+    public void deleteExpiredTokens(Instant now) {
+        revokedTokenRepository.deleteExpired(now);
+    }
+}
@@ -0,0 +1,21 @@
+package com.zair.repositories;
+
+import com.zair.models.entities.LoginEvent;
+
+import java.util.List;
+
+/**
+ * Almacenamiento persistente de los eventos de inicio de sesión.
+ * <p>
+ * Solo lo usa el hilo de escritura de {@link com.zair.utils.LoginEventPipeline}, nunca el camino del inicio
+ * de sesión.
+ */
+public interface LoginEventStore {
+
+    /**
+     * Guarda un lote de eventos.
+     *
+     * @param events Los eventos, que no se deben retener tras la llamada.
+     */
+    void saveAll(List<LoginEvent> events);
+}
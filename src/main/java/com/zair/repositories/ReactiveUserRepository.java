@@ -0,0 +1,88 @@
+package com.zair.repositories;
+
+import com.zair.models.entities.User;
+import com.zair.models.enums.UserRole;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repositorio de datos reactivo (R2DBC) para la entidad User, utilizado por la variante WebFlux.
+ * Opera sobre la misma tabla que {@link UserRepository}.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveUserRepository {
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Busca un usuario por su correo electrónico.
+     *
+     * @param email El correo electrónico del usuario.
+     * @return El usuario, o vacío si no existe.
+     */
+    public Mono<User> findByEmail(String email) {
+        return databaseClient.sql("SELECT id, name, last_name, email, password, role FROM user WHERE email = :email")
+                .bind("email", email)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    /**
+     * Busca un usuario por su identificador.
+     *
+     * @param id El identificador del usuario.
+     * @return El usuario, o vacío si no existe.
+     */
+    public Mono<User> findById(Long id) {
+        return databaseClient.sql("SELECT id, name, last_name, email, password, role FROM user WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    /**
+     * Inserta un nuevo usuario.
+     *
+     * @param user El usuario a insertar.
+     * @return El usuario con el identificador generado.
+     */
+    public Mono<User> save(User user) {
+        return databaseClient.sql("INSERT INTO user (name, last_name, email, password, role) "
+                        + "VALUES (:name, :lastName, :email, :password, :role)")
+                .bind("name", user.getName())
+                .bind("lastName", user.getLastName())
+                .bind("email", user.getEmail())
+                .bind("password", user.getPassword())
+                .bind("role", user.getRole().name())
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> {
+                    user.setId(id);
+                    return user;
+                });
+    }
+
+    /**
+     * Convierte una fila de la tabla en un usuario.
+     *
+     * @param row La fila leída.
+     * @return El usuario.
+     */
+    private static User toUser(Readable row) {
+        return new User(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("last_name", String.class),
+                row.get("email", String.class),
+                row.get("password", String.class),
+                UserRole.valueOf(row.get("role", String.class))
+        );
+    }
+}
@@ -0,0 +1,50 @@
+package com.zair.repositories;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Almacenamiento persistente de las revocaciones de tokens.
+ * <p>
+ * Solo se usa al revocar y al arrancar: las comprobaciones de cada solicitud se resuelven en memoria.
+ */
+public interface RevocationStore {
+
+    /**
+     * Guarda un token revocado individualmente.
+     *
+     * @param tokenId    El identificador del token (claim {@code jti}).
+     * @param expiration La expiración del token, tras la cual la revocación puede olvidarse.
+     */
+    void saveRevokedToken(String tokenId, Instant expiration);
+
+    /**
+     * Guarda la marca de agua de un usuario.
+     *
+     * @param userId    El identificador del usuario.
+     * @param notBefore El instante antes del cual sus tokens ya no son válidos.
+     */
+    void saveWatermark(Long userId, Instant notBefore);
+
+    /**
+     * Obtiene los tokens revocados que aún no han expirado.
+     *
+     * @param now El instante de referencia.
+     * @return Un mapa de identificador de token a expiración.
+     */
+    Map<String, Instant> findRevokedTokens(Instant now);
+
+    /**
+     * Obtiene las marcas de agua de todos los usuarios.
+     *
+     * @return Un mapa de identificador de usuario a marca de agua.
+     */
+    Map<Long, Instant> findWatermarks();
+
+    /**
+     * Elimina los tokens revocados que ya expiraron.
+     *
+     * @param now El instante de referencia.
+     */
+    void deleteExpiredTokens(Instant now);
+}
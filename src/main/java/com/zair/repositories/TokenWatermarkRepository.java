@@ -0,0 +1,12 @@
+package com.zair.repositories;
+
+import com.zair.models.entities.TokenWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio de datos para la entidad TokenWatermark.
+ */
+@Repository
+public interface TokenWatermarkRepository extends JpaRepository<TokenWatermark, Long> {
+}
@@ -0,0 +1,79 @@
+package com.zair.repositories;
+
+import com.zair.models.entities.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Repositorio JDBC para escribir usuarios en lotes.
+ * <p>
+ * Hibernate desactiva el batching de inserciones con {@code GenerationType.IDENTITY}, porque necesita el
+ * identificador de cada fila al persistirla. La importación no lo necesita, así que inserta directamente con
+ * {@link JdbcTemplate#batchUpdate}: con {@code rewriteBatchedStatements=true} el driver de MySQL agrupa cada
+ * lote en sentencias INSERT de varias filas y la base de datos sigue asignando los identificadores.
+ */
+@Repository
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class UserBatchRepository {
+
+    private static final String INSERT_USER =
+            "INSERT INTO user (name, last_name, email, password, role) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String SELECT_EXISTING_EMAILS = "SELECT email FROM user WHERE email IN (:emails)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Busca cuáles de los correos electrónicos ya están registrados.
+     *
+     * @param emails Los correos electrónicos a comprobar.
+     * @return Los correos electrónicos registrados, tal como están almacenados.
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(SELECT_EXISTING_EMAILS,
+                Map.of("emails", emails), String.class));
+    }
+
+    /**
+     * Inserta los usuarios en un único lote JDBC.
+     *
+     * @param users Los usuarios con la contraseña ya codificada.
+     * @throws org.springframework.dao.DuplicateKeyException Si algún correo electrónico ya está registrado.
+     */
+    public void insertAll(List<User> users) {
+        jdbcTemplate.batchUpdate(INSERT_USER, users, users.size(), (ps, user) -> {
+            ps.setString(1, user.getName());
+            ps.setString(2, user.getLastName());
+            ps.setString(3, user.getEmail());
+            ps.setString(4, user.getPassword());
+            ps.setString(5, user.getRole().name());
+        });
+    }
+
+    /**
+     * Inserta un único usuario.
+     *
+     * @param user El usuario con la contraseña ya codificada.
+     * @throws org.springframework.dao.DuplicateKeyException Si el correo electrónico ya está registrado.
+     */
+    public void insert(User user) {
+        jdbcTemplate.update(INSERT_USER, user.getName(), user.getLastName(), user.getEmail(), user.getPassword(),
+                user.getRole().name());
+    }
+}
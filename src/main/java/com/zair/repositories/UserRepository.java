@@ -1,15 +1,30 @@
 package com.zair.repositories;
 
 import com.zair.models.entities.User;
+import com.zair.models.projections.UserAuthView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 /**
  * Repositorio de datos para la entidad User.
+ * <p>
+ * Las búsquedas se declaran de solo lectura para que, con una réplica configurada, se ejecuten en ella.
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Transactional(readOnly = true)
     Optional<User> findByEmail(String email);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.zair.models.projections.UserAuthView(u.id, u.email, u.role) FROM User u WHERE u.email = :email")
+    Optional<UserAuthView> findAuthViewByEmail(@Param("email") String email);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.zair.models.projections.UserAuthView(u.id, u.email, u.role) FROM User u WHERE u.id = :id")
+    Optional<UserAuthView> findAuthViewById(@Param("id") Long id);
 }
@@ -9,7 +9,11 @@ import com.zair.models.dtos.RegisterDTO;
  */
 public interface AuthService {
 
-    AuthDTO login(LoginDTO login) throws Exception;
+    AuthDTO login(LoginDTO login, String clientIp) throws Exception;
 
     AuthDTO register(RegisterDTO register) throws Exception;
+
+    void logout(String token);
+
+    void logoutAll(String token);
 }
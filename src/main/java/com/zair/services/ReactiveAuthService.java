@@ -0,0 +1,20 @@
+package com.zair.services;
+
+import com.zair.models.dtos.AuthDTO;
+import com.zair.models.dtos.LoginDTO;
+import com.zair.models.dtos.RegisterDTO;
+import reactor.core.publisher.Mono;
+
+/**
+ * Interfaz que define los servicios de autenticación de la variante reactiva.
+ */
+public interface ReactiveAuthService {
+
+    Mono<AuthDTO> login(LoginDTO login);
+
+    Mono<AuthDTO> register(RegisterDTO register);
+
+    Mono<Void> logout(String token);
+
+    Mono<Void> logoutAll(String token);
+}
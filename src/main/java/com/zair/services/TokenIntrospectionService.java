@@ -0,0 +1,15 @@
+package com.zair.services;
+
+import com.zair.models.dtos.IntrospectionResultDTO;
+
+import java.util.List;
+
+/**
+ * Interfaz que define la introspección de tokens por lotes.
+ */
+public interface TokenIntrospectionService {
+
+    List<IntrospectionResultDTO> introspect(List<String> tokens);
+
+    int getMaxTokens();
+}
@@ -0,0 +1,30 @@
+package com.zair.services;
+
+import com.zair.utils.VerifiedToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * Servicio de detalles de usuario que además busca por identificador, para los tokens compactos cuyo sujeto es
+ * el identificador del usuario en lugar de su correo electrónico.
+ */
+public interface UserIdDetailsService extends UserDetailsService {
+
+    UserDetails loadUserById(Long id) throws UsernameNotFoundException;
+
+    /**
+     * Carga el usuario de un token verificado: por su correo electrónico o, en los tokens compactos, por su
+     * identificador.
+     *
+     * @param token El token verificado.
+     * @return Los detalles del usuario, o null si el usuario ya no existe.
+     */
+    default UserDetails loadUserByToken(VerifiedToken token) {
+        try {
+            return token.subject() != null ? loadUserByUsername(token.subject()) : loadUserById(token.userId());
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.zair.services;
+
+import com.zair.models.dtos.ImportErrorDTO;
+import com.zair.models.dtos.ImportProgressDTO;
+import com.zair.models.enums.ImportFormat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Interfaz que define la importación masiva de usuarios.
+ */
+public interface UserImportService {
+
+    ImportProgressDTO importUsers(BufferedReader body, ImportFormat format, Listener listener) throws IOException;
+
+    /**
+     * Receptor de los eventos de una importación, invocado desde el hilo que la ejecuta.
+     */
+    interface Listener {
+
+        void onError(ImportErrorDTO error) throws IOException;
+
+        void onProgress(ImportProgressDTO progress) throws IOException;
+    }
+}
@@ -6,9 +6,16 @@ import com.zair.models.dtos.RegisterDTO;
 import com.zair.models.entities.User;
 import com.zair.repositories.UserRepository;
 import com.zair.services.AuthService;
+import com.zair.utils.AuthMetrics;
 import com.zair.utils.JwtUtil;
+import com.zair.utils.LoginEventPipeline;
+import com.zair.utils.ReadYourWritesTracker;
+import com.zair.utils.TokenRevocationRegistry;
+import com.zair.utils.VerifiedToken;
+import io.jsonwebtoken.MalformedJwtException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -20,6 +27,7 @@ import org.springframework.stereotype.Service;
  * Implementación del servicio de autenticación.
  */
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
@@ -31,25 +39,36 @@ public class AuthServiceImpl implements AuthService {
 
     private final AuthenticationManager authenticationManager;
 
+    private final TokenRevocationRegistry revocationRegistry;
+
+    private final AuthMetrics authMetrics;
+
+    private final ReadYourWritesTracker readYourWrites;
+
+    private final LoginEventPipeline loginEvents;
+
     /**
      * Realiza la autenticación de un usuario.
      *
-     * @param login Los datos de inicio de sesión del usuario.
+     * El resultado se registra en el canal de eventos de inicio de sesión, que lo escribe en segundo plano.
+     *
+     * @param login    Los datos de inicio de sesión del usuario.
+     * @param clientIp La dirección IP del cliente.
      * @return Un objeto AuthDTO que contiene el token de autenticación.
      * @throws Exception Si ocurre un error durante el proceso de autenticación.
      */
     @Override
-    public AuthDTO login(LoginDTO login) throws Exception {
+    public AuthDTO login(LoginDTO login, String clientIp) throws Exception {
         try {
-            authenticate(login.getEmail(), login.getPassword());
-
-            User user = userRepository.findByEmail(login.getEmail())
-                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+            // El usuario autenticado ya contiene el id y el rol del token, sin volver a consultarlo
+            User user = authenticate(login.getEmail(), login.getPassword());
 
             String token = jwtUtil.generateToken(user);
+            loginEvents.record(login.getEmail(), user.getId(), true, clientIp);
             return new AuthDTO(token);
         } catch (BadCredentialsException | UsernameNotFoundException e) {
             System.out.println(e.getMessage());
+            loginEvents.record(login.getEmail(), null, false, clientIp);
             throw new BadCredentialsException("Incorrect username or password");
         } catch (Exception e) {
             System.out.println(e.getMessage());
@@ -70,6 +89,7 @@ public class AuthServiceImpl implements AuthService {
         try {
             User user = createUserFromRegistration(register);
             user = userRepository.save(user);
+            readYourWrites.recordWrite(user.getEmail());
 
             String token = jwtUtil.generateToken(user);
             return new AuthDTO(token);
@@ -80,13 +100,51 @@ public class AuthServiceImpl implements AuthService {
     }
 
     /**
-     * Autentica al usuario utilizando el gestor de autenticación.
+     * Cierra la sesión revocando el token proporcionado hasta su expiración.
+     *
+     * @param token El token JWT a revocar.
+     * @throws io.jsonwebtoken.JwtException Si el token no es válido.
+     */
+    @Override
+    public void logout(String token) {
+        revocationRegistry.revoke(jwtUtil.verifyToken(token));
+    }
+
+    /**
+     * Cierra la sesión en todos los dispositivos revocando todos los tokens emitidos para el usuario del token.
+     *
+     * @param token Un token JWT válido del usuario.
+     * @throws io.jsonwebtoken.JwtException Si el token no es válido.
+     */
+    @Override
+    public void logoutAll(String token) {
+        VerifiedToken verifiedToken = jwtUtil.verifyToken(token);
+
+        if (verifiedToken.userId() == null) {
+            throw new MalformedJwtException("Missing user_id claim");
+        }
+
+        revocationRegistry.revokeAll(verifiedToken.userId());
+    }
+
+    /**
+     * Autentica al usuario utilizando el gestor de autenticación. Su duración, búsqueda del usuario incluida,
+     * se registra como {@code auth.login.authenticate} también cuando las credenciales no son válidas.
      *
      * @param username El nombre de usuario del usuario.
      * @param password La contraseña del usuario.
+     * @return El usuario autenticado.
      */
-    private void authenticate(String username, String password) {
-        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, password));
+    private User authenticate(String username, String password) {
+        long start = System.nanoTime();
+
+        try {
+            return (User) authenticationManager
+                    .authenticate(new UsernamePasswordAuthenticationToken(username, password))
+                    .getPrincipal();
+        } finally {
+            authMetrics.recordLoginAuthentication(start);
+        }
     }
 
     /**
@@ -100,9 +158,23 @@ public class AuthServiceImpl implements AuthService {
         user.setName(register.getName());
         user.setLastName(register.getLastName());
         user.setEmail(register.getEmail());
-        user.setPassword(passwordEncoder.encode(register.getPassword()));
+        user.setPassword(encodePassword(register.getPassword()));
         user.setRole(register.getRole());
 
         return user;
     }
+
+    /**
+     * Codifica la contraseña con BCrypt registrando la duración del hash.
+     *
+     * @param password La contraseña en claro.
+     * @return La contraseña codificada.
+     */
+    private String encodePassword(String password) {
+        long start = System.nanoTime();
+        String encoded = passwordEncoder.encode(password);
+        authMetrics.recordRegisterHashing(start);
+
+        return encoded;
+    }
 }
@@ -0,0 +1,126 @@
+package com.zair.services.impl;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.zair.services.UserIdDetailsService;
+import com.zair.utils.AuthMetrics;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Servicio de detalles de usuario con caché acotada en memoria.
+ * <p>
+ * Las entradas expiran tras un TTL y se desalojan por tamaño. La carga es de vuelo único: N solicitudes
+ * concurrentes para el mismo correo electrónico provocan una sola consulta al servicio delegado. Las búsquedas
+ * por identificador de los tokens compactos tienen su propia caché con la misma configuración.
+ * Los usuarios inexistentes no se almacenan en caché. Si la caché está deshabilitada, cada llamada se
+ * delega directamente. Cada búsqueda, acierto o carga, se registra en {@link AuthMetrics}.
+ */
+public class CachingUserDetailsService implements UserIdDetailsService {
+
+    private final UserDetailsService delegate;
+
+    private final Function<Long, UserDetails> idDelegate;
+
+    private final LoadingCache<String, UserDetails> cache;
+
+    private final LoadingCache<Long, UserDetails> idCache;
+
+    private final AuthMetrics metrics;
+
+    /**
+     * Construye el servicio con caché.
+     *
+     * @param delegate    El servicio que carga los usuarios desde la base de datos.
+     * @param idDelegate  La búsqueda por identificador, que lanza UsernameNotFoundException si el usuario no existe.
+     * @param enabled     Indica si la caché está habilitada.
+     * @param ttl         El tiempo de vida de cada entrada.
+     * @param maximumSize El número máximo de usuarios retenidos.
+     * @param metrics     Las métricas en las que se registra la duración de cada búsqueda.
+     */
+    public CachingUserDetailsService(UserDetailsService delegate, Function<Long, UserDetails> idDelegate,
+                                     boolean enabled, Duration ttl, long maximumSize, AuthMetrics metrics) {
+        this.delegate = delegate;
+        this.idDelegate = idDelegate;
+        this.metrics = metrics;
+        this.cache = enabled
+                ? Caffeine.newBuilder()
+                        .expireAfterWrite(ttl)
+                        .maximumSize(maximumSize)
+                        .recordStats()
+                        .build(delegate::loadUserByUsername)
+                : null;
+        this.idCache = enabled
+                ? Caffeine.newBuilder()
+                        .expireAfterWrite(ttl)
+                        .maximumSize(maximumSize)
+                        .recordStats()
+                        .build(idDelegate::apply)
+                : null;
+    }
+
+    /**
+     * Carga los detalles del usuario, desde la caché si están disponibles.
+     *
+     * @param username El correo electrónico del usuario.
+     * @return Los detalles del usuario.
+     * @throws UsernameNotFoundException Si el usuario no existe.
+     */
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        long start = System.nanoTime();
+
+        try {
+            return cache == null ? delegate.loadUserByUsername(username) : cache.get(username);
+        } finally {
+            metrics.recordUserLookup(start);
+        }
+    }
+
+    /**
+     * Carga los detalles del usuario por su identificador, desde la caché si están disponibles.
+     *
+     * @param id El identificador del usuario.
+     * @return Los detalles del usuario.
+     * @throws UsernameNotFoundException Si el usuario no existe.
+     */
+    @Override
+    public UserDetails loadUserById(Long id) throws UsernameNotFoundException {
+        long start = System.nanoTime();
+
+        try {
+            return idCache == null ? idDelegate.apply(id) : idCache.get(id);
+        } finally {
+            metrics.recordUserLookup(start);
+        }
+    }
+
+    /**
+     * Invalida las entradas de un usuario tras cambiar su rol o su contraseña, tanto por correo electrónico como
+     * por identificador. Un usuario recién registrado no necesita invalidarse: los usuarios inexistentes nunca se
+     * almacenan en caché.
+     *
+     * @param username El correo electrónico del usuario.
+     * @param id       El identificador del usuario.
+     */
+    public void evict(String username, Long id) {
+        if (cache != null) {
+            cache.invalidate(username);
+            idCache.invalidate(id);
+        }
+    }
+
+    /**
+     * Obtiene las estadísticas de la caché (tasa de aciertos, latencia media de carga, desalojos).
+     *
+     * @return Las estadísticas de la caché, vacías si está deshabilitada.
+     */
+    public CacheStats stats() {
+        return cache != null ? cache.stats().plus(idCache.stats()) : CacheStats.empty();
+    }
+}
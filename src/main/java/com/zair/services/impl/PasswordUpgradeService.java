@@ -0,0 +1,50 @@
+package com.zair.services.impl;
+
+import com.zair.models.entities.User;
+import com.zair.repositories.UserRepository;
+import com.zair.utils.ReadYourWritesTracker;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Servicio que actualiza el hash de la contraseña de un usuario cuando fue generado con un factor de coste
+ * inferior al actual. Spring Security lo invoca tras un inicio de sesión correcto, con la contraseña ya
+ * codificada con el factor vigente.
+ */
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class PasswordUpgradeService implements UserDetailsPasswordService {
+
+    private final UserRepository userRepository;
+
+    private final CachingUserDetailsService userDetailsService;
+
+    private final ReadYourWritesTracker readYourWrites;
+
+    /**
+     * Reemplaza el hash de la contraseña del usuario en la base de datos.
+     *
+     * @param user        El usuario autenticado.
+     * @param newPassword La contraseña codificada con el factor de coste actual.
+     * @return El usuario actualizado.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User entity = userRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        entity.setPassword(newPassword);
+
+        User saved = userRepository.save(entity);
+        userDetailsService.evict(saved.getEmail(), saved.getId());
+        readYourWrites.recordWrite(saved.getEmail());
+
+        return saved;
+    }
+}
@@ -0,0 +1,185 @@
+package com.zair.services.impl;
+
+import com.zair.models.dtos.AuthDTO;
+import com.zair.models.dtos.LoginDTO;
+import com.zair.models.dtos.RegisterDTO;
+import com.zair.models.entities.User;
+import com.zair.repositories.ReactiveUserRepository;
+import com.zair.services.ReactiveAuthService;
+import com.zair.utils.AuthMetrics;
+import com.zair.utils.JwtUtil;
+import com.zair.utils.PasswordHashingExecutor;
+import com.zair.utils.TokenRevocationRegistry;
+import io.jsonwebtoken.MalformedJwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Implementación reactiva del servicio de autenticación.
+ * <p>
+ * Ninguna operación bloquea el event loop: la base de datos se consulta por R2DBC y BCrypt se ejecuta en el
+ * pool acotado de {@link PasswordHashingExecutor}, que rechaza el trabajo cuando su cola está llena.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAuthServiceImpl implements ReactiveAuthService {
+
+    private final JwtUtil jwtUtil;
+
+    private final ReactiveUserRepository userRepository;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final PasswordHashingExecutor hashingExecutor;
+
+    private final TokenRevocationRegistry revocationRegistry;
+
+    private final AuthMetrics authMetrics;
+
+    private volatile String userNotFoundPassword;
+
+    /**
+     * Realiza la autenticación de un usuario.
+     *
+     * Un correo electrónico no registrado también pasa por BCrypt, contra un hash fijo, como hace
+     * {@code DaoAuthenticationProvider}: sin esa comprobación la respuesta llegaría antes y su tiempo revelaría
+     * qué correos están registrados.
+     *
+     * @param login Los datos de inicio de sesión del usuario.
+     * @return Un objeto AuthDTO que contiene el token de autenticación, o un error BadCredentialsException
+     * si las credenciales no son válidas.
+     */
+    @Override
+    public Mono<AuthDTO> login(LoginDTO login) {
+        return userRepository.findByEmail(login.getEmail())
+                .flatMap(user -> hash(() -> matches(login.getPassword(), user.getPassword()))
+                        .flatMap(matches -> matches
+                                ? Mono.just(new AuthDTO(jwtUtil.generateToken(user)))
+                                : Mono.<AuthDTO>error(new BadCredentialsException("Incorrect username or password"))))
+                .switchIfEmpty(Mono.defer(() -> hash(() -> matches(login.getPassword(), userNotFoundPassword()))
+                        .then(Mono.error(new BadCredentialsException("Incorrect username or password")))));
+    }
+
+    /**
+     * Registra un nuevo usuario.
+     *
+     * @param register Los datos de registro del nuevo usuario.
+     * @return Un objeto AuthDTO que contiene el token de autenticación.
+     */
+    @Override
+    public Mono<AuthDTO> register(RegisterDTO register) {
+        return hash(() -> createUserFromRegistration(register))
+                .flatMap(userRepository::save)
+                .map(user -> new AuthDTO(jwtUtil.generateToken(user)));
+    }
+
+    /**
+     * Cierra la sesión revocando el token proporcionado hasta su expiración.
+     *
+     * @param token El token JWT a revocar.
+     * @return Un Mono vacío, o un error JwtException si el token no es válido.
+     */
+    @Override
+    public Mono<Void> logout(String token) {
+        return Mono.fromRunnable(() -> revocationRegistry.revoke(jwtUtil.verifyToken(token)));
+    }
+
+    /**
+     * Cierra la sesión en todos los dispositivos revocando todos los tokens emitidos para el usuario del token.
+     *
+     * @param token Un token JWT válido del usuario.
+     * @return Un Mono vacío, o un error JwtException si el token no es válido.
+     */
+    @Override
+    public Mono<Void> logoutAll(String token) {
+        return Mono.fromRunnable(() -> {
+            Long userId = jwtUtil.verifyToken(token).userId();
+
+            if (userId == null) {
+                throw new MalformedJwtException("Missing user_id claim");
+            }
+
+            revocationRegistry.revokeAll(userId);
+        });
+    }
+
+    /**
+     * Ejecuta una tarea de BCrypt en el pool acotado de hashing.
+     *
+     * @param task La tarea a ejecutar.
+     * @param <T>  El tipo del resultado.
+     * @return El resultado de la tarea, o un error RejectedExecutionException si el pool está saturado.
+     */
+    private <T> Mono<T> hash(Callable<T> task) {
+        return Mono.fromFuture(() -> hashingExecutor.submit(task));
+    }
+
+    /**
+     * Crea un nuevo objeto de usuario a partir de los datos de registro.
+     *
+     * @param register Los datos de registro del nuevo usuario.
+     * @return El usuario creado.
+     */
+    private User createUserFromRegistration(RegisterDTO register) {
+        User user = new User();
+        user.setName(register.getName());
+        user.setLastName(register.getLastName());
+        user.setEmail(register.getEmail());
+        user.setPassword(encodePassword(register.getPassword()));
+        user.setRole(register.getRole());
+
+        return user;
+    }
+
+    /**
+     * Compara la contraseña con su hash BCrypt registrando la duración de la comprobación.
+     *
+     * @param password        La contraseña en claro.
+     * @param encodedPassword El hash almacenado.
+     * @return true si la contraseña coincide, false en caso contrario.
+     */
+    private boolean matches(String password, String encodedPassword) {
+        long start = System.nanoTime();
+        boolean matches = passwordEncoder.matches(password, encodedPassword);
+        authMetrics.recordLoginHashing(start);
+
+        return matches;
+    }
+
+    /**
+     * Obtiene el hash con el que se comparan las contraseñas de los usuarios inexistentes, calculado la primera
+     * vez con el codificador actual para que la comprobación cueste lo mismo que la de un usuario real.
+     *
+     * @return El hash de una contraseña fija.
+     */
+    private String userNotFoundPassword() {
+        String encoded = userNotFoundPassword;
+        if (encoded == null) {
+            encoded = passwordEncoder.encode("userNotFoundPassword");
+            userNotFoundPassword = encoded;
+        }
+
+        return encoded;
+    }
+
+    /**
+     * Codifica la contraseña con BCrypt registrando la duración del hash.
+     *
+     * @param password La contraseña en claro.
+     * @return La contraseña codificada.
+     */
+    private String encodePassword(String password) {
+        long start = System.nanoTime();
+        String encoded = passwordEncoder.encode(password);
+        authMetrics.recordRegisterHashing(start);
+
+        return encoded;
+    }
+}
@@ -0,0 +1,202 @@
+package com.zair.services.impl;
+
+import com.zair.models.dtos.IntrospectionResultDTO;
+import com.zair.services.TokenIntrospectionService;
+import com.zair.services.UserIdDetailsService;
+import com.zair.utils.AuthMetrics;
+import com.zair.utils.JwtUtil;
+import com.zair.utils.TokenRevocationRegistry;
+import com.zair.utils.TokenValidation;
+import com.zair.utils.VerifiedToken;
+import com.zair.utils.VerifiedTokenCache;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementación de la introspección de tokens por lotes.
+ * <p>
+ * Cada token pasa por las mismas comprobaciones que en {@code JwtAuthenticationFilter}: validación a través de
+ * la caché de tokens verificados, revocación y, fuera del modo sin estado, existencia del usuario. Los lotes de
+ * al menos {@code auth.introspection.parallel-threshold} tokens se reparten en tramos contiguos entre el hilo
+ * de la solicitud y un pool de {@code auth.introspection.threads} hilos. Si la cola del pool está llena, el
+ * propio hilo de la solicitud verifica el tramo, de modo que la saturación frena al llamador en lugar de
+ * acumular trabajo.
+ */
+@Service
+@Profile("!reactive")
+public class TokenIntrospectionServiceImpl implements TokenIntrospectionService {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final VerifiedTokenCache tokenCache;
+
+    private final TokenRevocationRegistry revocationRegistry;
+
+    private final UserIdDetailsService userDetailsService;
+
+    private final JwtUtil jwtUtil;
+
+    private final AuthMetrics metrics;
+
+    private final boolean statelessMode;
+
+    private final int maxTokens;
+
+    private final int parallelThreshold;
+
+    private final int parallelism;
+
+    private final ThreadPoolExecutor pool;
+
+    /**
+     * Construye el servicio de introspección.
+     *
+     * @param tokenCache         La caché de tokens verificados.
+     * @param revocationRegistry El registro de revocaciones.
+     * @param userDetailsService El servicio que carga el usuario de cada token.
+     * @param jwtUtil            La utilidad que comprueba el token contra su usuario.
+     * @param metrics            Las métricas en las que se contabilizan los rechazos.
+     * @param statelessMode      Indica si los tokens se aceptan sin consultar su usuario.
+     * @param maxTokens          El número máximo de tokens por solicitud.
+     * @param parallelThreshold  El número de tokens a partir del cual un lote se verifica en paralelo.
+     * @param threads            El número de hilos del pool (0 para usar el número de procesadores).
+     */
+    public TokenIntrospectionServiceImpl(VerifiedTokenCache tokenCache,
+                                         TokenRevocationRegistry revocationRegistry,
+                                         UserIdDetailsService userDetailsService,
+                                         JwtUtil jwtUtil,
+                                         AuthMetrics metrics,
+                                         @Value("${jwt.stateless:false}") boolean statelessMode,
+                                         @Value("${auth.introspection.max-tokens:100}") int maxTokens,
+                                         @Value("${auth.introspection.parallel-threshold:16}") int parallelThreshold,
+                                         @Value("${auth.introspection.threads:0}") int threads) {
+        this.tokenCache = tokenCache;
+        this.revocationRegistry = revocationRegistry;
+        this.userDetailsService = userDetailsService;
+        this.jwtUtil = jwtUtil;
+        this.metrics = metrics;
+        this.statelessMode = statelessMode;
+        this.maxTokens = maxTokens;
+        this.parallelThreshold = Math.max(2, parallelThreshold);
+        this.parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.pool = new ThreadPoolExecutor(
+                parallelism,
+                parallelism,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism * 16),
+                new CustomizableThreadFactory("token-introspection-"),
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    /**
+     * Comprueba un lote de tokens.
+     *
+     * @param tokens Los tokens, con o sin el prefijo "Bearer ".
+     * @return El resultado de cada token, en el mismo orden.
+     * @throws IllegalArgumentException Si el lote supera el máximo de tokens por solicitud.
+     */
+    @Override
+    public List<IntrospectionResultDTO> introspect(List<String> tokens) {
+        if (tokens.size() > maxTokens) {
+            throw new IllegalArgumentException("At most " + maxTokens + " tokens per request");
+        }
+
+        IntrospectionResultDTO[] results = new IntrospectionResultDTO[tokens.size()];
+        int chunks = tokens.size() < parallelThreshold ? 1 : Math.min(parallelism, tokens.size());
+        int chunkSize = (tokens.size() + chunks - 1) / Math.max(1, chunks);
+
+        // El hilo de la solicitud verifica el primer tramo mientras el pool verifica el resto
+        List<CompletableFuture<Void>> pending = new ArrayList<>(chunks);
+        for (int from = chunkSize; from < tokens.size(); from += chunkSize) {
+            int start = from;
+            int end = Math.min(from + chunkSize, tokens.size());
+            pending.add(CompletableFuture.runAsync(() -> introspect(tokens, results, start, end), pool));
+        }
+        introspect(tokens, results, 0, Math.min(chunkSize, tokens.size()));
+        pending.forEach(CompletableFuture::join);
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Obtiene el número máximo de tokens por solicitud.
+     *
+     * @return El número máximo de tokens.
+     */
+    @Override
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+
+    /**
+     * Detiene el pool al cerrar el contexto de la aplicación.
+     */
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private void introspect(List<String> tokens, IntrospectionResultDTO[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            results[i] = introspect(tokens.get(i));
+        }
+    }
+
+    /**
+     * Comprueba un token como lo hace el filtro de autenticación.
+     *
+     * @param token El token, con o sin el prefijo "Bearer ".
+     * @return El resultado de la comprobación.
+     */
+    private IntrospectionResultDTO introspect(String token) {
+        if (token == null) {
+            return inactive(TokenValidation.Invalid.MALFORMED);
+        }
+
+        TokenValidation validation = tokenCache.validate(token, token.startsWith(BEARER_PREFIX) ? BEARER_PREFIX.length() : 0);
+        if (!(validation instanceof VerifiedToken verifiedToken)) {
+            return inactive((TokenValidation.Invalid) validation);
+        }
+
+        if (revocationRegistry.isRevoked(verifiedToken)) {
+            metrics.tokenRejected(TokenValidation.Invalid.REVOKED);
+            return inactive(TokenValidation.Invalid.REVOKED);
+        }
+
+        if (!statelessMode) {
+            UserDetails userDetails = userDetailsService.loadUserByToken(verifiedToken);
+
+            if (userDetails == null || !jwtUtil.isTokenValid(verifiedToken, userDetails)) {
+                metrics.tokenRejected(TokenValidation.Invalid.UNKNOWN_USER);
+                return inactive(TokenValidation.Invalid.UNKNOWN_USER);
+            }
+        }
+
+        return new IntrospectionResultDTO(
+                true,
+                verifiedToken.subject() != null ? verifiedToken.subject() : String.valueOf(verifiedToken.userId()),
+                verifiedToken.userId(),
+                verifiedToken.role(),
+                verifiedToken.expiration().getEpochSecond(),
+                null
+        );
+    }
+
+    private static IntrospectionResultDTO inactive(TokenValidation.Invalid reason) {
+        return new IntrospectionResultDTO(false, null, null, null, null, reason.name());
+    }
+}
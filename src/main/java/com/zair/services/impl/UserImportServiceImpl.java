@@ -0,0 +1,450 @@
+package com.zair.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zair.models.dtos.ImportErrorDTO;
+import com.zair.models.dtos.ImportProgressDTO;
+import com.zair.models.dtos.RegisterDTO;
+import com.zair.models.entities.User;
+import com.zair.models.enums.ImportFormat;
+import com.zair.models.enums.UserRole;
+import com.zair.repositories.UserBatchRepository;
+import com.zair.services.UserImportService;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Implementación de la importación masiva de usuarios.
+ * <p>
+ * El cuerpo se lee línea a línea y se procesa en lotes de {@code auth.import.batch-size} filas, por lo que la
+ * memoria no depende del tamaño de la importación. Cada lote pasa por tres etapas: validación y descarte de
+ * correos electrónicos repetidos (en el propio archivo o ya registrados), BCrypt en paralelo en un pool propio
+ * de {@code auth.import.threads} hilos, e inserción con un único lote JDBC. El hashing de un lote se solapa
+ * con la inserción del anterior, de modo que como máximo hay dos lotes en curso.
+ * <p>
+ * Las filas se validan con las restricciones de {@link RegisterDTO}. Una fila no válida, repetida o cuyo hashing
+ * falla se informa y se descarta sin interrumpir la importación. Los correos repetidos se detectan dentro de cada
+ * lote; entre lotes los detecta la restricción única de la tabla, de modo que la memoria sigue acotada: si un lote
+ * choca con un lote anterior o con un registro concurrente, se deshace y se inserta fila a fila para identificar
+ * los correos repetidos.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "lastName", "email", "password", "role");
+
+    private final UserBatchRepository batchRepository;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final ExecutorService hashingPool;
+
+    private final int batchSize;
+
+    /**
+     * Construye el servicio de importación.
+     *
+     * @param batchRepository     El repositorio JDBC que inserta los usuarios en lotes.
+     * @param passwordEncoder     El codificador de contraseñas.
+     * @param transactionTemplate La plantilla que delimita la transacción de cada lote.
+     * @param objectMapper        El lector de las filas NDJSON.
+     * @param validator           El validador de las restricciones de {@link RegisterDTO}.
+     * @param threads             El número de hilos de BCrypt (0 para usar el número de procesadores).
+     * @param batchSize           El número de filas por lote.
+     */
+    public UserImportServiceImpl(UserBatchRepository batchRepository,
+                                 PasswordEncoder passwordEncoder,
+                                 TransactionTemplate transactionTemplate,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 @Value("${auth.import.threads:0}") int threads,
+                                 @Value("${auth.import.batch-size:500}") int batchSize) {
+        this.batchRepository = batchRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.hashingPool = Executors.newFixedThreadPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                new CustomizableThreadFactory("user-import-"));
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Importa los usuarios del cuerpo de la solicitud.
+     *
+     * @param body     El cuerpo en el formato indicado.
+     * @param format   El formato del cuerpo.
+     * @param listener El receptor de las filas rechazadas y del avance tras cada lote.
+     * @return El resultado final de la importación.
+     * @throws IOException              Si ocurre un error al leer el cuerpo o al notificar al receptor.
+     * @throws IllegalArgumentException Si el cuerpo está vacío o a la cabecera CSV le falta alguna columna.
+     */
+    @Override
+    public ImportProgressDTO importUsers(BufferedReader body, ImportFormat format, Listener listener) throws IOException {
+        Progress progress = new Progress(listener);
+        long lineNumber = 0;
+
+        RowParser parser;
+        if (format == ImportFormat.CSV) {
+            parser = csvParser(body.readLine());
+            lineNumber++;
+        } else {
+            parser = line -> objectMapper.readValue(line, RegisterDTO.class);
+        }
+
+        List<Row> rows = new ArrayList<>(batchSize);
+        Batch pending = null;
+        String line;
+
+        while ((line = body.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            Row row = parseRow(parser, line, lineNumber, progress);
+            if (row != null) {
+                rows.add(row);
+            }
+
+            if (rows.size() == batchSize) {
+                pending = submit(rows, pending, progress);
+                rows = new ArrayList<>(batchSize);
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            pending = submit(rows, pending, progress);
+        }
+        if (pending != null) {
+            insert(pending, progress);
+        }
+
+        ImportProgressDTO result = progress.snapshot();
+        log.info("User import finished: {} imported, {} rejected in {} ms ({} rows/s)",
+                result.getImported(), result.getRejected(), result.getElapsedMillis(), Math.round(result.getRowsPerSecond()));
+
+        return result;
+    }
+
+    /**
+     * Detiene el pool de hashing al cerrar el contexto de la aplicación.
+     */
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    /**
+     * Descarta las filas repetidas en el lote o ya registradas e inicia el hashing del lote, y a continuación
+     * inserta el lote anterior, cuyo hashing ya ha avanzado mientras se leía este.
+     *
+     * @param rows     Las filas válidas del lote.
+     * @param pending  El lote anterior pendiente de insertar, o null.
+     * @param progress El avance de la importación.
+     * @return El lote cuyo hashing se ha iniciado.
+     */
+    private Batch submit(List<Row> rows, Batch pending, Progress progress) throws IOException {
+        Set<String> registered = new HashSet<>();
+        for (String email : batchRepository.findExistingEmails(rows.stream().map(row -> row.dto.getEmail()).toList())) {
+            registered.add(normalize(email));
+        }
+
+        Set<String> seen = new HashSet<>();
+        List<Row> accepted = new ArrayList<>(rows.size());
+        List<CompletableFuture<String>> hashes = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            String email = normalize(row.dto.getEmail());
+            if (!seen.add(email)) {
+                progress.reject(row.line, row.dto.getEmail(), "Duplicate email in import");
+                continue;
+            }
+            if (registered.contains(email)) {
+                progress.reject(row.line, row.dto.getEmail(), "Email already registered");
+                continue;
+            }
+
+            accepted.add(row);
+            hashes.add(CompletableFuture.supplyAsync(() -> passwordEncoder.encode(row.dto.getPassword()), hashingPool));
+        }
+
+        if (pending != null) {
+            insert(pending, progress);
+        }
+
+        return new Batch(accepted, hashes);
+    }
+
+    /**
+     * Espera al hashing del lote y lo inserta, informando el avance. Una fila cuyo hashing falla se rechaza.
+     *
+     * @param batch    El lote a insertar.
+     * @param progress El avance de la importación.
+     */
+    private void insert(Batch batch, Progress progress) throws IOException {
+        List<Row> rows = new ArrayList<>(batch.rows.size());
+        List<User> users = new ArrayList<>(batch.rows.size());
+        for (int i = 0; i < batch.rows.size(); i++) {
+            Row row = batch.rows.get(i);
+            String hash;
+            try {
+                hash = batch.hashes.get(i).join();
+            } catch (CompletionException | CancellationException e) {
+                log.warn("Password hashing failed for import line {}", row.line, e.getCause());
+                progress.reject(row.line, row.dto.getEmail(), "Password hashing failed");
+                continue;
+            }
+
+            RegisterDTO dto = row.dto;
+            rows.add(row);
+            users.add(new User(null, dto.getName(), dto.getLastName(), dto.getEmail(), hash, dto.getRole()));
+        }
+
+        if (!users.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> batchRepository.insertAll(users));
+                progress.imported(users.size());
+            } catch (DuplicateKeyException e) {
+                // Alguna fila del lote repite un correo de un lote anterior o de un registro concurrente: se
+                // insertan una a una para identificarla
+                for (int i = 0; i < users.size(); i++) {
+                    try {
+                        batchRepository.insert(users.get(i));
+                        progress.imported(1);
+                    } catch (DuplicateKeyException duplicate) {
+                        progress.reject(rows.get(i).line, users.get(i).getEmail(), "Email already registered");
+                    }
+                }
+            }
+        }
+
+        progress.report();
+    }
+
+    /**
+     * Lee y valida una fila, rechazándola si no es válida.
+     *
+     * @return La fila válida, o null si se rechazó.
+     */
+    private Row parseRow(RowParser parser, String line, long lineNumber, Progress progress) throws IOException {
+        RegisterDTO dto;
+        try {
+            dto = parser.parse(line);
+        } catch (JsonProcessingException e) {
+            progress.reject(lineNumber, null, "Malformed row: " + e.getOriginalMessage());
+            return null;
+        } catch (IllegalArgumentException e) {
+            progress.reject(lineNumber, null, "Malformed row: " + e.getMessage());
+            return null;
+        }
+
+        String error = validate(dto);
+        if (error != null) {
+            progress.reject(lineNumber, dto.getEmail(), error);
+            return null;
+        }
+
+        return new Row(lineNumber, dto);
+    }
+
+    /**
+     * Valida las restricciones de la fila.
+     *
+     * @param dto Los datos de la fila.
+     * @return El mensaje de la primera restricción incumplida en el orden de las columnas, dando prioridad a un
+     * campo ausente sobre uno con formato incorrecto, o null si la fila es válida.
+     */
+    private String validate(RegisterDTO dto) {
+        return validator.validate(dto).stream()
+                .min(Comparator.<ConstraintViolation<RegisterDTO>>comparingInt(v -> CSV_COLUMNS.indexOf(v.getPropertyPath().toString()))
+                        .thenComparing(v -> !v.getMessage().startsWith("Missing")))
+                .map(ConstraintViolation::getMessage)
+                .orElse(null);
+    }
+
+    /**
+     * Construye el lector de filas CSV a partir de la cabecera, que puede listar las columnas en cualquier orden.
+     *
+     * @param header La primera línea del cuerpo.
+     * @return El lector de filas.
+     * @throws IllegalArgumentException Si el cuerpo está vacío o falta alguna columna.
+     */
+    private static RowParser csvParser(String header) {
+        if (header == null) {
+            throw new IllegalArgumentException("Empty import body");
+        }
+
+        List<String> columns = splitCsvLine(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        int[] indexes = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = -1;
+            for (int j = 0; j < columns.size(); j++) {
+                if (columns.get(j).trim().equalsIgnoreCase(CSV_COLUMNS.get(i))) {
+                    indexes[i] = j;
+                }
+            }
+            if (indexes[i] < 0) {
+                throw new IllegalArgumentException("Missing CSV column: " + CSV_COLUMNS.get(i));
+            }
+        }
+
+        return line -> {
+            List<String> fields = splitCsvLine(line);
+            if (fields.size() != columns.size()) {
+                throw new IllegalArgumentException("Expected " + columns.size() + " fields, found " + fields.size());
+            }
+
+            RegisterDTO dto = new RegisterDTO();
+            dto.setName(fields.get(indexes[0]).trim());
+            dto.setLastName(fields.get(indexes[1]).trim());
+            dto.setEmail(fields.get(indexes[2]).trim());
+            dto.setPassword(fields.get(indexes[3]));
+
+            String role = fields.get(indexes[4]).trim();
+            try {
+                dto.setRole(role.isEmpty() ? null : UserRole.valueOf(role.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown role: " + role);
+            }
+
+            return dto;
+        };
+    }
+
+    /**
+     * Divide una línea CSV (RFC 4180, sin saltos de línea dentro de los campos) en sus campos.
+     *
+     * @param line La línea.
+     * @return Los campos, sin las comillas que los delimitan.
+     * @throws IllegalArgumentException Si un campo entre comillas no se cierra.
+     */
+    private static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+
+            if (quoted) {
+                if (ch != '"') {
+                    field.append(ch);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(ch);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+
+        return fields;
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Convierte una línea del cuerpo en los datos de registro de un usuario.
+     */
+    @FunctionalInterface
+    private interface RowParser {
+
+        RegisterDTO parse(String line) throws JsonProcessingException;
+    }
+
+    private record Row(long line, RegisterDTO dto) {
+    }
+
+    /**
+     * Un lote de filas aceptadas con el hashing de sus contraseñas en curso, en el mismo orden.
+     */
+    private record Batch(List<Row> rows, List<CompletableFuture<String>> hashes) {
+    }
+
+    /**
+     * Contadores de una importación en curso.
+     */
+    private static final class Progress {
+
+        private final Listener listener;
+
+        private final long startedAt = System.nanoTime();
+
+        private long imported;
+
+        private long rejected;
+
+        private Progress(Listener listener) {
+            this.listener = listener;
+        }
+
+        private void imported(int count) {
+            imported += count;
+        }
+
+        private void reject(long line, String email, String error) throws IOException {
+            rejected++;
+            listener.onError(new ImportErrorDTO(line, email, error));
+        }
+
+        private void report() throws IOException {
+            ImportProgressDTO snapshot = snapshot();
+            log.debug("User import progress: {} imported, {} rejected ({} rows/s)",
+                    snapshot.getImported(), snapshot.getRejected(), Math.round(snapshot.getRowsPerSecond()));
+            listener.onProgress(snapshot);
+        }
+
+        private ImportProgressDTO snapshot() {
+            long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+            long processed = imported + rejected;
+
+            return new ImportProgressDTO(processed, imported, rejected, elapsedMillis,
+                    elapsedMillis > 0 ? processed * 1000.0 / elapsedMillis : 0);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.zair.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas de cada etapa de la autenticación: verificación de tokens, búsqueda de usuarios, BCrypt y la
+ * pasada completa del filtro, además de un contador por cada motivo de rechazo de un token y por cada cuota
+ * de inicio de sesión superada.
+ * <p>
+ * Todos los medidores se registran una única vez al construir el componente, de modo que registrar una
+ * medición no consulta el registro ni crea etiquetas: es una lectura de {@link System#nanoTime()} y una
+ * actualización de contadores atómicos. Los histogramas de percentiles se activan por configuración con
+ * {@code management.metrics.distribution.percentiles-histogram.auth}.
+ */
+@Component
+public class AuthMetrics {
+
+    private final Timer tokenVerification;
+
+    private final Timer userLookup;
+
+    private final Timer loginAuthentication;
+
+    private final Timer loginHashing;
+
+    private final Timer registerHashing;
+
+    private final Timer filterPass;
+
+    private final Counter malformedTokens;
+
+    private final Counter expiredTokens;
+
+    private final Counter badSignatureTokens;
+
+    private final Counter unknownUserTokens;
+
+    private final Counter revokedTokens;
+
+    private final Counter emailThrottledLogins;
+
+    private final Counter ipThrottledLogins;
+
+    private final boolean serverTimingEnabled;
+
+    /**
+     * Construye las métricas registrando todos los medidores.
+     *
+     * @param registry            El registro de Micrometer.
+     * @param serverTimingEnabled Indica si el filtro añade la cabecera {@code Server-Timing} a las respuestas.
+     */
+    public AuthMetrics(MeterRegistry registry,
+                       @Value("${auth.metrics.server-timing:false}") boolean serverTimingEnabled) {
+        this.tokenVerification = Timer.builder("auth.token.verify")
+                .description("Signature, expiry and claims check of a token not served from the cache")
+                .register(registry);
+        this.userLookup = Timer.builder("auth.user.lookup")
+                .description("User lookup by email, including the user cache")
+                .register(registry);
+        this.loginAuthentication = Timer.builder("auth.login.authenticate")
+                .description("Credential check of a login through the AuthenticationManager: user lookup and BCrypt")
+                .register(registry);
+        this.loginHashing = passwordHashTimer(registry, "login");
+        this.registerHashing = passwordHashTimer(registry, "register");
+        this.filterPass = Timer.builder("auth.filter")
+                .description("Authentication of a Bearer request, excluding the rest of the filter chain")
+                .register(registry);
+
+        this.malformedTokens = failureCounter(registry, "malformed");
+        this.expiredTokens = failureCounter(registry, "expired");
+        this.badSignatureTokens = failureCounter(registry, "bad_signature");
+        this.unknownUserTokens = failureCounter(registry, "unknown_user");
+        this.revokedTokens = failureCounter(registry, "revoked");
+
+        this.emailThrottledLogins = throttledCounter(registry, "email");
+        this.ipThrottledLogins = throttledCounter(registry, "ip");
+
+        this.serverTimingEnabled = serverTimingEnabled;
+    }
+
+    /**
+     * Crea unas métricas sin efecto, para construir los componentes fuera del contexto de Spring.
+     *
+     * @return Las métricas sobre un registro compuesto sin registros, cuyos medidores no hacen nada.
+     */
+    public static AuthMetrics noop() {
+        return new AuthMetrics(new CompositeMeterRegistry(), false);
+    }
+
+    /**
+     * Indica si se debe añadir la cabecera {@code Server-Timing} a las respuestas.
+     *
+     * @return true si la cabecera está habilitada, false en caso contrario.
+     */
+    public boolean isServerTimingEnabled() {
+        return serverTimingEnabled;
+    }
+
+    /**
+     * Registra la duración de una verificación de token.
+     *
+     * @param startNanos El instante de inicio según {@link System#nanoTime()}.
+     */
+    public void recordTokenVerification(long startNanos) {
+        tokenVerification.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra la duración de una búsqueda de usuario.
+     *
+     * @param startNanos El instante de inicio según {@link System#nanoTime()}.
+     */
+    public void recordUserLookup(long startNanos) {
+        userLookup.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra la duración de la comprobación de credenciales de un inicio de sesión con el
+     * {@code AuthenticationManager}, que incluye la búsqueda del usuario además de BCrypt.
+     *
+     * @param startNanos El instante de inicio según {@link System#nanoTime()}.
+     */
+    public void recordLoginAuthentication(long startNanos) {
+        loginAuthentication.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra la duración de la comprobación BCrypt de un inicio de sesión.
+     *
+     * @param startNanos El instante de inicio según {@link System#nanoTime()}.
+     */
+    public void recordLoginHashing(long startNanos) {
+        loginHashing.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra la duración del hash BCrypt de un registro.
+     *
+     * @param startNanos El instante de inicio según {@link System#nanoTime()}.
+     */
+    public void recordRegisterHashing(long startNanos) {
+        registerHashing.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra la duración de una pasada del filtro de autenticación.
+     *
+     * @param startNanos El instante de inicio según {@link System#nanoTime()}.
+     * @return La duración registrada en nanosegundos.
+     */
+    public long recordFilterPass(long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        filterPass.record(elapsed, TimeUnit.NANOSECONDS);
+
+        return elapsed;
+    }
+
+    /**
+     * Contabiliza un token rechazado según el motivo del rechazo.
+     *
+     * @param reason El motivo del rechazo.
+     */
+    public void tokenRejected(TokenValidation.Invalid reason) {
+        switch (reason) {
+            case MALFORMED -> malformedTokens.increment();
+            case EXPIRED -> expiredTokens.increment();
+            case BAD_SIGNATURE -> badSignatureTokens.increment();
+            case UNKNOWN_USER -> unknownUserTokens.increment();
+            case REVOKED -> revokedTokens.increment();
+        }
+    }
+
+    /**
+     * Contabiliza un inicio de sesión rechazado por superar la cuota del correo electrónico.
+     */
+    public void loginThrottledByEmail() {
+        emailThrottledLogins.increment();
+    }
+
+    /**
+     * Contabiliza un inicio de sesión rechazado por superar la cuota de la IP del cliente.
+     */
+    public void loginThrottledByIp() {
+        ipThrottledLogins.increment();
+    }
+
+    private static Timer passwordHashTimer(MeterRegistry registry, String operation) {
+        return Timer.builder("auth.password.hash")
+                .description("BCrypt work of a login or a registration")
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    private static Counter failureCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("auth.token.failures")
+                .description("Rejected tokens by reason")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private static Counter throttledCounter(MeterRegistry registry, String key) {
+        return Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected by the rate limiter before hashing")
+                .tag("key", key)
+                .register(registry);
+    }
+}
@@ -0,0 +1,60 @@
+package com.zair.utils;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Pool acotado de objetos reutilizables (búferes, {@code MessageDigest}, {@code Mac}) independiente del hilo.
+ * <p>
+ * Sustituye a {@code ThreadLocal}, que con hilos virtuales crearía un objeto nuevo en cada solicitud. Los objetos
+ * se reparten en ranuras indexadas por el identificador del hilo; tomarlos y devolverlos es un intercambio
+ * atómico sin bloqueos ni asignaciones. Si la ranura está vacía se crea un objeto nuevo, y si al devolverlo ya
+ * está ocupada se descarta, de modo que el pool nunca retiene más objetos que ranuras.
+ *
+ * @param <T> El tipo de los objetos del pool, que no deben compartirse mientras están tomados.
+ */
+final class BufferPool<T> {
+
+    private final AtomicReferenceArray<T> slots;
+
+    private final int mask;
+
+    private final Supplier<T> factory;
+
+    /**
+     * Construye el pool con cuatro ranuras por procesador, redondeadas a potencia de dos.
+     *
+     * @param factory La función que crea un objeto cuando su ranura está vacía.
+     */
+    BufferPool(Supplier<T> factory) {
+        int size = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.factory = factory;
+    }
+
+    /**
+     * Toma un objeto del pool, o crea uno si la ranura del hilo está vacía.
+     *
+     * @return Un objeto de uso exclusivo hasta que se devuelva con {@link #release}.
+     */
+    T acquire() {
+        T value = slots.getAndSet(slot(), null);
+        return value != null ? value : factory.get();
+    }
+
+    /**
+     * Devuelve un objeto al pool, o lo descarta si la ranura del hilo ya está ocupada.
+     *
+     * @param value El objeto tomado con {@link #acquire}.
+     */
+    void release(T value) {
+        slots.compareAndSet(slot(), null, value);
+    }
+
+    @SuppressWarnings("deprecation")
+    private int slot() {
+        // Thread.threadId() solo existe desde Java 19
+        return (int) Thread.currentThread().getId() & mask;
+    }
+}
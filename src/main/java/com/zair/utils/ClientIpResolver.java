@@ -0,0 +1,96 @@
+package com.zair.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Resuelve la dirección IP del cliente que limita {@link LoginRateLimiter} y que registran los eventos de
+ * inicio de sesión.
+ * <p>
+ * Por defecto es la dirección remota de la conexión, que el servidor ya reescribe cuando se configura
+ * {@code server.forward-headers-strategy}. Detrás de proxies que no cubre esa estrategia, se listan en
+ * {@code auth.rate-limit.trusted-proxies} (direcciones o rangos CIDR): si la conexión llega de uno de ellos,
+ * la cabecera {@code X-Forwarded-For} se recorre de derecha a izquierda saltando los proxies de confianza, y el
+ * cliente es la primera dirección que no lo es. Las entradas a su izquierda las escribe el propio cliente y se
+ * ignoran, por lo que no puede elegir su identidad.
+ */
+@Component
+public class ClientIpResolver {
+
+    public static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    /**
+     * Construye el resolutor.
+     *
+     * @param trustedProxies Las direcciones o rangos CIDR de los proxies de confianza, vacío para usar siempre la
+     *                       dirección remota.
+     */
+    public ClientIpResolver(@Value("${auth.rate-limit.trusted-proxies:}") List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies.stream()
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    /**
+     * Resuelve la dirección IP del cliente.
+     *
+     * @param remoteAddress La dirección remota de la conexión.
+     * @param forwardedFor  Los valores de la cabecera {@code X-Forwarded-For}, en orden, o null.
+     * @return La dirección del cliente.
+     */
+    public String resolve(String remoteAddress, List<String> forwardedFor) {
+        if (trustedProxies.isEmpty() || forwardedFor == null || !isTrusted(remoteAddress)) {
+            return remoteAddress;
+        }
+
+        String client = remoteAddress;
+        for (int i = forwardedFor.size() - 1; i >= 0; i--) {
+            String[] hops = forwardedFor.get(i).split(",");
+            for (int j = hops.length - 1; j >= 0; j--) {
+                String hop = hops[j].trim();
+                if (hop.isEmpty()) {
+                    continue;
+                }
+                if (!isTrusted(hop)) {
+                    return hop;
+                }
+                client = hop;
+            }
+        }
+
+        return client;
+    }
+
+    private boolean isTrusted(String address) {
+        // Solo se comparan literales IP: un nombre de host provocaría una resolución DNS
+        if (address == null || !isIpLiteral(address)) {
+            return false;
+        }
+        for (IpAddressMatcher proxy : trustedProxies) {
+            if (proxy.matches(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isIpLiteral(String address) {
+        boolean separator = false;
+        for (int i = 0; i < address.length(); i++) {
+            char ch = address.charAt(i);
+            if (ch == '.' || ch == ':') {
+                separator = true;
+            } else if (Character.digit(ch, 16) < 0) {
+                return false;
+            }
+        }
+        return separator;
+    }
+}
@@ -0,0 +1,663 @@
+package com.zair.utils;
+
+import com.zair.models.entities.User;
+import com.zair.models.enums.UserRole;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Códec especializado para los tokens HS256 de forma fija que emite este servicio.
+ * <p>
+ * Produce exactamente los mismos bytes que jjwt para la cabecera {@code {"typ":"JWT","alg":"HS256"}} y los
+ * claims {@code sub}, {@code role}, {@code user_id}, {@code perms}, {@code jti}, {@code iat} y {@code exp},
+ * pero sin mapas de Jackson, objetos {@code Date} ni cadenas intermedias: la cabecera va precodificada, el
+ * {@code Mac} se reutiliza desde un {@link BufferPool}, Base64URL se procesa directamente sobre arreglos de
+ * bytes y la firma se compara en tiempo constante.
+ * <p>
+ * También conoce la forma compacta (versión 1) con la cabecera {@code {"alg":"HS256"}} y los claims {@code v},
+ * {@code sub} (el identificador numérico del usuario), {@code r} (el código del rol), {@code jti}, {@code iat} y
+ * {@code exp}.
+ * <p>
+ * Cualquier token o usuario que no encaje en esa forma (otra cabecera, claims adicionales o caracteres que
+ * requieren escape) devuelve {@code null} para que el llamador recurra a jjwt. Con la cabecera de forma fija,
+ * en cambio, una firma inválida o un token expirado son definitivos: jjwt los rechazaría con la misma clave,
+ * así que {@link #validate} los informa sin lanzar excepciones.
+ */
+public class Hs256TokenCodec {
+
+    // Declaradas primero: la cabecera precodificada se calcula con ellas durante la inicialización
+    private static final char[] ENCODE_TABLE = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    private static final byte[] DECODE_TABLE = decodeTable();
+
+    private static final String HEADER = base64Url("{\"typ\":\"JWT\",\"alg\":\"HS256\"}");
+
+    private static final String COMPACT_HEADER = base64Url("{\"alg\":\"HS256\"}");
+
+    private static final byte[] SUB = ascii("{\"sub\":\"");
+
+    private static final byte[] ROLE = ascii("\",\"role\":\"");
+
+    private static final byte[] USER_ID = ascii("\",\"user_id\":");
+
+    private static final byte[] PERMS = ascii(",\"perms\":");
+
+    private static final byte[] JTI = ascii(",\"jti\":\"");
+
+    private static final byte[] IAT = ascii(",\"iat\":");
+
+    private static final byte[] JTI_IAT = ascii("\",\"iat\":");
+
+    private static final byte[] EXP = ascii(",\"exp\":");
+
+    private static final byte[] COMPACT_SUB = ascii("{\"v\":1,\"sub\":\"");
+
+    private static final byte[] COMPACT_ROLE = ascii("\",\"r\":");
+
+    private static final byte[][] ROLE_NAMES = roleNames();
+
+    private static final int SIGNATURE_LENGTH = 32;
+
+    private static final int MAX_TOKEN_LENGTH = 2048;
+
+    private final BufferPool<Buffers> buffers;
+
+    /**
+     * Construye el códec para la clave de firma proporcionada.
+     *
+     * @param key La clave HMAC utilizada por jjwt para firmar los tokens.
+     */
+    public Hs256TokenCodec(SecretKey key) {
+        SecretKeySpec hmacKey = new SecretKeySpec(key.getEncoded(), "HmacSHA256");
+        this.buffers = new BufferPool<>(() -> new Buffers(hmacKey));
+    }
+
+    /**
+     * Genera un token idéntico byte a byte al que produciría jjwt para el mismo usuario e instantes.
+     *
+     * @param user             El usuario para el que se genera el token.
+     * @param tokenId          El identificador único del token.
+     * @param issuedAtMillis   La fecha de emisión en milisegundos.
+     * @param expirationMillis La fecha de expiración en milisegundos.
+     * @return El token generado, o null si el usuario o el identificador no encajan en la forma fija.
+     */
+    public String encode(User user, String tokenId, long issuedAtMillis, long expirationMillis) {
+        if (user.getId() == null || user.getRole() == null || !isPlainJson(user.getEmail()) || !isPlainJson(tokenId)) {
+            return null;
+        }
+
+        Buffers b = buffers.acquire();
+        try {
+            // Payload JSON en el mismo orden de claims que jjwt
+            byte[] json = b.json;
+            int p = 0;
+            p = put(json, p, SUB);
+            p = putUtf8(json, p, user.getEmail());
+            p = put(json, p, ROLE);
+            p = put(json, p, ROLE_NAMES[user.getRole().ordinal()]);
+            p = put(json, p, USER_ID);
+            p = putLong(json, p, user.getId());
+            p = put(json, p, PERMS);
+            p = putLong(json, p, user.getRole().getPermissions());
+            p = put(json, p, JTI);
+            p = putUtf8(json, p, tokenId);
+            p = put(json, p, JTI_IAT);
+            p = putLong(json, p, issuedAtMillis / 1000);
+            p = put(json, p, EXP);
+            p = putLong(json, p, expirationMillis / 1000);
+            json[p++] = '}';
+
+            return sign(b, HEADER, p);
+        } finally {
+            buffers.release(b);
+        }
+    }
+
+    /**
+     * Genera un token compacto idéntico byte a byte al que produciría jjwt con los mismos claims e instantes.
+     *
+     * @param user             El usuario para el que se genera el token.
+     * @param tokenId          El identificador único del token.
+     * @param issuedAtMillis   La fecha de emisión en milisegundos.
+     * @param expirationMillis La fecha de expiración en milisegundos.
+     * @return El token generado, o null si el usuario o el identificador no encajan en la forma compacta.
+     */
+    public String encodeCompact(User user, String tokenId, long issuedAtMillis, long expirationMillis) {
+        if (user.getId() == null || user.getRole() == null || !isPlainJson(tokenId)) {
+            return null;
+        }
+
+        Buffers b = buffers.acquire();
+        try {
+            byte[] json = b.json;
+            int p = 0;
+            p = put(json, p, COMPACT_SUB);
+            p = putLong(json, p, user.getId());
+            p = put(json, p, COMPACT_ROLE);
+            p = putLong(json, p, user.getRole().getCode());
+            p = put(json, p, JTI);
+            p = putUtf8(json, p, tokenId);
+            p = put(json, p, JTI_IAT);
+            p = putLong(json, p, issuedAtMillis / 1000);
+            p = put(json, p, EXP);
+            p = putLong(json, p, expirationMillis / 1000);
+            json[p++] = '}';
+
+            return sign(b, COMPACT_HEADER, p);
+        } finally {
+            buffers.release(b);
+        }
+    }
+
+    /**
+     * Firma el payload de los búferes y compone el token.
+     *
+     * @param b          Los búferes tomados del pool, con el payload JSON en {@code json}.
+     * @param header     La cabecera precodificada.
+     * @param jsonLength La longitud del payload.
+     * @return El token, o null si la firma falla.
+     */
+    private static String sign(Buffers b, String header, int jsonLength) {
+        // Entrada de firma: cabecera precodificada + '.' + payload en Base64URL
+        char[] out = b.chars;
+        int c = 0;
+        for (int i = 0; i < header.length(); i++) {
+            out[c++] = header.charAt(i);
+        }
+        out[c++] = '.';
+        c = encodeBase64Url(b.json, jsonLength, out, c);
+
+        byte[] signingInput = b.token;
+        for (int i = 0; i < c; i++) {
+            signingInput[i] = (byte) out[i];
+        }
+
+        try {
+            b.mac.update(signingInput, 0, c);
+            b.mac.doFinal(b.signature, 0);
+        } catch (ShortBufferException e) {
+            return null;
+        }
+
+        out[c++] = '.';
+        c = encodeBase64Url(b.signature, SIGNATURE_LENGTH, out, c);
+
+        return new String(out, 0, c);
+    }
+
+    /**
+     * Verifica y decodifica un token de forma fija.
+     *
+     * @param token El token JWT a verificar.
+     * @return El token verificado, o null si el token no encaja en la forma fija, su firma no es válida o
+     * ha expirado.
+     */
+    public VerifiedToken decode(String token) {
+        return validate(token) instanceof VerifiedToken verified ? verified : null;
+    }
+
+    /**
+     * Valida un token de forma fija sin lanzar excepciones.
+     *
+     * @param token El token JWT a validar.
+     * @return El token verificado, {@link TokenValidation.Invalid#BAD_SIGNATURE} si tiene la cabecera de forma
+     * fija pero su firma no es válida, {@link TokenValidation.Invalid#EXPIRED} si la firma es válida pero ha
+     * expirado, o null si el token no encaja en la forma fija y debe validarlo jjwt.
+     */
+    public TokenValidation validate(String token) {
+        return validate(token, true);
+    }
+
+    /**
+     * Valida un token de forma fija sin lanzar excepciones, calculando o no su HMAC.
+     * <p>
+     * Sin calcular el HMAC solo se informan los rechazos que no dependen de la firma: una firma de longitud
+     * incorrecta ({@link TokenValidation.Invalid#BAD_SIGNATURE}) o un payload ya expirado
+     * ({@link TokenValidation.Invalid#EXPIRED}). Cualquier otro token devuelve null, de modo que nunca se acepta
+     * sin que el llamador verifique la firma.
+     *
+     * @param token           El token JWT a validar.
+     * @param verifySignature Indica si se calcula y compara el HMAC.
+     * @return El resultado de la validación, o null si debe validarlo jjwt.
+     */
+    public TokenValidation validate(String token, boolean verifySignature) {
+        int length = token.length();
+        boolean compact = token.startsWith(COMPACT_HEADER);
+        int headerLength = compact ? COMPACT_HEADER.length() : HEADER.length();
+        if (length > MAX_TOKEN_LENGTH || !(compact || token.startsWith(HEADER)) || length <= headerLength
+                || token.charAt(headerLength) != '.') {
+            return null;
+        }
+
+        int secondDot = token.indexOf('.', headerLength + 1);
+        if (secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            return null;
+        }
+
+        Buffers b = buffers.acquire();
+        try {
+            // Copia ASCII del token a un búfer reutilizable
+            byte[] bytes = b.token;
+            for (int i = 0; i < length; i++) {
+                char ch = token.charAt(i);
+                if (ch > 0x7F) {
+                    return null;
+                }
+                bytes[i] = (byte) ch;
+            }
+
+            // Firma recibida
+            int signatureLength = decodeBase64Url(bytes, secondDot + 1, length, b.received);
+            if (signatureLength != SIGNATURE_LENGTH) {
+                return TokenValidation.Invalid.BAD_SIGNATURE;
+            }
+
+            // Firma esperada y comparación en tiempo constante
+            if (verifySignature) {
+                try {
+                    b.mac.update(bytes, 0, secondDot);
+                    b.mac.doFinal(b.signature, 0);
+                } catch (ShortBufferException e) {
+                    return null;
+                }
+                if (!MessageDigest.isEqual(b.signature, b.received)) {
+                    return TokenValidation.Invalid.BAD_SIGNATURE;
+                }
+            }
+
+            int jsonLength = decodeBase64Url(bytes, headerLength + 1, secondDot, b.json);
+            if (jsonLength < 0) {
+                return null;
+            }
+
+            VerifiedToken verified = compact ? parseCompactPayload(b.json, jsonLength) : parsePayload(b.json, jsonLength);
+            if (verified == null) {
+                return null;
+            }
+
+            if (verified.isExpired()) {
+                return TokenValidation.Invalid.EXPIRED;
+            }
+            return verifySignature ? verified : null;
+        } finally {
+            buffers.release(b);
+        }
+    }
+
+    /**
+     * Analiza el payload de forma fija.
+     *
+     * @param json   Los bytes del payload JSON.
+     * @param length La longitud del payload.
+     * @return El token verificado, sin comprobar su expiración, o null si el payload no tiene la forma esperada.
+     */
+    private static VerifiedToken parsePayload(byte[] json, int length) {
+        if (!matches(json, 0, length, SUB)) {
+            return null;
+        }
+        int subjectStart = SUB.length;
+        int subjectEnd = indexOf(json, subjectStart, length, (byte) '"');
+        if (subjectEnd < 0 || indexOf(json, subjectStart, subjectEnd, (byte) '\\') >= 0) {
+            return null;
+        }
+
+        int p = subjectEnd;
+        if (!matches(json, p, length, ROLE)) {
+            return null;
+        }
+        p += ROLE.length;
+        int roleEnd = indexOf(json, p, length, (byte) '"');
+        UserRole role = roleEnd < 0 ? null : role(json, p, roleEnd);
+        if (role == null) {
+            return null;
+        }
+
+        p = roleEnd;
+        if (!matches(json, p, length, USER_ID)) {
+            return null;
+        }
+        p += USER_ID.length;
+        int userIdEnd = digitsEnd(json, p, length);
+        if (userIdEnd < 0) {
+            return null;
+        }
+        long userId = parseLong(json, p, userIdEnd);
+        p = userIdEnd;
+
+        // Los permisos son opcionales: los tokens emitidos antes del claim reciben los de su rol
+        long permissions = role.getPermissions();
+        if (matches(json, p, length, PERMS)) {
+            p += PERMS.length;
+            int permissionsEnd = digitsEnd(json, p, length);
+            if (permissionsEnd < 0) {
+                return null;
+            }
+            permissions = parseLong(json, p, permissionsEnd);
+            p = permissionsEnd;
+        }
+
+        // El jti es opcional: los tokens emitidos antes de la revocación no lo incluyen
+        int tokenIdStart = -1;
+        int tokenIdEnd = -1;
+        if (matches(json, p, length, JTI)) {
+            tokenIdStart = p + JTI.length;
+            tokenIdEnd = indexOf(json, tokenIdStart, length, (byte) '"');
+            if (tokenIdEnd < 0 || indexOf(json, tokenIdStart, tokenIdEnd, (byte) '\\') >= 0) {
+                return null;
+            }
+            p = tokenIdEnd + 1;
+        }
+        if (!matches(json, p, length, IAT)) {
+            return null;
+        }
+
+        p += IAT.length;
+        int iatEnd = digitsEnd(json, p, length);
+        if (iatEnd < 0 || !matches(json, iatEnd, length, EXP)) {
+            return null;
+        }
+        long issuedAt = parseLong(json, p, iatEnd);
+
+        p = iatEnd + EXP.length;
+        int expEnd = digitsEnd(json, p, length);
+        if (expEnd < 0 || expEnd != length - 1 || json[expEnd] != '}') {
+            return null;
+        }
+        long expiration = parseLong(json, p, expEnd);
+
+        return new VerifiedToken(
+                new String(json, subjectStart, subjectEnd - subjectStart, StandardCharsets.UTF_8),
+                userId,
+                role,
+                permissions,
+                Instant.ofEpochSecond(expiration),
+                Instant.ofEpochSecond(issuedAt),
+                tokenIdStart < 0 ? null : new String(json, tokenIdStart, tokenIdEnd - tokenIdStart, StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * Analiza el payload de la forma compacta.
+     *
+     * @param json   Los bytes del payload JSON.
+     * @param length La longitud del payload.
+     * @return El token verificado, sin sujeto ni comprobación de expiración, o null si el payload no tiene la
+     * forma esperada.
+     */
+    private static VerifiedToken parseCompactPayload(byte[] json, int length) {
+        if (!matches(json, 0, length, COMPACT_SUB)) {
+            return null;
+        }
+        int p = COMPACT_SUB.length;
+        int userIdEnd = digitsEnd(json, p, length);
+        if (userIdEnd < 0 || !matches(json, userIdEnd, length, COMPACT_ROLE)) {
+            return null;
+        }
+        long userId = parseLong(json, p, userIdEnd);
+
+        p = userIdEnd + COMPACT_ROLE.length;
+        int roleEnd = digitsEnd(json, p, length);
+        UserRole role = roleEnd < 0 ? null : UserRole.fromCode(parseLong(json, p, roleEnd));
+        if (role == null || !matches(json, roleEnd, length, JTI)) {
+            return null;
+        }
+
+        int tokenIdStart = roleEnd + JTI.length;
+        int tokenIdEnd = indexOf(json, tokenIdStart, length, (byte) '"');
+        if (tokenIdEnd < 0 || indexOf(json, tokenIdStart, tokenIdEnd, (byte) '\\') >= 0
+                || !matches(json, tokenIdEnd, length, JTI_IAT)) {
+            return null;
+        }
+
+        p = tokenIdEnd + JTI_IAT.length;
+        int iatEnd = digitsEnd(json, p, length);
+        if (iatEnd < 0 || !matches(json, iatEnd, length, EXP)) {
+            return null;
+        }
+        long issuedAt = parseLong(json, p, iatEnd);
+
+        p = iatEnd + EXP.length;
+        int expEnd = digitsEnd(json, p, length);
+        if (expEnd < 0 || expEnd != length - 1 || json[expEnd] != '}') {
+            return null;
+        }
+        long expiration = parseLong(json, p, expEnd);
+
+        return new VerifiedToken(
+                null,
+                userId,
+                role,
+                role.getPermissions(),
+                Instant.ofEpochSecond(expiration),
+                Instant.ofEpochSecond(issuedAt),
+                new String(json, tokenIdStart, tokenIdEnd - tokenIdStart, StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * Indica si una cadena se serializa en JSON sin ningún escape (criterio de Jackson).
+     */
+    private static boolean isPlainJson(String value) {
+        if (value == null || value.length() > 256) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch < 0x20 || ch == '"' || ch == '\\' || Character.isSurrogate(ch)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static UserRole role(byte[] json, int from, int to) {
+        for (UserRole role : UserRole.values()) {
+            byte[] name = ROLE_NAMES[role.ordinal()];
+            if (to - from == name.length && matches(json, from, to, name)) {
+                return role;
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(byte[] src, int offset, int limit, byte[] expected) {
+        if (limit - offset < expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (src[offset + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(byte[] src, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (src[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int digitsEnd(byte[] src, int from, int limit) {
+        int i = from;
+        while (i < limit && src[i] >= '0' && src[i] <= '9') {
+            i++;
+        }
+        // Entre 1 y 18 dígitos para evitar desbordamientos
+        return i == from || i - from > 18 ? -1 : i;
+    }
+
+    private static long parseLong(byte[] src, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            value = value * 10 + (src[i] - '0');
+        }
+        return value;
+    }
+
+    private static int put(byte[] dst, int offset, byte[] src) {
+        System.arraycopy(src, 0, dst, offset, src.length);
+        return offset + src.length;
+    }
+
+    private static int putUtf8(byte[] dst, int offset, String value) {
+        int p = offset;
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch < 0x80) {
+                dst[p++] = (byte) ch;
+            } else if (ch < 0x800) {
+                dst[p++] = (byte) (0xC0 | (ch >> 6));
+                dst[p++] = (byte) (0x80 | (ch & 0x3F));
+            } else {
+                dst[p++] = (byte) (0xE0 | (ch >> 12));
+                dst[p++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+                dst[p++] = (byte) (0x80 | (ch & 0x3F));
+            }
+        }
+        return p;
+    }
+
+    private static int putLong(byte[] dst, int offset, long value) {
+        if (value < 0) {
+            dst[offset++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value / 10; v > 0; v /= 10) {
+            digits++;
+        }
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            dst[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + digits;
+    }
+
+    private static int encodeBase64Url(byte[] src, int length, char[] dst, int offset) {
+        int p = offset;
+        int i = 0;
+        for (; i + 2 < length; i += 3) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+            dst[p++] = ENCODE_TABLE[bits >>> 18];
+            dst[p++] = ENCODE_TABLE[(bits >>> 12) & 0x3F];
+            dst[p++] = ENCODE_TABLE[(bits >>> 6) & 0x3F];
+            dst[p++] = ENCODE_TABLE[bits & 0x3F];
+        }
+        int remaining = length - i;
+        if (remaining == 1) {
+            int bits = (src[i] & 0xFF) << 16;
+            dst[p++] = ENCODE_TABLE[bits >>> 18];
+            dst[p++] = ENCODE_TABLE[(bits >>> 12) & 0x3F];
+        } else if (remaining == 2) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8;
+            dst[p++] = ENCODE_TABLE[bits >>> 18];
+            dst[p++] = ENCODE_TABLE[(bits >>> 12) & 0x3F];
+            dst[p++] = ENCODE_TABLE[(bits >>> 6) & 0x3F];
+        }
+        return p;
+    }
+
+    /**
+     * Decodifica Base64URL sin relleno.
+     *
+     * @return El número de bytes escritos, o -1 si la entrada no es válida o no cabe en el destino.
+     */
+    private static int decodeBase64Url(byte[] src, int from, int to, byte[] dst) {
+        int length = to - from;
+        if (length % 4 == 1 || (length / 4) * 3 + 2 > dst.length) {
+            return -1;
+        }
+
+        int p = 0;
+        int bits = 0;
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            int value = DECODE_TABLE[src[i] & 0xFF];
+            if (value < 0) {
+                return -1;
+            }
+            bits = bits << 6 | value;
+            if (++count == 4) {
+                dst[p++] = (byte) (bits >> 16);
+                dst[p++] = (byte) (bits >> 8);
+                dst[p++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        if (count == 2) {
+            dst[p++] = (byte) (bits >> 4);
+        } else if (count == 3) {
+            dst[p++] = (byte) (bits >> 10);
+            dst[p++] = (byte) (bits >> 2);
+        }
+        return p;
+    }
+
+    private static String base64Url(String value) {
+        byte[] bytes = ascii(value);
+        char[] chars = new char[bytes.length * 2];
+        return new String(chars, 0, encodeBase64Url(bytes, bytes.length, chars, 0));
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[][] roleNames() {
+        UserRole[] roles = UserRole.values();
+        byte[][] names = new byte[roles.length][];
+        for (UserRole role : roles) {
+            names[role.ordinal()] = ascii(role.name());
+        }
+        return names;
+    }
+
+    private static byte[] decodeTable() {
+        byte[] table = new byte[256];
+        Arrays.fill(table, (byte) -1);
+        for (int i = 0; i < ENCODE_TABLE.length; i++) {
+            table[ENCODE_TABLE[i]] = (byte) i;
+        }
+        return table;
+    }
+
+    /**
+     * Búferes y Mac reutilizables, de uso exclusivo mientras están tomados del pool.
+     */
+    private static final class Buffers {
+
+        private final Mac mac;
+
+        private final byte[] json = new byte[MAX_TOKEN_LENGTH];
+
+        private final byte[] token = new byte[MAX_TOKEN_LENGTH];
+
+        private final char[] chars = new char[MAX_TOKEN_LENGTH * 2];
+
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+
+        private final byte[] received = new byte[SIGNATURE_LENGTH];
+
+        private Buffers(SecretKeySpec key) {
+            try {
+                this.mac = Mac.getInstance("HmacSHA256");
+                this.mac.init(key);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.zair.utils;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.security.Principal;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Autenticación ya verificada construida a partir de un token JWT.
+ * <p>
+ * A diferencia de {@code UsernamePasswordAuthenticationToken}, no copia la colección de permisos: reutiliza
+ * la lista inmutable compartida de cada rol, por lo que construirla solo cuesta este objeto. Lleva además la
+ * máscara de permisos de grano fino que comprueba {@code @RequiresPermission}.
+ */
+public final class JwtAuthentication implements Authentication {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Serializable principal;
+
+    // Las listas de permisos de cada rol son List.of, serializables
+    @SuppressWarnings("serial")
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    private final long permissions;
+
+    private Serializable details;
+
+    private boolean authenticated = true;
+
+    /**
+     * Construye la autenticación.
+     *
+     * @param principal   El principal autenticado (detalles del usuario o principal construido desde el token).
+     * @param authorities Los permisos del principal, que no se copian.
+     * @param permissions La máscara de permisos de grano fino del principal.
+     */
+    public JwtAuthentication(Serializable principal, Collection<? extends GrantedAuthority> authorities, long permissions) {
+        this.principal = principal;
+        this.authorities = authorities;
+        this.permissions = permissions;
+    }
+
+    /**
+     * Obtiene la máscara de permisos de grano fino del principal.
+     *
+     * @return La máscara de permisos.
+     */
+    public long getPermissions() {
+        return permissions;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return details;
+    }
+
+    /**
+     * Establece los detalles de la solicitud (dirección remota, sesión).
+     *
+     * @param details Los detalles de la solicitud.
+     */
+    public void setDetails(Serializable details) {
+        this.details = details;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return authenticated;
+    }
+
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) {
+        // Solo la verificación del token puede marcarla como autenticada
+        if (isAuthenticated && !authenticated) {
+            throw new IllegalArgumentException("Cannot mark a JWT authentication as trusted once revoked");
+        }
+        this.authenticated = isAuthenticated;
+    }
+
+    @Override
+    public String getName() {
+        if (principal instanceof UserDetails userDetails) {
+            return userDetails.getUsername();
+        }
+        if (principal instanceof Principal namedPrincipal) {
+            return namedPrincipal.getName();
+        }
+        return String.valueOf(principal);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof JwtAuthentication other
+                && permissions == other.permissions
+                && authenticated == other.authenticated
+                && Objects.equals(principal, other.principal)
+                && Objects.equals(authorities, other.authorities)
+                && Objects.equals(details, other.details);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(principal, authorities, permissions, details, authenticated);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [Principal=" + getName() + ", Authorities=" + authorities + "]";
+    }
+}
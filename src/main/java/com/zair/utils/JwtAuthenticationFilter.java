@@ -1,33 +1,69 @@
 package com.zair.utils;
 
-import io.jsonwebtoken.JwtException;
-import io.jsonwebtoken.MalformedJwtException;
+import com.zair.configuration.security.SecurityRoutes;
+import com.zair.models.enums.UserRole;
+import com.zair.services.UserIdDetailsService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpHeaders;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.io.Serializable;
+import java.util.Collection;
 
 /**
  * Filtro de autenticación JWT que verifica la validez del token en cada solicitud.
+ * <p>
+ * Presupuesto de asignación por solicitud autenticada con la caché de tokens habilitada (verificado por
+ * {@code JwtAuthenticationFilterAllocationTests}): el principal {@link JwtPrincipal} en modo sin estado,
+ * la {@link JwtAuthentication}, los {@link WebAuthenticationDetails} y el contexto de seguridad que crea
+ * {@link SecurityContextHolder}. El token no se extrae de la cabecera, los permisos son las listas
+ * compartidas de cada rol y la verificación en caché y la comprobación de revocación no asignan memoria.
+ * <p>
+ * Las rutas públicas de {@link SecurityRoutes} no pasan por el filtro. La ruta se clasifica una vez antes de
+ * {@link #doFilterInternal} y la regla se guarda como atributo de la solicitud, que reutiliza la autorización;
+ * esa entrada del mapa de atributos queda fuera del presupuesto anterior.
+ * <p>
+ * Cada pasada con token Bearer se registra en {@link AuthMetrics}, y con {@code auth.metrics.server-timing}
+ * la respuesta incluye la cabecera {@code Server-Timing} con la verificación del token y la pasada completa.
  */
 @Component
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private static final WebAuthenticationDetailsSource DETAILS_SOURCE = new WebAuthenticationDetailsSource();
+
+    private static final String SERVER_TIMING = "Server-Timing";
+
     private final JwtUtil jwtUtil;
 
-    private final UserDetailsService userDetailsService;
+    private final VerifiedTokenCache tokenCache;
+
+    private final TokenRevocationRegistry revocationRegistry;
+
+    private final UserIdDetailsService userDetailsService;
+
+    private final AuthMetrics metrics;
+
+    private final SecurityRoutes securityRoutes;
+
+    @Value("${jwt.stateless:false}")
+    private boolean statelessMode;
 
     /**
      * Realiza la lógica de filtrado para autenticar las solicitudes mediante tokens JWT.
@@ -40,100 +76,135 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      */
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        try {
-            if (isAuthRequest(request)) {
-                filterChain.doFilter(request, response);
-                return;
-            }
+        String header = getBearerHeader(request);
 
-            String token = getTokenFromRequest(request);
+        if (header == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-            if (token == null) {
-                filterChain.doFilter(request, response);
-                return;
-            }
+        long start = System.nanoTime();
 
-            String username = jwtUtil.getUsernameFromToken(token);
+        // Verifica la firma y extrae los claims una única vez por solicitud (o los reutiliza de la caché),
+        // leyendo el token directamente de la cabecera a continuación del prefijo
+        TokenValidation validation = tokenCache.validate(header, BEARER_PREFIX.length());
+        long verificationNanos = System.nanoTime() - start;
 
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = getUserDetails(username);
+        if (!(validation instanceof VerifiedToken verifiedToken)) {
+            rejectToken(response, (TokenValidation.Invalid) validation, start);
+            return;
+        }
+
+        // La revocación se comprueba siempre, también para los tokens servidos desde la caché
+        if (revocationRegistry.isRevoked(verifiedToken)) {
+            rejectToken(response, TokenValidation.Invalid.REVOKED, start);
+            return;
+        }
 
-                if (jwtUtil.isTokenValid(token, userDetails)) {
-                    setAuthentication(request, userDetails);
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            if (statelessMode) {
+                // Modo sin estado: la autenticación se construye solo con los claims, sin acceder a la base de datos
+                JwtPrincipal principal = JwtPrincipal.from(verifiedToken);
+                setAuthentication(request, principal, principal.getAuthorities(), principal.permissions());
+            } else {
+                UserDetails userDetails = userDetailsService.loadUserByToken(verifiedToken);
+
+                if (userDetails == null) {
+                    rejectToken(response, TokenValidation.Invalid.UNKNOWN_USER, start);
+                    return;
+                }
+
+                if (jwtUtil.isTokenValid(verifiedToken, userDetails)) {
+                    // Los permisos salen del rol actual del usuario, como sus roles, y no del claim del token
+                    Collection<? extends GrantedAuthority> authorities = userDetails.getAuthorities();
+                    setAuthentication(request, userDetails, authorities, UserRole.permissionsOf(authorities));
                 }
             }
+        }
 
-            filterChain.doFilter(request, response);
-        } catch (MalformedJwtException e) {
-            handleErrorToken(response, "Malformed JWT: " + e.getMessage());
-        } catch (JwtException e) {
-            handleErrorToken(response, "JWT Exception: " + e.getMessage());
+        long filterNanos = metrics.recordFilterPass(start);
+        if (metrics.isServerTimingEnabled()) {
+            response.addHeader(SERVER_TIMING, serverTiming(verificationNanos, filterNanos));
         }
+
+        filterChain.doFilter(request, response);
     }
 
     /**
-     * Verifica si la solicitud es una solicitud de autenticación.
+     * Omite el filtro en las rutas públicas de la tabla de rutas, entre ellas las de autenticación: su token,
+     * si lo hay, no se lee ni se verifica.
      *
      * @param request La solicitud HTTP entrante.
-     * @return true si la solicitud es para autenticación, false en caso contrario.
+     * @return true si la ruta es pública, false en caso contrario.
      */
-    private boolean isAuthRequest(HttpServletRequest request) {
-        return request.getServletPath().contains("/api/auth");
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return securityRoutes.resolve(request).permitAll();
     }
 
     /**
-     * Obtiene el token JWT de la solicitud HTTP.
+     * Obtiene la cabecera Authorization de la solicitud HTTP si contiene un token Bearer.
      *
      * @param request La solicitud HTTP entrante.
-     * @return El token JWT si está presente en la solicitud, null si no lo está.
+     * @return La cabecera completa (el token empieza tras el prefijo "Bearer "), null si no está presente.
      */
-    private String getTokenFromRequest(HttpServletRequest request) {
+    private String getBearerHeader(HttpServletRequest request) {
         String header = request.getHeader(HttpHeaders.AUTHORIZATION);
 
-        if (header != null && header.startsWith("Bearer ")) {
-            return header.replace("Bearer ", "");
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            return header;
         }
 
         return null;
     }
 
     /**
-     * Obtiene los detalles del usuario a partir del nombre de usuario.
+     * Construye el valor de la cabecera {@code Server-Timing} con la verificación del token y la pasada
+     * completa del filtro, en milisegundos con resolución de microsegundos.
      *
-     * @param username El nombre de usuario del usuario.
-     * @return Los detalles del usuario.
+     * @param verificationNanos La duración de la verificación del token.
+     * @param filterNanos       La duración de la pasada del filtro.
+     * @return El valor de la cabecera.
      */
-    private UserDetails getUserDetails(String username) {
-        return userDetailsService.loadUserByUsername(username);
+    private static String serverTiming(long verificationNanos, long filterNanos) {
+        return "jwt;dur=" + verificationNanos / 1_000 / 1_000.0 + ", auth;dur=" + filterNanos / 1_000 / 1_000.0;
     }
 
     /**
      * Establece la autenticación en el contexto de seguridad de Spring Security.
      *
      * @param request     La solicitud HTTP entrante.
-     * @param userDetails Los detalles del usuario autenticado.
+     * @param principal   El principal autenticado (detalles del usuario o principal construido desde el token).
+     * @param authorities Los roles asignados al principal.
+     * @param permissions La máscara de permisos del principal.
      */
-    private void setAuthentication(HttpServletRequest request, UserDetails userDetails) {
-        UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                userDetails,
-                null,
-                userDetails.getAuthorities()
-        );
-        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+    private void setAuthentication(HttpServletRequest request, Serializable principal, Collection<? extends GrantedAuthority> authorities, long permissions) {
+        JwtAuthentication authentication = new JwtAuthentication(principal, authorities, permissions);
+        authentication.setDetails(DETAILS_SOURCE.buildDetails(request));
+
+        SecurityContextHolder.getContext().setAuthentication(authentication);
     }
 
     /**
-     * Maneja un error relacionado con el token JWT y responde con un mensaje de error.
+     * Rechaza la solicitud por un token no válido: contabiliza el motivo y la pasada del filtro y responde con
+     * el cuerpo de error precalculado del motivo.
      *
      * @param response La respuesta HTTP saliente.
-     * @param error    El mensaje de error a incluir en la respuesta.
+     * @param reason   El motivo del rechazo.
+     * @param start    El instante de inicio de la pasada según {@link System#nanoTime()}.
      * @throws IOException Si ocurre un error de entrada/salida.
      */
-    private void handleErrorToken(HttpServletResponse response, String error) throws IOException {
+    private void rejectToken(HttpServletResponse response, TokenValidation.Invalid reason, long start) throws IOException {
+        // Los motivos detectados por JwtUtil ya se contabilizaron al validar el token
+        if (reason == TokenValidation.Invalid.REVOKED || reason == TokenValidation.Invalid.UNKNOWN_USER) {
+            metrics.tokenRejected(reason);
+        }
+        metrics.recordFilterPass(start);
+
+        byte[] body = reason.body();
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
         response.setContentType("application/json");
-        response.getWriter().write("{\"error\": \"" + error + "\"}");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
     }
 }
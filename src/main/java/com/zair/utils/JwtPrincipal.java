@@ -0,0 +1,49 @@
+package com.zair.utils;
+
+import com.zair.models.enums.UserRole;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.Serializable;
+import java.security.Principal;
+import java.util.Collection;
+
+/**
+ * Principal ligero construido únicamente a partir de los claims de un token verificado,
+ * utilizado en el modo de autenticación sin estado en lugar de la entidad User.
+ *
+ * @param id          El identificador del usuario.
+ * @param email       El correo electrónico del usuario, null si el token es compacto.
+ * @param role        El rol del usuario.
+ * @param permissions La máscara de permisos del token.
+ */
+public record JwtPrincipal(Long id, String email, UserRole role, long permissions) implements Principal, Serializable {
+
+    /**
+     * Crea el principal a partir de un token verificado.
+     *
+     * @param token El token verificado.
+     * @return El principal con los datos del token.
+     */
+    public static JwtPrincipal from(VerifiedToken token) {
+        return new JwtPrincipal(token.userId(), token.subject(), token.role(), token.permissions());
+    }
+
+    /**
+     * Obtiene los roles asignados al usuario.
+     *
+     * @return Una lista de los roles asignados al usuario.
+     */
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return role.getAuthorities();
+    }
+
+    /**
+     * Obtiene el nombre del principal.
+     *
+     * @return El correo electrónico del usuario, o su identificador si el token es compacto.
+     */
+    @Override
+    public String getName() {
+        return email != null ? email : String.valueOf(id);
+    }
+}
@@ -0,0 +1,72 @@
+package com.zair.utils;
+
+import com.zair.models.entities.User;
+import com.zair.repositories.ReactiveUserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Gestor de autenticación reactivo que valida el token JWT recibido como credencial.
+ * Es el equivalente reactivo de la lógica de {@link JwtAuthenticationFilter}.
+ */
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class JwtReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final JwtUtil jwtUtil;
+
+    private final VerifiedTokenCache tokenCache;
+
+    private final TokenRevocationRegistry revocationRegistry;
+
+    private final ReactiveUserRepository userRepository;
+
+    private final AuthMetrics authMetrics;
+
+    @Value("${jwt.stateless:false}")
+    private boolean statelessMode;
+
+    /**
+     * Autentica el token JWT contenido en las credenciales.
+     *
+     * @param authentication La autenticación cuyas credenciales son el token JWT.
+     * @return La autenticación con el principal y sus roles, o vacío si el token no es válido, está revocado o
+     * su usuario ya no es válido. Los rechazos no crean excepciones: la solicitud continúa como anónima.
+     */
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        String token = (String) authentication.getCredentials();
+
+        // La validación es puro cálculo en CPU (o un acierto de caché), se ejecuta en el event loop
+        if (!(tokenCache.validate(token) instanceof VerifiedToken verifiedToken)) {
+            return Mono.empty();
+        }
+
+        if (revocationRegistry.isRevoked(verifiedToken)) {
+            authMetrics.tokenRejected(TokenValidation.Invalid.REVOKED);
+            return Mono.empty();
+        }
+
+        if (statelessMode) {
+            // Modo sin estado: la autenticación se construye solo con los claims, sin acceder a la base de datos
+            JwtPrincipal principal = JwtPrincipal.from(verifiedToken);
+            return Mono.just(new JwtAuthentication(principal, principal.getAuthorities(), principal.permissions()));
+        }
+
+        // Los tokens compactos identifican al usuario por su identificador en lugar de su correo electrónico
+        Mono<User> found = verifiedToken.subject() != null
+                ? userRepository.findByEmail(verifiedToken.subject())
+                : userRepository.findById(verifiedToken.userId());
+
+        return found
+                .switchIfEmpty(Mono.fromRunnable(() -> authMetrics.tokenRejected(TokenValidation.Invalid.UNKNOWN_USER)))
+                .filter(user -> jwtUtil.isTokenValid(verifiedToken, user))
+                .map(user -> new JwtAuthentication(user, user.getAuthorities(), user.getRole().getPermissions()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.zair.utils;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.server.context.ServerSecurityContextRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repositorio del contexto de seguridad reactivo que lo reconstruye en cada solicitud a partir del token JWT
+ * de la cabecera Authorization. No guarda nada: la aplicación es sin estado.
+ */
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class JwtServerSecurityContextRepository implements ServerSecurityContextRepository {
+
+    private final JwtReactiveAuthenticationManager authenticationManager;
+
+    /**
+     * No se guarda el contexto de seguridad entre solicitudes.
+     *
+     * @param exchange El intercambio HTTP actual.
+     * @param context  El contexto de seguridad.
+     * @return Un Mono vacío.
+     */
+    @Override
+    public Mono<Void> save(ServerWebExchange exchange, SecurityContext context) {
+        return Mono.empty();
+    }
+
+    /**
+     * Carga el contexto de seguridad autenticando el token JWT de la solicitud.
+     *
+     * @param exchange El intercambio HTTP actual.
+     * @return El contexto de seguridad, o vacío si no hay token o no es válido (la solicitud continúa como anónima).
+     */
+    @Override
+    public Mono<SecurityContext> load(ServerWebExchange exchange) {
+        String token = getTokenFromRequest(exchange);
+
+        if (token == null) {
+            return Mono.empty();
+        }
+
+        return authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(token, token))
+                .<SecurityContext>map(SecurityContextImpl::new)
+                .onErrorResume(AuthenticationException.class, e -> Mono.empty());
+    }
+
+    /**
+     * Obtiene el token JWT de la solicitud HTTP.
+     *
+     * @param exchange El intercambio HTTP actual.
+     * @return El token JWT si está presente en la solicitud, null si no lo está.
+     */
+    private String getTokenFromRequest(ServerWebExchange exchange) {
+        String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (header != null && header.startsWith("Bearer ")) {
+            return header.substring("Bearer ".length());
+        }
+
+        return null;
+    }
+}
@@ -1,31 +1,96 @@
 package com.zair.utils;
 
 import com.zair.models.entities.User;
+import com.zair.models.enums.UserRole;
+import com.zair.models.projections.UserAuthView;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.MacAlgorithm;
+import io.jsonwebtoken.security.SecurityException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
 /**
  * Clase utilitaria para la generación y validación de tokens JWT.
+ * <p>
+ * Emite tokens con uno de dos esquemas de claims. El clásico lleva la cabecera {@code typ}, el correo
+ * electrónico como {@code sub} y los claims {@code user_id}, {@code role} y {@code perms} (la máscara de
+ * permisos del rol). El compacto (opcional, versión 1 en el claim {@code v}) omite {@code typ} y lleva el
+ * identificador del usuario como {@code sub} y el código del rol en {@code r}. La verificación acepta ambos, de
+ * modo que el esquema se puede cambiar sin invalidar los tokens vigentes; a los tokens sin {@code perms},
+ * compactos o emitidos antes de ese claim, se les asignan los permisos de su rol.
  */
 @Service
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String JWT_SECRET;
+    private static final String VERSION_CLAIM = "v";
 
-    @Value("${jwt.expiration}")
-    private Long JWT_EXPIRATION;
+    private static final String ROLE_CODE_CLAIM = "r";
+
+    private static final int COMPACT_VERSION = 1;
+
+    private static final String PERMISSIONS_CLAIM = "perms";
+
+    private final Long JWT_EXPIRATION;
+
+    private final SecretKey signingKey;
+
+    private final JwtParser jwtParser;
+
+    private final Hs256TokenCodec codec;
+
+    private final boolean fastCodecEnabled;
+
+    private final boolean compactClaims;
+
+    private final SigningKeyRing keyRing;
+
+    private final AuthMetrics metrics;
+
+    /**
+     * Construye la utilidad calculando una única vez la clave de firma y el parser de tokens.
+     *
+     * @param secret           El secreto compartido utilizado para firmar los tokens HS256.
+     * @param expiration       El tiempo de vida de los tokens en milisegundos.
+     * @param fastCodecEnabled Indica si se utiliza el códec HS256 especializado antes de recurrir a jjwt.
+     * @param compactClaims    Indica si los tokens nuevos se emiten con el esquema compacto.
+     * @param keyRing          El anillo de claves asimétricas, que firma los tokens nuevos cuando está habilitado.
+     * @param metrics          Las métricas en las que se registran la duración y los rechazos de cada verificación.
+     */
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") Long expiration,
+                   @Value("${jwt.fast-codec.enabled:false}") boolean fastCodecEnabled,
+                   @Value("${jwt.compact-claims.enabled:false}") boolean compactClaims,
+                   SigningKeyRing keyRing,
+                   AuthMetrics metrics) {
+        this.JWT_EXPIRATION = expiration;
+        this.compactClaims = compactClaims;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.keyRing = keyRing;
+        this.metrics = metrics;
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new KeyRingLocator())
+                .build();
+        // El códec solo conoce la forma HS256; con claves asimétricas los tokens sin kid (emitidos antes del
+        // cambio de algoritmo) se siguen verificando con jjwt hasta jwt.signing.legacy-hs256-until
+        this.codec = keyRing.isEnabled() ? null : new Hs256TokenCodec(signingKey);
+        // Sin el códec rápido habilitado, el códec solo rechaza sin HMAC los tokens de forma fija ya expirados
+        this.fastCodecEnabled = fastCodecEnabled && codec != null;
+    }
 
     /**
      * Genera un token JWT para el usuario proporcionado.
@@ -34,71 +99,168 @@ public class JwtUtil {
      * @return El token JWT generado.
      */
     public String generateToken(User user) {
+        // Identificador único que permite revocar el token individualmente; lleva el instante de emisión en
+        // milisegundos, que el claim iat redondea a segundos
+        long now = System.currentTimeMillis();
+        String tokenId = TokenIds.generate(now);
+
+        // El esquema compacto necesita el identificador, que solo tienen los usuarios ya guardados
+        boolean compact = compactClaims && user.getId() != null;
+
+        if (fastCodecEnabled) {
+            String token = compact
+                    ? codec.encodeCompact(user, tokenId, now, now + JWT_EXPIRATION)
+                    : codec.encode(user, tokenId, now, now + JWT_EXPIRATION);
+
+            if (token != null) {
+                return token;
+            }
+        }
+
         // Fecha de emisión y expiración
-        Date issuedAt = new Date(System.currentTimeMillis());
-        Date expiration = new Date(System.currentTimeMillis() + JWT_EXPIRATION);
+        Date issuedAt = new Date(now);
+        Date expiration = new Date(now + JWT_EXPIRATION);
 
-        // Claims adicionales
-        Map<String, Object> claims = generateClaims(user);
+        // Clave activa del anillo, si se firma con claves asimétricas
+        SigningKeyRing.ActiveKey activeKey = keyRing.activeKey();
+        String keyId = activeKey != null ? activeKey.keyId() : null;
 
-        // Clave de firma
-        SecretKey key = getKey();
-        MacAlgorithm signatureAlgorithm = Jwts.SIG.HS256;
+        JwtBuilder builder = Jwts.builder();
+
+        if (compact) {
+            builder.header()
+                    .keyId(keyId)
+                    .and()
+                    .claim(VERSION_CLAIM, COMPACT_VERSION)
+                    .subject(user.getId().toString())
+                    .claim(ROLE_CODE_CLAIM, user.getRole().getCode());
+        } else {
+            // Claims adicionales
+            Map<String, Object> claims = generateClaims(user);
 
-        return Jwts
-                .builder()
-                .header()
-                .type("JWT")
-                .and()
-                .subject(user.getEmail())
-                .claims(claims)
+            builder.header()
+                    .type("JWT")
+                    .keyId(keyId)
+                    .and()
+                    .subject(user.getEmail())
+                    .claims(claims);
+        }
+
+        builder.id(tokenId)
                 .issuedAt(issuedAt)
-                .expiration(expiration)
-                .signWith(key, signatureAlgorithm)
-                .compact();
+                .expiration(expiration);
+
+        if (activeKey != null) {
+            return builder.signWith(activeKey.key(), activeKey.algorithm()).compact();
+        }
+
+        // Algoritmo de firma
+        MacAlgorithm signatureAlgorithm = Jwts.SIG.HS256;
+
+        return builder.signWith(signingKey, signatureAlgorithm).compact();
     }
 
     /**
-     * Verifica si el token JWT proporcionado es válido para el usuario proporcionado.
+     * Verifica la firma y la expiración del token en una única pasada y extrae sus claims.
      *
-     * @param token       El token JWT a validar.
-     * @param userDetails Los detalles del usuario para validar el token.
-     * @return true si el token es válido, false en caso contrario.
+     * @param token El token JWT a verificar.
+     * @return El token verificado con el sujeto, user_id, rol, expiración, emisión e identificador.
+     * @throws io.jsonwebtoken.JwtException Si el token está mal formado, expirado o su firma no es válida.
      */
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        String username = getUsernameFromToken(token);
-        Boolean isExpired = isTokenExpired(token);
+    public VerifiedToken verifyToken(String token) {
+        TokenValidation result = validateToken(token);
+
+        if (result instanceof TokenValidation.Invalid invalid) {
+            throw invalid.toException();
+        }
 
-        return username.equals(userDetails.getUsername()) && !isExpired;
+        return (VerifiedToken) result;
     }
 
     /**
-     * Obtiene el nombre de usuario del token JWT proporcionado.
+     * Valida el token sin lanzar excepciones en los rechazos habituales.
+     * <p>
+     * Los tokens sin la estructura de un JWS se rechazan antes de cualquier operación criptográfica, y los de
+     * forma fija expirados los rechaza el códec HS256. Cada token se verifica con un único HMAC: con el códec
+     * rápido habilitado lo calcula el códec, que rechaza también las firmas inválidas; si no, jjwt, cuyas
+     * excepciones se traducen al motivo del rechazo.
      *
-     * @param token El token JWT del que se extraerá el nombre de usuario.
-     * @return El nombre de usuario extraído del token.
+     * @param token El token JWT a validar.
+     * @return El token verificado, o el motivo del rechazo.
      */
-    public String getUsernameFromToken(String token) {
-        return getClaim(token, Claims::getSubject);
+    public TokenValidation validateToken(String token) {
+        long start = System.nanoTime();
+
+        TokenValidation result = validate(token);
+        if (result instanceof TokenValidation.Invalid invalid) {
+            metrics.tokenRejected(invalid);
+        }
+
+        metrics.recordTokenVerification(start);
+
+        return result;
+    }
+
+    private TokenValidation validate(String token) {
+        if (!TokenValidation.isWellFormed(token, 0)) {
+            return TokenValidation.Invalid.MALFORMED;
+        }
+
+        if (codec != null) {
+            // Sin el códec rápido, el códec no calcula el HMAC y solo descarta tokens sin criptografía
+            TokenValidation result = codec.validate(token, fastCodecEnabled);
+            if (result != null) {
+                return result;
+            }
+        }
+
+        try {
+            Claims payload = jwtParser
+                    .parseSignedClaims(token)
+                    .getPayload();
+
+            return toVerifiedToken(payload);
+        } catch (ExpiredJwtException e) {
+            return TokenValidation.Invalid.EXPIRED;
+        } catch (SecurityException e) {
+            return TokenValidation.Invalid.BAD_SIGNATURE;
+        } catch (JwtException | IllegalArgumentException e) {
+            return TokenValidation.Invalid.MALFORMED;
+        }
     }
 
     /**
-     * Obtiene la fecha de expiración del token JWT proporcionado.
+     * Verifica si el token JWT proporcionado es válido para el usuario proporcionado.
      *
-     * @param token El token JWT del que se extraerá la fecha de expiración.
-     * @return La fecha de expiración del token.
+     * @param token       El token JWT a validar.
+     * @param userDetails Los detalles del usuario para validar el token.
+     * @return true si el token es válido, false en caso contrario.
      */
-    private Date getExpirationFromToken(String token) {
-        return getClaim(token, Claims::getExpiration);
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        return isTokenValid(verifyToken(token), userDetails);
     }
 
     /**
-     * Obtiene la clave de firma para la generación y validación de tokens JWT.
+     * Verifica si un token ya verificado pertenece al usuario proporcionado y no ha expirado. Los tokens
+     * compactos, sin correo electrónico, se comparan por el identificador del usuario.
      *
-     * @return La clave de firma.
+     * @param token       El token verificado.
+     * @param userDetails Los detalles del usuario para validar el token.
+     * @return true si el token es válido, false en caso contrario.
      */
-    private SecretKey getKey() {
-        return Keys.hmacShaKeyFor(JWT_SECRET.getBytes());
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        if (token.isExpired()) {
+            return false;
+        }
+        if (token.subject() != null) {
+            return token.subject().equals(userDetails.getUsername());
+        }
+
+        Long userId = userDetails instanceof UserAuthView view ? view.id()
+                : userDetails instanceof User user ? user.getId()
+                : null;
+
+        return token.userId().equals(userId);
     }
 
     /**
@@ -111,35 +273,97 @@ public class JwtUtil {
         Map<String, Object> claims = new HashMap<>();
         claims.put("user_id", user.getId());
         claims.put("role", user.getRole().name());
+        claims.put(PERMISSIONS_CLAIM, user.getRole().getPermissions());
 
         return claims;
     }
 
     /**
-     * Obtiene un claim específico del token JWT.
-     *
-     * @param token          El token JWT del que se extraerá el claim.
-     * @param claimsResolver El resolvedor de claims que se utilizará para obtener el claim específico.
-     * @param <T>            El tipo de dato del claim.
-     * @return El valor del claim especificado.
+     * Selecciona la clave de verificación según la cabecera del token: la clave pública del anillo indicada
+     * por el {@code kid}, o el secreto compartido para los tokens HS256 sin {@code kid}. jjwt rechaza cualquier
+     * combinación de algoritmo y tipo de clave que no corresponda.
      */
-    private <T> T getClaim(String token, Function<Claims, T> claimsResolver) {
-        Claims payload = Jwts.parser()
-                .verifyWith(getKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claimsResolver.apply(payload);
+    private final class KeyRingLocator extends LocatorAdapter<Key> {
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            String keyId = header.getKeyId();
+
+            if (keyId == null) {
+                // Los tokens sin kid se firmaron con el secreto compartido antes del cambio de algoritmo
+                return keyRing.acceptsLegacyHs256() ? signingKey : null;
+            }
+            return keyRing.verificationKey(keyId);
+        }
     }
 
     /**
-     * Verifica si el token JWT proporcionado ha expirado.
+     * Convierte los claims verificados en un objeto inmutable, según el esquema indicado por el claim {@code v}.
      *
-     * @param token El token JWT a verificar.
-     * @return true si el token ha expirado, false en caso contrario.
+     * @param payload Los claims del token ya verificado.
+     * @return El token verificado, o {@link TokenValidation.Invalid#MALFORMED} si faltan claims, el rol no existe
+     * o la versión del esquema no es conocida.
+     */
+    private TokenValidation toVerifiedToken(Claims payload) {
+        Date expiration = payload.getExpiration();
+        Date issuedAt = payload.getIssuedAt();
+
+        if (payload.getSubject() == null || expiration == null || issuedAt == null) {
+            return TokenValidation.Invalid.MALFORMED;
+        }
+
+        if (payload.containsKey(VERSION_CLAIM)) {
+            return toCompactVerifiedToken(payload, expiration, issuedAt);
+        }
+
+        String role = payload.get("role", String.class);
+        if (role == null) {
+            return TokenValidation.Invalid.MALFORMED;
+        }
+
+        try {
+            UserRole userRole = UserRole.valueOf(role);
+            Long permissions = payload.get(PERMISSIONS_CLAIM, Long.class);
+
+            return new VerifiedToken(
+                    payload.getSubject(),
+                    payload.get("user_id", Long.class),
+                    userRole,
+                    permissions != null ? permissions : userRole.getPermissions(),
+                    expiration.toInstant(),
+                    issuedAt.toInstant(),
+                    payload.getId()
+            );
+        } catch (IllegalArgumentException e) {
+            return TokenValidation.Invalid.MALFORMED;
+        }
+    }
+
+    /**
+     * Convierte los claims de un token compacto: el sujeto es el identificador del usuario y {@code r} el código
+     * de su rol.
      */
-    private Boolean isTokenExpired(String token) {
-        return getExpirationFromToken(token).before(new Date());
+    private TokenValidation toCompactVerifiedToken(Claims payload, Date expiration, Date issuedAt) {
+        Integer version = payload.get(VERSION_CLAIM, Integer.class);
+        Integer roleCode = payload.get(ROLE_CODE_CLAIM, Integer.class);
+        UserRole role = roleCode != null ? UserRole.fromCode(roleCode) : null;
+
+        if (version == null || version != COMPACT_VERSION || role == null) {
+            return TokenValidation.Invalid.MALFORMED;
+        }
+
+        try {
+            return new VerifiedToken(
+                    null,
+                    Long.valueOf(payload.getSubject()),
+                    role,
+                    role.getPermissions(),
+                    expiration.toInstant(),
+                    issuedAt.toInstant(),
+                    payload.getId()
+            );
+        } catch (NumberFormatException e) {
+            return TokenValidation.Invalid.MALFORMED;
+        }
     }
 }
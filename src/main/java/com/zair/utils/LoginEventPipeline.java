@@ -0,0 +1,418 @@
+package com.zair.utils;
+
+import com.zair.models.entities.LoginEvent;
+import com.zair.repositories.LoginEventStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Canal asíncrono de eventos de inicio de sesión hacia la base de datos.
+ * <p>
+ * Cada inicio de sesión deja su resultado en un búfer circular acotado y sin bloqueos (varios productores, un
+ * consumidor): el productor reserva una posición con un CAS, copia los campos en los arrays preasignados y la
+ * publica con la secuencia de la posición. Un único hilo de escritura vacía el búfer en lotes JDBC cuando el lote
+ * alcanza {@code auth.login-events.batch-size} o cuando su evento más antiguo supera
+ * {@code auth.login-events.flush-interval}. Un almacén lento solo retrasa a ese hilo, nunca al inicio de sesión.
+ * <p>
+ * Cuando el búfer se llena se aplica {@code auth.login-events.overflow}:
+ * <ul>
+ *     <li>{@code DROP}: se descarta el evento nuevo.</li>
+ *     <li>{@code SAMPLE}: a partir de la mitad de la capacidad solo se conserva uno de cada
+ *     {@code auth.login-events.sample-rate} eventos, y con el búfer lleno se descarta.</li>
+ *     <li>{@code BLOCK}: el inicio de sesión espera hueco hasta {@code auth.login-events.block-timeout} y después
+ *     descarta el evento; es la única política que puede añadir latencia al inicio de sesión.</li>
+ * </ul>
+ * Los eventos descartados, escritos y perdidos por un error del almacén, los pendientes y el retraso del más
+ * antiguo se publican en Micrometer desde {@code AuthMeterBinder}.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class LoginEventPipeline {
+
+    /**
+     * Política ante un búfer lleno.
+     */
+    public enum OverflowPolicy {
+        DROP,
+        SAMPLE,
+        BLOCK
+    }
+
+    private static final int MAX_EMAIL_LENGTH = 255;
+
+    private static final int MAX_IP_LENGTH = 45;
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final LoginEventStore store;
+
+    private final boolean enabled;
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final int batchSize;
+
+    private final long flushIntervalNanos;
+
+    private final OverflowPolicy overflow;
+
+    private final int sampleRate;
+
+    private final long blockTimeoutNanos;
+
+    /**
+     * Secuencia de cada posición: igual a la posición absoluta si está libre para esa vuelta del búfer, y a la
+     * posición más uno cuando el evento está publicado.
+     */
+    private final AtomicLongArray sequences;
+
+    private final String[] emails;
+
+    private final String[] ipAddresses;
+
+    private final long[] userIds;
+
+    private final boolean[] successes;
+
+    private final long[] occurredAt;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Siguiente posición a consumir; solo la escribe el hilo de escritura.
+     */
+    private volatile long head;
+
+    /**
+     * Instante en milisegundos del evento más antiguo del lote en curso, 0 si no hay lote.
+     */
+    private volatile long batchOldestMillis;
+
+    private volatile boolean running = true;
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder written = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final LongAdder batches = new LongAdder();
+
+    private final LongAdder writeNanos = new LongAdder();
+
+    private final Thread writer;
+
+    /**
+     * Construye el canal y arranca su hilo de escritura.
+     *
+     * @param store         El almacén de eventos.
+     * @param enabled       Indica si se registran los eventos.
+     * @param capacity      La capacidad del búfer, redondeada a la siguiente potencia de dos.
+     * @param batchSize     El número máximo de eventos de cada lote.
+     * @param flushInterval La espera máxima de un evento antes de escribir un lote incompleto.
+     * @param overflow      La política ante un búfer lleno.
+     * @param sampleRate    Con {@code SAMPLE}, se conserva uno de cada tantos eventos a partir de la mitad de la
+     *                      capacidad.
+     * @param blockTimeout  Con {@code BLOCK}, la espera máxima de un inicio de sesión.
+     */
+    public LoginEventPipeline(LoginEventStore store,
+                              @Value("${auth.login-events.enabled:true}") boolean enabled,
+                              @Value("${auth.login-events.capacity:8192}") int capacity,
+                              @Value("${auth.login-events.batch-size:256}") int batchSize,
+                              @Value("${auth.login-events.flush-interval:1s}") Duration flushInterval,
+                              @Value("${auth.login-events.overflow:DROP}") OverflowPolicy overflow,
+                              @Value("${auth.login-events.sample-rate:10}") int sampleRate,
+                              @Value("${auth.login-events.block-timeout:50ms}") Duration blockTimeout) {
+        if (capacity < 2 || batchSize < 1 || sampleRate < 1) {
+            throw new IllegalArgumentException("Invalid login event pipeline settings: capacity " + capacity
+                    + ", batch size " + batchSize + ", sample rate " + sampleRate);
+        }
+
+        this.store = store;
+        this.enabled = enabled;
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.batchSize = Math.min(batchSize, this.capacity);
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflow = overflow;
+        this.sampleRate = sampleRate;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.emails = new String[this.capacity];
+        this.ipAddresses = new String[this.capacity];
+        this.userIds = new long[this.capacity];
+        this.successes = new boolean[this.capacity];
+        this.occurredAt = new long[this.capacity];
+
+        this.writer = enabled ? new CustomizableThreadFactory("login-event-writer-").newThread(this::drain) : null;
+        if (writer != null) {
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    /**
+     * Registra el resultado de un inicio de sesión sin esperar a la base de datos.
+     *
+     * @param email     El correo electrónico del intento.
+     * @param userId    El identificador del usuario, o null si el intento falló.
+     * @param success   Indica si el inicio de sesión fue correcto.
+     * @param ipAddress La dirección IP del cliente.
+     */
+    public void record(String email, Long userId, boolean success, String ipAddress) {
+        if (!enabled) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long id = userId != null ? userId : 0;
+
+        if (overflow == OverflowPolicy.SAMPLE && getPendingCount() >= capacity / 2
+                && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            dropped.increment();
+            return;
+        }
+        if (offer(email, id, success, ipAddress, now)) {
+            return;
+        }
+
+        if (overflow == OverflowPolicy.BLOCK) {
+            long deadline = System.nanoTime() + blockTimeoutNanos;
+            do {
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                if (offer(email, id, success, ipAddress, now)) {
+                    return;
+                }
+            } while (System.nanoTime() - deadline < 0);
+        }
+
+        dropped.increment();
+    }
+
+    /**
+     * Obtiene el número de eventos en el búfer.
+     *
+     * @return Los eventos registrados que el hilo de escritura aún no ha tomado.
+     */
+    public long getPendingCount() {
+        return Math.max(0, tail.get() - head);
+    }
+
+    /**
+     * Obtiene la antigüedad del evento más antiguo aún no escrito, en el lote en curso o en el búfer.
+     *
+     * @return La antigüedad en milisegundos, 0 si no hay eventos pendientes.
+     */
+    public long getLagMillis() {
+        long oldest = batchOldestMillis;
+
+        if (oldest == 0) {
+            long position = head;
+            int index = (int) position & mask;
+            if (sequences.get(index) == position + 1) {
+                oldest = occurredAt[index];
+            }
+        }
+
+        return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
+    }
+
+    /**
+     * Obtiene el número de eventos descartados por la política de desbordamiento.
+     *
+     * @return El número de eventos descartados.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Obtiene el número de eventos escritos en el almacén.
+     *
+     * @return El número de eventos escritos.
+     */
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /**
+     * Obtiene el número de eventos perdidos porque el almacén rechazó su lote.
+     *
+     * @return El número de eventos perdidos.
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Obtiene el número de lotes enviados al almacén.
+     *
+     * @return El número de lotes.
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Obtiene el tiempo total de escritura de los lotes.
+     *
+     * @return El tiempo total de escritura.
+     */
+    public Duration getTotalWriteTime() {
+        return Duration.ofNanos(writeNanos.sum());
+    }
+
+    /**
+     * Detiene el hilo de escritura al cerrar el contexto de la aplicación, tras escribir los eventos pendientes.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * Reserva la siguiente posición libre y publica el evento en ella.
+     *
+     * @return true si el evento se ha publicado, false si el búfer está lleno.
+     */
+    private boolean offer(String email, long userId, boolean success, String ipAddress, long now) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long sequence = sequences.get(index);
+
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    emails[index] = truncate(email != null ? email : "", MAX_EMAIL_LENGTH);
+                    ipAddresses[index] = ipAddress != null ? truncate(ipAddress, MAX_IP_LENGTH) : null;
+                    userIds[index] = userId;
+                    successes[index] = success;
+                    occurredAt[index] = now;
+                    sequences.lazySet(index, position + 1);
+
+                    // Despierta al hilo de escritura en cuanto hay un lote completo
+                    if (position + 1 - head == batchSize) {
+                        LockSupport.unpark(writer);
+                    }
+                    return true;
+                }
+            } else if (sequence < position) {
+                // La posición aún contiene el evento de la vuelta anterior
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Toma el siguiente evento publicado y libera su posición para la siguiente vuelta del búfer.
+     *
+     * @return El evento, o null si el búfer está vacío.
+     */
+    private LoginEvent poll() {
+        long position = head;
+        int index = (int) position & mask;
+
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+
+        long userId = userIds[index];
+        LoginEvent event = new LoginEvent(null, emails[index], userId != 0 ? userId : null, successes[index],
+                ipAddresses[index], Instant.ofEpochMilli(occurredAt[index]));
+        emails[index] = null;
+        ipAddresses[index] = null;
+        sequences.lazySet(index, position + capacity);
+        head = position + 1;
+
+        return event;
+    }
+
+    /**
+     * Bucle del hilo de escritura: forma lotes con los eventos del búfer y los escribe por tamaño o por tiempo.
+     * Al detenerse escribe lo que queda en el búfer.
+     */
+    private void drain() {
+        List<LoginEvent> batch = new ArrayList<>(batchSize);
+        long deadline = 0;
+
+        while (true) {
+            boolean stopping = !running;
+            LoginEvent event = poll();
+
+            if (event != null) {
+                if (batch.isEmpty()) {
+                    deadline = System.nanoTime() + flushIntervalNanos;
+                    batchOldestMillis = event.getOccurredAt().toEpochMilli();
+                }
+                batch.add(event);
+                if (batch.size() >= batchSize) {
+                    flush(batch);
+                }
+                continue;
+            }
+
+            if (!batch.isEmpty() && (stopping || System.nanoTime() - deadline >= 0)) {
+                flush(batch);
+                continue;
+            }
+            if (stopping) {
+                return;
+            }
+
+            LockSupport.parkNanos(batch.isEmpty() ? flushIntervalNanos : deadline - System.nanoTime());
+        }
+    }
+
+    /**
+     * Escribe un lote. Si el almacén falla, el lote se pierde y se contabiliza: reintentarlo retendría el búfer
+     * y acabaría descartando los eventos nuevos.
+     */
+    private void flush(List<LoginEvent> batch) {
+        long start = System.nanoTime();
+
+        try {
+            store.saveAll(batch);
+            written.add(batch.size());
+        } catch (RuntimeException e) {
+            failed.add(batch.size());
+            log.warn("Could not write {} login events", batch.size(), e);
+        } finally {
+            writeNanos.add(System.nanoTime() - start);
+            batches.increment();
+            batch.clear();
+            batchOldestMillis = 0;
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
@@ -0,0 +1,147 @@
+package com.zair.utils;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitador de intentos de inicio de sesión por IP del cliente y de intentos fallidos por correo electrónico,
+ * que se comprueba antes de encolar el trabajo de BCrypt.
+ * <p>
+ * Sin él, cada {@code POST /api/auth/login} cuesta un cálculo completo de BCrypt, por lo que una avalancha de
+ * solicitudes baratas agota la CPU. La cuota por IP frena a un cliente que prueba muchas cuentas, y los fallos
+ * contra una cuenta se limitan en dos dimensiones: una cuota estricta por el par (correo, IP), que frena la
+ * fuerza bruta desde un cliente sin que otra IP pueda bloquear a la víctima, y una cuota más holgada solo por
+ * correo, que frena la pulverización de contraseñas contra una cuenta desde muchas direcciones. Un inicio de
+ * sesión correcto devuelve sus tokens con {@link #loginSucceeded}, de modo que solo cuentan los fallos. Cada
+ * dimensión es una {@link RateLimitTable} de tamaño fijo: la comprobación no bloquea, no asigna memoria y la
+ * memoria no crece con el número de clientes.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final boolean enabled;
+
+    private final RateLimitTable emailLimits;
+
+    private final RateLimitTable emailGlobalLimits;
+
+    private final RateLimitTable ipLimits;
+
+    private final LongSupplier clock;
+
+    private final long origin;
+
+    private final AuthMetrics metrics;
+
+    /**
+     * Construye el limitador.
+     *
+     * @param enabled           Indica si se limitan los intentos.
+     * @param slots             El número de cubetas de cada dimensión.
+     * @param emailLimit        Los intentos fallidos admitidos por correo electrónico e IP en cada periodo.
+     * @param emailPeriod       El periodo de la cuota por correo electrónico e IP.
+     * @param emailGlobalLimit  Los intentos fallidos admitidos por correo electrónico desde cualquier IP en cada
+     *                          periodo.
+     * @param emailGlobalPeriod El periodo de la cuota por correo electrónico.
+     * @param ipLimit           Los intentos admitidos por IP en cada periodo.
+     * @param ipPeriod          El periodo de la cuota por IP.
+     * @param metrics           Las métricas en las que se contabilizan los intentos rechazados.
+     */
+    @Autowired
+    public LoginRateLimiter(@Value("${auth.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${auth.rate-limit.slots:65536}") int slots,
+                            @Value("${auth.rate-limit.email.limit:10}") int emailLimit,
+                            @Value("${auth.rate-limit.email.period:5m}") Duration emailPeriod,
+                            @Value("${auth.rate-limit.email-global.limit:50}") int emailGlobalLimit,
+                            @Value("${auth.rate-limit.email-global.period:15m}") Duration emailGlobalPeriod,
+                            @Value("${auth.rate-limit.ip.limit:100}") int ipLimit,
+                            @Value("${auth.rate-limit.ip.period:1m}") Duration ipPeriod,
+                            AuthMetrics metrics) {
+        this(enabled, slots, emailLimit, emailPeriod, emailGlobalLimit, emailGlobalPeriod, ipLimit, ipPeriod, metrics,
+                System::nanoTime);
+    }
+
+    LoginRateLimiter(boolean enabled, int slots, int emailLimit, Duration emailPeriod, int emailGlobalLimit,
+                     Duration emailGlobalPeriod, int ipLimit, Duration ipPeriod, AuthMetrics metrics, LongSupplier clock) {
+        SecureRandom random = new SecureRandom();
+
+        this.enabled = enabled;
+        this.emailLimits = new RateLimitTable(slots, emailLimit, emailPeriod.toNanos(), random.nextLong());
+        this.emailGlobalLimits = new RateLimitTable(slots, emailGlobalLimit, emailGlobalPeriod.toNanos(), random.nextLong());
+        this.ipLimits = new RateLimitTable(slots, ipLimit, ipPeriod.toNanos(), random.nextLong());
+        this.metrics = metrics;
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+    }
+
+    /**
+     * Consume un intento de la IP y, si queda cuota, del par correo electrónico e IP y del correo electrónico.
+     *
+     * @param email    El correo electrónico del intento.
+     * @param clientIp La dirección IP del cliente.
+     * @return 0 si el intento se admite, o los milisegundos que el cliente debe esperar.
+     */
+    public long tryAcquire(String email, String clientIp) {
+        if (!enabled) {
+            return 0;
+        }
+
+        long now = clock.getAsLong() - origin;
+
+        long wait = ipLimits.tryAcquire(clientIp != null ? clientIp : "", now);
+        if (wait > 0) {
+            metrics.loginThrottledByIp();
+            return toMillis(wait);
+        }
+
+        String normalized = normalize(email);
+        wait = emailLimits.tryAcquire(normalized, clientIp, now);
+        if (wait > 0) {
+            metrics.loginThrottledByEmail();
+            return toMillis(wait);
+        }
+
+        wait = emailGlobalLimits.tryAcquire(normalized, now);
+        if (wait > 0) {
+            // El intento no llega a BCrypt: no cuenta como fallo del par correo electrónico e IP
+            emailLimits.release(normalized, clientIp);
+            metrics.loginThrottledByEmail();
+            return toMillis(wait);
+        }
+
+        return 0;
+    }
+
+    /**
+     * Devuelve el intento consumido por un inicio de sesión correcto a las cuotas del par correo electrónico e
+     * IP y del correo electrónico, que así solo cuentan los fallos.
+     *
+     * @param email    El correo electrónico del intento.
+     * @param clientIp La dirección IP del cliente.
+     */
+    public void loginSucceeded(String email, String clientIp) {
+        if (enabled) {
+            String normalized = normalize(email);
+            emailLimits.release(normalized, clientIp);
+            emailGlobalLimits.release(normalized, null);
+        }
+    }
+
+    private static String normalize(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Convierte una espera en milisegundos, redondeando hacia arriba para no devolver nunca 0.
+     */
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos + 999_999);
+    }
+}
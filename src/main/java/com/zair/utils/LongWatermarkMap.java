@@ -0,0 +1,162 @@
+package com.zair.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Mapa primitivo {@code long -> long} de direccionamiento abierto que solo permite subir los valores.
+ * <p>
+ * Las lecturas no bloquean ni asignan memoria: sondean dos {@link AtomicLongArray} de la tabla vigente.
+ * Las escrituras son poco frecuentes y se serializan; al superar el factor de carga se construye una tabla
+ * del doble de tamaño y se publica de forma atómica. El valor de una ranura se escribe antes que su clave,
+ * por lo que un lector que ve la clave también ve su valor.
+ */
+final class LongWatermarkMap {
+
+    /**
+     * Valor devuelto para las claves ausentes.
+     */
+    static final long ABSENT = Long.MIN_VALUE;
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private volatile Table table;
+
+    private int size;
+
+    /**
+     * Construye el mapa.
+     *
+     * @param expectedSize El número de claves esperado.
+     */
+    LongWatermarkMap(int expectedSize) {
+        this.table = new Table(capacityFor(expectedSize));
+    }
+
+    /**
+     * Obtiene el valor asociado a una clave.
+     *
+     * @param key La clave (distinta de {@link Long#MIN_VALUE}).
+     * @return El valor, o {@link #ABSENT} si la clave no está presente.
+     */
+    long get(long key) {
+        Table t = table;
+        int mask = t.mask;
+
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            long current = t.keys.get(i);
+            if (current == key) {
+                return t.values.get(i);
+            }
+            if (current == EMPTY) {
+                return ABSENT;
+            }
+        }
+    }
+
+    /**
+     * Asocia a la clave el mayor entre su valor actual y el proporcionado.
+     *
+     * @param key   La clave (distinta de {@link Long#MIN_VALUE}).
+     * @param value El nuevo valor.
+     */
+    synchronized void raise(long key, long value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Unsupported key: " + key);
+        }
+
+        if (insert(table, key, value)) {
+            size++;
+            if (size * 2 > table.keys.length()) {
+                table = resize(table);
+            }
+        }
+    }
+
+    /**
+     * Obtiene el número de claves presentes.
+     *
+     * @return El número de claves.
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Inserta o sube el valor de una clave en la tabla.
+     *
+     * @return true si la clave es nueva, false si ya existía.
+     */
+    private static boolean insert(Table t, long key, long value) {
+        int mask = t.mask;
+
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            long current = t.keys.get(i);
+            if (current == key) {
+                if (value > t.values.get(i)) {
+                    t.values.set(i, value);
+                }
+                return false;
+            }
+            if (current == EMPTY) {
+                t.values.set(i, value);
+                t.keys.set(i, key);
+                return true;
+            }
+        }
+    }
+
+    private static Table resize(Table old) {
+        Table grown = new Table(old.keys.length() * 2);
+
+        for (int i = 0; i < old.keys.length(); i++) {
+            long key = old.keys.get(i);
+            if (key != EMPTY) {
+                insert(grown, key, old.values.get(i));
+            }
+        }
+
+        return grown;
+    }
+
+    private static int slot(long key, int mask) {
+        // Mezcla de bits (fmix64 de MurmurHash3) para dispersar identificadores consecutivos
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+
+        return (int) h & mask;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2 && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Tabla de claves y valores de capacidad potencia de dos.
+     */
+    private static final class Table {
+
+        private final AtomicLongArray keys;
+
+        private final AtomicLongArray values;
+
+        private final int mask;
+
+        private Table(int capacity) {
+            this.keys = new AtomicLongArray(capacity);
+            this.values = new AtomicLongArray(capacity);
+            this.mask = capacity - 1;
+
+            for (int i = 0; i < capacity; i++) {
+                keys.set(i, EMPTY);
+            }
+        }
+    }
+}
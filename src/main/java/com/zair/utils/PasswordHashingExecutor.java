@@ -0,0 +1,178 @@
+package com.zair.utils;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ejecutor dedicado y acotado para el trabajo de BCrypt (inicio de sesión y registro).
+ * <p>
+ * Aísla el hashing de contraseñas de los hilos de Tomcat: un pico de inicios de sesión solo puede ocupar
+ * este pool y su cola, nunca los hilos que atienden al resto de endpoints. Cuando la cola está llena la
+ * tarea se rechaza inmediatamente con {@link RejectedExecutionException} para que el llamador responda 503.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    private final Duration retryAfter;
+
+    private final LongAdder waitNanos = new LongAdder();
+
+    private final LongAdder hashNanos = new LongAdder();
+
+    private final LongAdder completed = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Construye el ejecutor.
+     *
+     * @param threads       El número de hilos (0 para usar el número de procesadores).
+     * @param queueCapacity La capacidad máxima de la cola de espera.
+     * @param retryAfter    El tiempo sugerido al cliente antes de reintentar cuando la cola está llena.
+     */
+    public PasswordHashingExecutor(@Value("${auth.hashing.threads:0}") int threads,
+                                   @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${auth.hashing.retry-after:1s}") Duration retryAfter) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Encola una tarea de hashing de contraseñas.
+     *
+     * @param task La tarea a ejecutar.
+     * @param <T>  El tipo del resultado.
+     * @return Un futuro que se completa con el resultado o la excepción de la tarea.
+     * @throws RejectedExecutionException Si la cola de hashing está saturada.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long enqueuedAt = System.nanoTime();
+
+        try {
+            executor.execute(() -> {
+                long startedAt = System.nanoTime();
+                waitNanos.add(startedAt - enqueuedAt);
+
+                try {
+                    future.complete(task.call());
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    hashNanos.add(System.nanoTime() - startedAt);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+
+        return future;
+    }
+
+    /**
+     * Obtiene el tiempo sugerido al cliente antes de reintentar.
+     *
+     * @return El tiempo de espera sugerido.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Obtiene el tiempo sugerido antes de reintentar en segundos enteros, como exige la cabecera
+     * {@code Retry-After}. Se redondea hacia arriba y es al menos 1: un 0 haría que el cliente reintentara al
+     * instante.
+     *
+     * @return El tiempo de espera sugerido en segundos.
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+
+    /**
+     * Obtiene el número de tareas en espera.
+     *
+     * @return La profundidad actual de la cola.
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Obtiene el número de hilos ejecutando tareas.
+     *
+     * @return El número de hilos activos.
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Obtiene el número de tareas completadas.
+     *
+     * @return El número de tareas completadas.
+     */
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    /**
+     * Obtiene el número de tareas rechazadas por saturación.
+     *
+     * @return El número de tareas rechazadas.
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Obtiene el tiempo total que las tareas han pasado en cola.
+     *
+     * @return El tiempo total de espera.
+     */
+    public Duration getTotalWaitTime() {
+        return Duration.ofNanos(waitNanos.sum());
+    }
+
+    /**
+     * Obtiene el tiempo total de ejecución de las tareas.
+     *
+     * @return El tiempo total de hashing.
+     */
+    public Duration getTotalHashTime() {
+        return Duration.ofNanos(hashNanos.sum());
+    }
+
+    /**
+     * Detiene el ejecutor al cerrar el contexto de la aplicación.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,138 @@
+package com.zair.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tabla de cubetas de tokens sin bloqueos y de tamaño fijo, indexada por el hash de una clave.
+ * <p>
+ * Cada ranura es una cubeta independiente que se actualiza con una única operación CAS, por lo que las
+ * solicitudes de claves distintas no compiten entre sí. La cubeta se representa con el algoritmo GCRA
+ * (equivalente a una cubeta de tokens): la ranura guarda el instante teórico de llegada de la siguiente
+ * solicitud conforme, y la solicitud se admite si no llega antes de ese instante menos la tolerancia de
+ * ráfaga. Una ranura inactiva queda en el pasado, que equivale a una cubeta llena, de modo que no hace falta
+ * desalojarla: la memoria es siempre de 8 bytes por ranura.
+ * <p>
+ * Dos claves pueden compartir ranura. El hash usa una semilla aleatoria por instancia, de modo que un
+ * atacante no puede elegir una clave que colisione con la de otro usuario.
+ */
+final class RateLimitTable {
+
+    private final AtomicLongArray slots;
+
+    private final int mask;
+
+    private final long seed;
+
+    private final long emissionInterval;
+
+    private final long burstTolerance;
+
+    /**
+     * Construye la tabla.
+     *
+     * @param slots       El número de ranuras, redondeado a la siguiente potencia de dos.
+     * @param limit       El número de solicitudes admitidas por periodo, también admitidas en ráfaga.
+     * @param periodNanos La duración del periodo en nanosegundos.
+     * @param seed        La semilla del hash.
+     */
+    RateLimitTable(int slots, int limit, long periodNanos, long seed) {
+        if (limit < 1 || periodNanos < 1) {
+            throw new IllegalArgumentException("Rate limit must allow at least one request per period");
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+        this.slots = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        this.seed = seed;
+        this.emissionInterval = Math.max(1, periodNanos / limit);
+        this.burstTolerance = emissionInterval * (limit - 1);
+    }
+
+    /**
+     * Intenta consumir un token de la cubeta de la clave.
+     *
+     * @param key La clave.
+     * @param now El instante actual en nanosegundos, monotónico y no negativo.
+     * @return 0 si la solicitud se admite, o los nanosegundos que faltan para que se admita la siguiente.
+     */
+    long tryAcquire(String key, long now) {
+        return tryAcquire(key, null, now);
+    }
+
+    /**
+     * Intenta consumir un token de la cubeta de una clave compuesta, sin concatenar sus partes.
+     *
+     * @param key       La primera parte de la clave.
+     * @param qualifier La segunda parte de la clave, o null.
+     * @param now       El instante actual en nanosegundos, monotónico y no negativo.
+     * @return 0 si la solicitud se admite, o los nanosegundos que faltan para que se admita la siguiente.
+     */
+    long tryAcquire(String key, String qualifier, long now) {
+        int slot = (int) hash(key, qualifier) & mask;
+
+        while (true) {
+            long arrival = slots.get(slot);
+            long allowedAt = arrival - burstTolerance;
+
+            if (now < allowedAt) {
+                return allowedAt - now;
+            }
+            if (slots.weakCompareAndSetVolatile(slot, arrival, Math.max(arrival, now) + emissionInterval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Devuelve a la cubeta de una clave compuesta un token consumido con {@link #tryAcquire(String, String, long)}.
+     *
+     * @param key       La primera parte de la clave.
+     * @param qualifier La segunda parte de la clave, o null.
+     */
+    void release(String key, String qualifier) {
+        int slot = (int) hash(key, qualifier) & mask;
+
+        while (true) {
+            long arrival = slots.get(slot);
+            if (slots.weakCompareAndSetVolatile(slot, arrival, arrival - emissionInterval)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Obtiene el número de ranuras de la tabla.
+     *
+     * @return El número de ranuras.
+     */
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Hash de 64 bits con semilla (FNV-1a seguido de fmix64 de MurmurHash3) calculado sobre los caracteres de
+     * las dos partes, separadas por un carácter nulo.
+     */
+    private long hash(String value, String qualifier) {
+        long h = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        if (qualifier != null) {
+            h *= 0x100000001b3L;
+            for (int i = 0; i < qualifier.length(); i++) {
+                h ^= qualifier.charAt(i);
+                h *= 0x100000001b3L;
+            }
+        }
+
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+
+        return h;
+    }
+}
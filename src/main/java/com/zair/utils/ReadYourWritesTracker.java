@@ -0,0 +1,92 @@
+package com.zair.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zair.configuration.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Garantiza que un usuario recién escrito se lea de la base de datos principal mientras la réplica puede no
+ * haber recibido aún la escritura.
+ * <p>
+ * Las escrituras de esta instancia (registro y actualización de contraseña) se recuerdan durante el retraso
+ * máximo de replicación, y las búsquedas de esos usuarios se fuerzan a la principal. Como otra instancia puede
+ * haber registrado al usuario, una búsqueda que no lo encuentra en la réplica se repite en la principal antes
+ * de darlo por inexistente. Sin réplica configurada, las búsquedas se ejecutan sin más.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Boolean> recentWrites;
+
+    /**
+     * Construye el registro de escrituras recientes.
+     *
+     * @param replicaUrl La URL de la réplica, vacía si no hay réplica.
+     * @param maxLag     El retraso máximo de replicación.
+     * @param maxUsers   El número máximo de usuarios recordados.
+     */
+    public ReadYourWritesTracker(@Value("${auth.datasource.replica.url:}") String replicaUrl,
+                                 @Value("${auth.datasource.replica.max-lag:5s}") Duration maxLag,
+                                 @Value("${auth.datasource.replica.max-tracked-writes:100000}") long maxUsers) {
+        this.recentWrites = replicaUrl.isEmpty()
+                ? null
+                : Caffeine.newBuilder()
+                        .expireAfterWrite(maxLag)
+                        .maximumSize(maxUsers)
+                        .build();
+    }
+
+    /**
+     * Recuerda que se ha escrito el usuario, para leerlo de la principal durante el retraso de replicación.
+     *
+     * @param email El correo electrónico del usuario.
+     */
+    public void recordWrite(String email) {
+        if (recentWrites != null) {
+            recentWrites.put(email, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Ejecuta una búsqueda de usuario en la réplica, o en la principal si el usuario se escribió hace menos del
+     * retraso de replicación o si la réplica no lo encuentra.
+     *
+     * @param email El correo electrónico del usuario.
+     * @param query La búsqueda, que abre su propia transacción de solo lectura: dentro de una transacción ya
+     *              iniciada la conexión está fijada y no cambia de base de datos.
+     * @param <T>   El tipo del resultado.
+     * @return El resultado de la búsqueda.
+     */
+    public <T> Optional<T> read(String email, Supplier<Optional<T>> query) {
+        if (recentWrites == null) {
+            return query.get();
+        }
+        if (recentWrites.getIfPresent(email) != null) {
+            return ReplicaRoutingDataSource.onPrimary(query);
+        }
+
+        Optional<T> result = query.get();
+
+        return result.isPresent() ? result : ReplicaRoutingDataSource.onPrimary(query);
+    }
+
+    /**
+     * Ejecuta una búsqueda de usuario que no se indexa por correo electrónico, como la búsqueda por identificador
+     * de los tokens compactos: en la réplica, y en la principal si la réplica no lo encuentra.
+     *
+     * @param query La búsqueda, que abre su propia transacción de solo lectura.
+     * @param <T>   El tipo del resultado.
+     * @return El resultado de la búsqueda.
+     */
+    public <T> Optional<T> read(Supplier<Optional<T>> query) {
+        Optional<T> result = query.get();
+
+        return result.isPresent() || recentWrites == null ? result : ReplicaRoutingDataSource.onPrimary(query);
+    }
+}
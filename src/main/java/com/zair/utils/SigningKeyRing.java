@@ -0,0 +1,362 @@
+package com.zair.utils;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Anillo de claves asimétricas para firmar tokens con ES256, EdDSA o RS256.
+ * <p>
+ * Cada clave se identifica por su huella RFC 7638, que viaja en la cabecera {@code kid} del token. La clave
+ * activa firma los tokens nuevos, la pendiente se publica con antelación para la siguiente rotación y las
+ * retiradas se conservan solo para verificar durante el tiempo de vida de un token. El estado es inmutable y se
+ * publica de forma atómica en cada rotación, de modo que la búsqueda de una clave de verificación es una
+ * consulta O(1) sin bloqueos y el JWKS se serializa una única vez.
+ * <p>
+ * Las claves se cargan de un almacén PKCS12 ({@code jwt.signing.key-store}), que se vuelve a leer en cada
+ * rotación, o se generan en memoria si no se configura ninguno. Con el algoritmo HS256 el anillo está
+ * deshabilitado y los tokens se siguen firmando con el secreto compartido.
+ * <p>
+ * Al pasar de HS256 a un algoritmo asimétrico, los tokens sin {@code kid} firmados con el secreto compartido
+ * solo se aceptan hasta {@code jwt.signing.legacy-hs256-until}; sin configurar, hasta un tiempo de vida de
+ * token tras el arranque.
+ */
+@Slf4j
+@Component
+public class SigningKeyRing {
+
+    private static final String HS256 = "HS256";
+
+    private final String algorithmName;
+
+    private final SignatureAlgorithm algorithm;
+
+    private final Duration retention;
+
+    private final String keyStorePath;
+
+    private final char[] keyStorePassword;
+
+    private final ScheduledExecutorService rotationScheduler;
+
+    private final Instant legacyHs256Until;
+
+    private volatile State state;
+
+    /**
+     * Construye el anillo de claves.
+     *
+     * @param algorithmName    El algoritmo de firma: HS256, ES256, EdDSA o RS256.
+     * @param expiration       El tiempo de vida de los tokens en milisegundos, durante el que se conservan las
+     *                         claves retiradas.
+     * @param keyStorePath     La ruta del almacén PKCS12 con los pares de claves, vacía para generarlos en
+     *                         memoria.
+     * @param keyStorePassword La contraseña del almacén.
+     * @param rotationInterval El intervalo de rotación automática, cero para desactivarla.
+     * @param legacyHs256Until El instante ISO-8601 hasta el que se aceptan tokens HS256 sin {@code kid}, vacío
+     *                         para aceptarlos durante un tiempo de vida de token tras el arranque.
+     */
+    public SigningKeyRing(@Value("${jwt.signing.algorithm:HS256}") String algorithmName,
+                          @Value("${jwt.expiration}") Long expiration,
+                          @Value("${jwt.signing.key-store:}") String keyStorePath,
+                          @Value("${jwt.signing.key-store-password:}") String keyStorePassword,
+                          @Value("${jwt.signing.rotation-interval:0}") Duration rotationInterval,
+                          @Value("${jwt.signing.legacy-hs256-until:}") String legacyHs256Until) {
+        this.algorithmName = algorithmName;
+        this.algorithm = HS256.equals(algorithmName) ? null : signatureAlgorithm(algorithmName);
+        this.retention = Duration.ofMillis(expiration);
+        this.keyStorePath = keyStorePath;
+        this.keyStorePassword = keyStorePassword.toCharArray();
+        this.legacyHs256Until = legacyHs256Until.isBlank()
+                ? Instant.now().plus(retention)
+                : Instant.parse(legacyHs256Until);
+        this.state = new State(null, null, Map.of(), List.of(), "{\"keys\":[]}", "\"0\"");
+
+        if (algorithm == null) {
+            this.rotationScheduler = null;
+            return;
+        }
+
+        rotate();
+
+        if (rotationInterval.isZero() || rotationInterval.isNegative()) {
+            this.rotationScheduler = null;
+        } else {
+            this.rotationScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("key-rotation-"));
+            this.rotationScheduler.scheduleAtFixedRate(this::rotateQuietly,
+                    rotationInterval.toMillis(), rotationInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Indica si se firma con claves asimétricas.
+     *
+     * @return true si el algoritmo es asimétrico, false si se usa HS256 con el secreto compartido.
+     */
+    public boolean isEnabled() {
+        return algorithm != null;
+    }
+
+    /**
+     * Indica si todavía se aceptan tokens sin {@code kid} firmados con el secreto compartido.
+     *
+     * @return true si el anillo está deshabilitado o no se ha alcanzado el límite configurado.
+     */
+    public boolean acceptsLegacyHs256() {
+        return algorithm == null || Instant.now().isBefore(legacyHs256Until);
+    }
+
+    /**
+     * Obtiene la clave con la que se firman los tokens nuevos.
+     *
+     * @return La clave activa, o null si el anillo está deshabilitado.
+     */
+    public ActiveKey activeKey() {
+        return state.active;
+    }
+
+    /**
+     * Obtiene la clave pública de verificación para un {@code kid}.
+     *
+     * @param keyId El identificador de la clave.
+     * @return La clave pública, o null si no existe o ya fue descartada.
+     */
+    public PublicKey verificationKey(String keyId) {
+        return state.verificationKeys.get(keyId);
+    }
+
+    /**
+     * Obtiene el conjunto de claves públicas vigentes serializado como JWKS.
+     *
+     * @return El documento JWKS.
+     */
+    public String jwks() {
+        return state.jwks;
+    }
+
+    /**
+     * Obtiene la etiqueta de entidad del JWKS vigente: el resumen SHA-256 del documento, que cambia con cada
+     * rotación.
+     *
+     * @return El ETag entre comillas.
+     */
+    public String jwksETag() {
+        return state.jwksETag;
+    }
+
+    /**
+     * Rota la clave activa. Con claves generadas, la clave pendiente publicada en la rotación anterior pasa a
+     * ser la activa y se genera una nueva pendiente; con almacén, se vuelve a leer y se activa su clave más
+     * reciente. La clave anterior se conserva para verificación durante el tiempo de vida de un token.
+     *
+     * @return El identificador de la nueva clave activa.
+     * @throws IllegalStateException Si el anillo está deshabilitado o el almacén no se puede leer.
+     */
+    public synchronized String rotate() {
+        if (algorithm == null) {
+            throw new IllegalStateException("Key rotation requires an asymmetric jwt.signing.algorithm, configured: " + algorithmName);
+        }
+
+        Instant now = Instant.now();
+        KeyPair active;
+        KeyPair pending = null;
+        if (keyStorePath.isBlank()) {
+            active = state.pending != null ? state.pending : generateKeyPair();
+            pending = generateKeyPair();
+        } else {
+            active = loadNewestKeyPair();
+        }
+        String keyId = thumbprint(active.getPublic());
+
+        // Las claves anteriores pasan a retiradas y se descartan una vez vencidos los tokens que firmaron
+        List<RingKey> keys = new ArrayList<>();
+        for (RingKey key : state.keys) {
+            if (key.keyId.equals(keyId)) {
+                continue;
+            }
+            Instant retiredAt = key.retiredAt != null ? key.retiredAt : now;
+            if (retiredAt.plus(retention).isAfter(now)) {
+                keys.add(new RingKey(key.keyId, key.publicKey, key.jwk, retiredAt));
+            }
+        }
+        keys.add(new RingKey(keyId, active.getPublic(), jwk(keyId, active.getPublic()), null));
+
+        // La clave pendiente se publica antes de firmar con ella, para que los verificadores la tengan en caché
+        if (pending != null) {
+            String pendingId = thumbprint(pending.getPublic());
+            keys.add(new RingKey(pendingId, pending.getPublic(), jwk(pendingId, pending.getPublic()), null));
+        }
+
+        Map<String, PublicKey> verificationKeys = new HashMap<>();
+        List<String> jwks = new ArrayList<>();
+        for (RingKey key : keys) {
+            verificationKeys.put(key.keyId, key.publicKey);
+            jwks.add(key.jwk);
+        }
+        String document = "{\"keys\":[" + String.join(",", jwks) + "]}";
+
+        state = new State(
+                new ActiveKey(keyId, active.getPrivate(), algorithm),
+                pending,
+                Collections.unmodifiableMap(verificationKeys),
+                List.copyOf(keys),
+                document,
+                eTag(document)
+        );
+        log.info("JWT signing key rotated, active kid {} ({} published keys)", keyId, keys.size());
+
+        return keyId;
+    }
+
+    /**
+     * Detiene la rotación automática.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (rotationScheduler != null) {
+            rotationScheduler.shutdownNow();
+        }
+    }
+
+    private void rotateQuietly() {
+        try {
+            rotate();
+        } catch (RuntimeException e) {
+            log.error("Scheduled JWT signing key rotation failed, keeping the current key", e);
+        }
+    }
+
+    /**
+     * Carga del almacén PKCS12 el par de claves compatible con el algoritmo cuyo certificado es más reciente.
+     *
+     * @return El par de claves.
+     */
+    private KeyPair loadNewestKeyPair() {
+        try (InputStream in = Files.newInputStream(Path.of(keyStorePath))) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, keyStorePassword);
+
+            KeyPair newest = null;
+            Instant newestNotBefore = Instant.MIN;
+            for (String alias : Collections.list(keyStore.aliases())) {
+                if (!keyStore.isKeyEntry(alias)
+                        || !(keyStore.getKey(alias, keyStorePassword) instanceof PrivateKey privateKey)
+                        || !(keyStore.getCertificate(alias) instanceof X509Certificate certificate)
+                        || !supports(privateKey)) {
+                    continue;
+                }
+
+                Instant notBefore = certificate.getNotBefore().toInstant();
+                if (notBefore.isAfter(newestNotBefore)) {
+                    newest = new KeyPair(certificate.getPublicKey(), privateKey);
+                    newestNotBefore = notBefore;
+                }
+            }
+
+            if (newest == null) {
+                throw new IllegalStateException("No " + algorithmName + " key entry found in " + keyStorePath);
+            }
+            return newest;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot read JWT signing key store " + keyStorePath, e);
+        }
+    }
+
+    private static String eTag(String document) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(document.getBytes(StandardCharsets.UTF_8));
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private KeyPair generateKeyPair() {
+        // Para EdDSA se genera Ed25519, la curva que admiten la mayoría de los verificadores
+        return "EdDSA".equals(algorithmName) ? Jwks.CRV.Ed25519.keyPair().build() : algorithm.keyPair().build();
+    }
+
+    private boolean supports(PrivateKey key) {
+        return switch (algorithmName) {
+            case "ES256" -> "EC".equals(key.getAlgorithm());
+            case "RS256" -> "RSA".equals(key.getAlgorithm());
+            default -> "EdDSA".equals(key.getAlgorithm()) || "Ed25519".equals(key.getAlgorithm());
+        };
+    }
+
+    private String thumbprint(PublicKey key) {
+        return Jwks.builder().key(key).idFromThumbprint().build().getId();
+    }
+
+    private String jwk(String keyId, PublicKey key) {
+        PublicJwk<?> jwk = Jwks.builder().key(key)
+                .id(keyId)
+                .algorithm(algorithmName)
+                .publicKeyUse("sig")
+                .build();
+
+        return Jwks.json(jwk);
+    }
+
+    private static SignatureAlgorithm signatureAlgorithm(String name) {
+        return switch (name) {
+            case "ES256" -> Jwts.SIG.ES256;
+            case "RS256" -> Jwts.SIG.RS256;
+            case "EdDSA" -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalArgumentException("Unsupported jwt.signing.algorithm: " + name);
+        };
+    }
+
+    /**
+     * La clave que firma los tokens nuevos.
+     *
+     * @param keyId     El identificador publicado en la cabecera {@code kid}.
+     * @param key       La clave privada.
+     * @param algorithm El algoritmo de firma.
+     */
+    public record ActiveKey(String keyId, PrivateKey key, SignatureAlgorithm algorithm) {
+    }
+
+    /**
+     * Una clave del anillo: activa, pendiente o retirada (solo las retiradas tienen fecha de retiro).
+     */
+    private record RingKey(String keyId, PublicKey publicKey, String jwk, Instant retiredAt) {
+    }
+
+    /**
+     * Estado inmutable del anillo en un instante dado.
+     */
+    private record State(ActiveKey active, KeyPair pending, Map<String, PublicKey> verificationKeys, List<RingKey> keys,
+                         String jwks, String jwksETag) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.zair.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom sobre identificadores de token ({@code jti}).
+ * <p>
+ * Responde "seguro que no" sin asignar memoria, de modo que el conjunto exacto de tokens revocados solo se
+ * consulta para la pequeña fracción de identificadores que el filtro no descarta. Los {@code k} índices se
+ * derivan por doble hashing de un único hash de 64 bits calculado directamente sobre los caracteres.
+ */
+final class TokenIdBloomFilter {
+
+    private final AtomicLongArray bits;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    /**
+     * Construye el filtro dimensionado para la capacidad y la tasa de falsos positivos indicadas.
+     *
+     * @param expectedInsertions El número de identificadores esperado.
+     * @param falsePositiveRate  La tasa de falsos positivos objetivo.
+     */
+    TokenIdBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) >>> 6));
+
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    /**
+     * Añade un identificador al filtro.
+     *
+     * @param tokenId El identificador del token.
+     */
+    void put(String tokenId) {
+        long hash = hash(tokenId);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashCount; i++) {
+            long index = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * Indica si un identificador podría haber sido añadido.
+     *
+     * @param tokenId El identificador del token.
+     * @return false si el identificador seguro no fue añadido, true si podría haberlo sido.
+     */
+    boolean mightContain(String tokenId) {
+        long hash = hash(tokenId);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashCount; i++) {
+            long index = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hash de 64 bits (FNV-1a seguido de fmix64 de MurmurHash3) calculado sobre los caracteres.
+     */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+
+        return h;
+    }
+}
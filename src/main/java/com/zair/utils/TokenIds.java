@@ -0,0 +1,83 @@
+package com.zair.utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Identificadores únicos de token (claim {@code jti}) que llevan el instante de emisión en milisegundos.
+ * <p>
+ * El claim {@code iat} solo tiene resolución de segundos, insuficiente para decidir si un token se emitió antes
+ * o después de una revocación producida en el mismo segundo. El identificador son 18 bytes en Base64URL (24
+ * caracteres): 6 bytes con el instante de emisión en milisegundos, que ocupan exactamente los 8 primeros
+ * caracteres, seguidos de 12 bytes aleatorios. Los identificadores anteriores, 16 bytes aleatorios (22
+ * caracteres), no llevan instante.
+ */
+final class TokenIds {
+
+    private static final char[] ENCODE_TABLE = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    private static final int LENGTH = 24;
+
+    private static final int TIMESTAMP_CHARS = 8;
+
+    private TokenIds() {
+    }
+
+    /**
+     * Genera un identificador con el instante de emisión y 96 bits aleatorios.
+     *
+     * @param issuedAtMillis El instante de emisión en milisegundos.
+     * @return El identificador codificado en Base64URL.
+     */
+    static String generate(long issuedAtMillis) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] chars = new char[LENGTH];
+
+        for (int i = TIMESTAMP_CHARS - 1; i >= 0; i--) {
+            chars[i] = ENCODE_TABLE[(int) (issuedAtMillis & 0x3F)];
+            issuedAtMillis >>>= 6;
+        }
+        for (int i = TIMESTAMP_CHARS; i < LENGTH; i++) {
+            chars[i] = ENCODE_TABLE[random.nextInt(64)];
+        }
+
+        return new String(chars);
+    }
+
+    /**
+     * Obtiene el instante de emisión de un identificador, sin asignar memoria.
+     *
+     * @param tokenId             El identificador del token, o null.
+     * @param issuedAtEpochSecond El claim {@code iat} del token, que debe corresponder al mismo segundo.
+     * @return El instante de emisión en milisegundos, o -1 si el identificador no lo lleva o no concuerda con
+     * {@code iat}.
+     */
+    static long issuedAtMillis(String tokenId, long issuedAtEpochSecond) {
+        if (tokenId == null || tokenId.length() != LENGTH) {
+            return -1;
+        }
+
+        long millis = 0;
+        for (int i = 0; i < TIMESTAMP_CHARS; i++) {
+            int value = decode(tokenId.charAt(i));
+            if (value < 0) {
+                return -1;
+            }
+            millis = millis << 6 | value;
+        }
+
+        return millis / 1000 == issuedAtEpochSecond ? millis : -1;
+    }
+
+    private static int decode(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 26;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 52;
+        }
+        return c == '-' ? 62 : c == '_' ? 63 : -1;
+    }
+}
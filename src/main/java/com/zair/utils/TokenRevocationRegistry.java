@@ -0,0 +1,198 @@
+package com.zair.utils;
+
+import com.zair.repositories.RevocationStore;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro en memoria de los tokens revocados antes de su expiración.
+ * <p>
+ * Combina dos mecanismos, ambos consultados en O(1) y sin asignar memoria en cada solicitud:
+ * <ul>
+ *     <li>Una marca de agua por usuario ("cerrar sesión en todas partes"), en milisegundos: se rechaza
+ *     cualquier token del usuario emitido antes de ella, según el instante de emisión de su {@code jti}
+ *     ({@link TokenIds}).</li>
+ *     <li>Un filtro de Bloom delante del conjunto exacto de {@code jti} revocados ("cerrar sesión"): el conjunto
+ *     solo se consulta cuando el filtro no puede descartar el identificador.</li>
+ * </ul>
+ * Las revocaciones se guardan en el {@link RevocationStore} disponible y se recargan al arrancar. Sin
+ * almacenamiento (variante reactiva), el registro funciona solo en memoria.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private final RevocationStore store;
+
+    private final long expectedTokens;
+
+    private final double falsePositiveRate;
+
+    private final LongWatermarkMap watermarks;
+
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+
+    private volatile TokenIdBloomFilter filter;
+
+    private long filterCapacity;
+
+    /**
+     * Construye el registro.
+     *
+     * @param storeProvider     El almacenamiento persistente de revocaciones, si existe.
+     * @param expectedTokens    El número de tokens revocados vigentes esperado.
+     * @param falsePositiveRate La tasa de falsos positivos del filtro de Bloom.
+     */
+    public TokenRevocationRegistry(ObjectProvider<RevocationStore> storeProvider,
+                                   @Value("${jwt.revocation.expected-tokens:100000}") long expectedTokens,
+                                   @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.store = storeProvider.getIfAvailable();
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.watermarks = new LongWatermarkMap(1024);
+        this.filterCapacity = expectedTokens;
+        this.filter = new TokenIdBloomFilter(expectedTokens, falsePositiveRate);
+    }
+
+    /**
+     * Carga las revocaciones guardadas.
+     */
+    @PostConstruct
+    public synchronized void load() {
+        if (store == null) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        store.findWatermarks().forEach((userId, notBefore) -> watermarks.raise(userId, notBefore.toEpochMilli()));
+        revokedTokens.putAll(store.findRevokedTokens(now));
+        rebuildFilter();
+    }
+
+    /**
+     * Indica si un token verificado fue revocado.
+     *
+     * @param token El token verificado.
+     * @return true si el token fue revocado, false en caso contrario.
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        Long userId = token.userId();
+        if (userId != null) {
+            long watermark = watermarks.get(userId);
+
+            if (watermark != LongWatermarkMap.ABSENT && issuedAtMillis(token) < watermark) {
+                return true;
+            }
+        }
+
+        String tokenId = token.tokenId();
+        return tokenId != null && filter.mightContain(tokenId) && revokedTokens.containsKey(tokenId);
+    }
+
+    /**
+     * Revoca un único token hasta su expiración.
+     *
+     * @param token El token verificado a revocar.
+     * @throws IllegalArgumentException Si el token no tiene identificador.
+     */
+    public synchronized void revoke(VerifiedToken token) {
+        String tokenId = token.tokenId();
+        if (tokenId == null) {
+            throw new IllegalArgumentException("Token has no jti claim");
+        }
+
+        if (revokedTokens.size() >= filterCapacity) {
+            purgeExpired();
+        }
+
+        revokedTokens.put(tokenId, token.expiration());
+        filter.put(tokenId);
+
+        if (store != null) {
+            store.saveRevokedToken(tokenId, token.expiration());
+        }
+    }
+
+    /**
+     * Revoca todos los tokens emitidos hasta ahora para un usuario.
+     * <p>
+     * La marca de agua se fija en el milisegundo siguiente al actual: un token emitido justo después, por
+     * ejemplo al volver a iniciar sesión en el mismo segundo, sigue siendo válido.
+     *
+     * @param userId El identificador del usuario.
+     */
+    public synchronized void revokeAll(Long userId) {
+        Instant notBefore = Instant.ofEpochMilli(System.currentTimeMillis() + 1);
+        watermarks.raise(userId, notBefore.toEpochMilli());
+
+        if (store != null) {
+            store.saveWatermark(userId, notBefore);
+        }
+    }
+
+    /**
+     * Obtiene el número de tokens revocados individualmente que se retienen.
+     *
+     * @return El número de identificadores revocados.
+     */
+    public int revokedTokenCount() {
+        return revokedTokens.size();
+    }
+
+    /**
+     * Obtiene el número de usuarios con marca de agua.
+     *
+     * @return El número de usuarios.
+     */
+    public int watermarkCount() {
+        return watermarks.size();
+    }
+
+    /**
+     * Obtiene el instante de emisión de un token en milisegundos. Los tokens cuyo {@code jti} no lo lleva
+     * (emitidos antes de {@link TokenIds}) toman el inicio del segundo de {@code iat}, de modo que un cierre de
+     * sesión en ese mismo segundo los revoca.
+     */
+    private static long issuedAtMillis(VerifiedToken token) {
+        long issuedAtSecond = token.issuedAt().getEpochSecond();
+        long millis = TokenIds.issuedAtMillis(token.tokenId(), issuedAtSecond);
+
+        return millis >= 0 ? millis : issuedAtSecond * 1000;
+    }
+
+    /**
+     * Olvida las revocaciones de tokens ya expirados y reconstruye el filtro, que no admite borrados.
+     */
+    private void purgeExpired() {
+        Instant now = Instant.now();
+        revokedTokens.values().removeIf(expiration -> !expiration.isAfter(now));
+
+        if (store != null) {
+            store.deleteExpiredTokens(now);
+        }
+
+        rebuildFilter();
+    }
+
+    /**
+     * Construye un filtro nuevo con los identificadores vigentes y lo publica de forma atómica.
+     */
+    private void rebuildFilter() {
+        // Si los tokens vigentes ya ocupan la mitad de la capacidad, se duplica para no reconstruir en cada revocación
+        long capacity = expectedTokens;
+        while (revokedTokens.size() * 2L > capacity) {
+            capacity *= 2;
+        }
+
+        TokenIdBloomFilter rebuilt = new TokenIdBloomFilter(capacity, falsePositiveRate);
+        revokedTokens.keySet().forEach(rebuilt::put);
+
+        filterCapacity = capacity;
+        filter = rebuilt;
+    }
+}
@@ -0,0 +1,137 @@
+package com.zair.utils;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Resultado de validar un token sin lanzar excepciones: el propio {@link VerifiedToken} si es válido, o el
+ * motivo del rechazo.
+ * <p>
+ * Los rechazos son constantes con el cuerpo de error ya serializado, de modo que un token inválido no
+ * captura una traza de pila ni construye el JSON de la respuesta.
+ */
+public sealed interface TokenValidation permits VerifiedToken, TokenValidation.Invalid {
+
+    /**
+     * Motivo del rechazo de un token.
+     */
+    enum Invalid implements TokenValidation {
+
+        /**
+         * El token no tiene la estructura de un JWS compacto o sus claims no son los esperados.
+         */
+        MALFORMED("Malformed JWT"),
+
+        /**
+         * La firma es válida pero el token ha expirado.
+         */
+        EXPIRED("JWT expired"),
+
+        /**
+         * La firma no corresponde a ninguna clave de verificación.
+         */
+        BAD_SIGNATURE("Invalid JWT signature"),
+
+        /**
+         * El token es válido pero su usuario ya no existe.
+         */
+        UNKNOWN_USER("Unknown user"),
+
+        /**
+         * El token es válido pero ha sido revocado.
+         */
+        REVOKED("JWT revoked");
+
+        private final String message;
+
+        private final byte[] body;
+
+        Invalid(String message) {
+            this.message = message;
+            this.body = ("{\"error\": \"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Obtiene el mensaje del rechazo.
+         *
+         * @return El mensaje.
+         */
+        public String message() {
+            return message;
+        }
+
+        /**
+         * Obtiene el cuerpo JSON de la respuesta de error. El arreglo es compartido y no debe modificarse.
+         *
+         * @return El cuerpo en UTF-8.
+         */
+        public byte[] body() {
+            return body;
+        }
+
+        /**
+         * Crea la excepción equivalente, para los llamadores que siguen trabajando con excepciones.
+         *
+         * @return La excepción de jjwt correspondiente al motivo.
+         */
+        public JwtException toException() {
+            return switch (this) {
+                case MALFORMED -> new MalformedJwtException(message);
+                case EXPIRED -> new ExpiredJwtException(null, null, message);
+                case BAD_SIGNATURE -> new SignatureException(message);
+                default -> new JwtException(message);
+            };
+        }
+    }
+
+    /**
+     * Comprueba la estructura de un JWS compacto sin asignar memoria ni hacer operaciones criptográficas:
+     * longitud acotada, tres segmentos no vacíos en Base64URL sin relleno y cabecera y payload que empiezan
+     * por un objeto JSON.
+     *
+     * @param source La cadena que contiene el token.
+     * @param offset La posición en la que empieza el token.
+     * @return true si el token puede ser un JWS, false si se puede rechazar como mal formado.
+     */
+    static boolean isWellFormed(String source, int offset) {
+        int length = source.length() - offset;
+        if (length < 16 || length > 8192) {
+            return false;
+        }
+
+        int segmentStart = offset;
+        int dots = 0;
+        for (int i = offset; i < source.length(); i++) {
+            char ch = source.charAt(i);
+
+            if (ch == '.') {
+                if (!isSegment(source, segmentStart, i, dots < 2) || ++dots > 2) {
+                    return false;
+                }
+                segmentStart = i + 1;
+            } else if (!isBase64Url(ch)) {
+                return false;
+            }
+        }
+
+        return dots == 2 && isSegment(source, segmentStart, source.length(), false);
+    }
+
+    /**
+     * Un segmento no vacío cuya longitud es válida en Base64URL; la cabecera y el payload empiezan por
+     * {@code eyJ}, la codificación de <code>{"</code>.
+     */
+    private static boolean isSegment(String source, int from, int to, boolean jsonObject) {
+        int length = to - from;
+
+        return length > 0 && length % 4 != 1 && (!jsonObject || source.startsWith("eyJ", from));
+    }
+
+    private static boolean isBase64Url(char ch) {
+        return (ch >= 'A' && ch <= 'Z') || (ch >= 'a' && ch <= 'z') || (ch >= '0' && ch <= '9') || ch == '-' || ch == '_';
+    }
+}
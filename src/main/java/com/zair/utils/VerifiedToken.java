@@ -0,0 +1,40 @@
+package com.zair.utils;
+
+import com.zair.models.enums.UserRole;
+
+import java.time.Instant;
+
+/**
+ * Representación inmutable de un token JWT cuya firma y expiración ya fueron verificadas. Es también el
+ * resultado válido de {@link TokenValidation}.
+ *
+ * @param subject    El correo electrónico del usuario, null en los tokens compactos, cuyo sujeto es el identificador.
+ * @param userId     El identificador del usuario.
+ * @param role       El rol del usuario.
+ * @param permissions La máscara de permisos del claim {@code perms}, o la del rol en los tokens emitidos sin él.
+ * @param expiration La fecha de expiración del token.
+ * @param issuedAt   La fecha de emisión del token.
+ * @param tokenId    El identificador único del token (claim {@code jti}), null en tokens emitidos sin él.
+ */
+public record VerifiedToken(String subject, Long userId, UserRole role, long permissions, Instant expiration,
+                            Instant issuedAt, String tokenId) implements TokenValidation {
+
+    /**
+     * Verifica si el token ha expirado en el instante proporcionado.
+     *
+     * @param now El instante de referencia.
+     * @return true si el token ha expirado, false en caso contrario.
+     */
+    public boolean isExpiredAt(Instant now) {
+        return !expiration.isAfter(now);
+    }
+
+    /**
+     * Verifica si el token ha expirado según el reloj del sistema, sin crear un {@link Instant}.
+     *
+     * @return true si el token ha expirado, false en caso contrario.
+     */
+    public boolean isExpired() {
+        return expiration.toEpochMilli() <= System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,264 @@
+package com.zair.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caché acotada de tokens JWT ya verificados.
+ * <p>
+ * Las entradas se indexan por el SHA-256 del token (nunca se retiene el token en claro), se desalojan
+ * con la política W-TinyLFU de Caffeine al alcanzar el tamaño máximo y expiran exactamente en el
+ * {@code exp} de cada token, por lo que un token nunca se acepta después de su expiración.
+ * <p>
+ * Un acierto no asigna memoria: el token se resume directamente desde la cabecera Authorization (sin
+ * extraerlo con {@code substring}) sobre búferes tomados de un {@link BufferPool}, y la consulta usa la clave
+ * de búsqueda mutable de esos búferes. Solo un fallo crea la cadena del token y una clave inmutable.
+ * <p>
+ * Solo se almacenan los tokens válidos. Los que no tienen la estructura de un JWS se rechazan antes de
+ * resumirlos, de modo que una avalancha de tokens basura no cuesta un SHA-256 por solicitud ni contamina
+ * la caché.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final int SHA_256_LENGTH = 32;
+
+    private static final BufferPool<DigestBuffers> BUFFERS = new BufferPool<>(DigestBuffers::new);
+
+    private final JwtUtil jwtUtil;
+
+    private final Cache<TokenDigest, VerifiedToken> cache;
+
+    /**
+     * Construye la caché de tokens verificados.
+     *
+     * @param jwtUtil     La utilidad utilizada para verificar los tokens que no están en caché.
+     * @param enabled     Indica si la caché está habilitada.
+     * @param maximumSize El número máximo de tokens retenidos.
+     */
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              @Value("${jwt.cache.enabled:false}") boolean enabled,
+                              @Value("${jwt.cache.maximum-size:10000}") long maximumSize) {
+        this.jwtUtil = jwtUtil;
+        this.cache = enabled
+                ? Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfter(new TokenExpiry())
+                        .recordStats()
+                        .build()
+                : null;
+    }
+
+    /**
+     * Valida un token, reutilizando el resultado de una verificación previa si sigue vigente.
+     *
+     * @param token El token JWT a validar.
+     * @return El token verificado, o el motivo del rechazo.
+     */
+    public TokenValidation validate(String token) {
+        return validate(token, 0);
+    }
+
+    /**
+     * Valida el token que ocupa {@code source} desde {@code offset} hasta el final, por ejemplo la cabecera
+     * Authorization completa con el desplazamiento del prefijo "Bearer ".
+     *
+     * @param source La cadena que contiene el token.
+     * @param offset La posición en la que empieza el token.
+     * @return El token verificado, o el motivo del rechazo.
+     */
+    public TokenValidation validate(String source, int offset) {
+        // Los tokens con caracteres no ASCII o sin estructura de JWS nunca son válidos y no se resumen
+        if (cache == null || !TokenValidation.isWellFormed(source, offset)) {
+            return jwtUtil.validateToken(token(source, offset));
+        }
+
+        DigestBuffers buffers = BUFFERS.acquire();
+        TokenDigest key;
+        try {
+            TokenDigest probe = buffers.digest(source, offset);
+
+            VerifiedToken verified = cache.getIfPresent(probe);
+            if (verified != null && !verified.isExpired()) {
+                return verified;
+            }
+
+            // Defensa ante la diferencia entre el reloj monotónico de la caché y el reloj de pared
+            if (verified != null) {
+                cache.invalidate(probe);
+            }
+            key = probe.copy();
+        } finally {
+            BUFFERS.release(buffers);
+        }
+
+        TokenValidation result = jwtUtil.validateToken(token(source, offset));
+        if (result instanceof VerifiedToken valid) {
+            cache.put(key, valid);
+        }
+
+        return result;
+    }
+
+    /**
+     * Indica si la caché está habilitada.
+     *
+     * @return true si la caché está habilitada, false en caso contrario.
+     */
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Obtiene los contadores de aciertos, fallos y desalojos de la caché.
+     *
+     * @return Las estadísticas de la caché, vacías si está deshabilitada.
+     */
+    public CacheStats stats() {
+        return cache != null ? cache.stats() : CacheStats.empty();
+    }
+
+    /**
+     * Obtiene el número aproximado de tokens en caché.
+     *
+     * @return El número estimado de entradas.
+     */
+    public long estimatedSize() {
+        return cache != null ? cache.estimatedSize() : 0;
+    }
+
+    private static String token(String source, int offset) {
+        return offset == 0 ? source : source.substring(offset);
+    }
+
+    /**
+     * Política de expiración que hace vencer cada entrada en el {@code exp} de su token.
+     */
+    private static final class TokenExpiry implements Expiry<TokenDigest, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(TokenDigest key, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.expiration().toEpochMilli() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Clave de la caché: el resumen SHA-256 del token, en cuatro palabras de 64 bits.
+     * <p>
+     * La instancia de búsqueda de cada {@link DigestBuffers} se sobrescribe en cada solicitud y nunca se inserta
+     * en la caché; las claves insertadas son copias inmutables.
+     */
+    private static final class TokenDigest {
+
+        private long d0;
+
+        private long d1;
+
+        private long d2;
+
+        private long d3;
+
+        private void set(byte[] digest) {
+            d0 = word(digest, 0);
+            d1 = word(digest, 8);
+            d2 = word(digest, 16);
+            d3 = word(digest, 24);
+        }
+
+        private TokenDigest copy() {
+            TokenDigest copy = new TokenDigest();
+            copy.d0 = d0;
+            copy.d1 = d1;
+            copy.d2 = d2;
+            copy.d3 = d3;
+            return copy;
+        }
+
+        private static long word(byte[] bytes, int offset) {
+            long value = 0;
+            for (int i = offset; i < offset + 8; i++) {
+                value = value << 8 | (bytes[i] & 0xFF);
+            }
+            return value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TokenDigest other && d0 == other.d0 && d1 == other.d1 && d2 == other.d2 && d3 == other.d3;
+        }
+
+        @Override
+        public int hashCode() {
+            // Los bits de un resumen SHA-256 ya están uniformemente distribuidos
+            return (int) d0;
+        }
+    }
+
+    /**
+     * MessageDigest, búferes y clave de búsqueda reutilizables, de uso exclusivo mientras están tomados del pool.
+     */
+    private static final class DigestBuffers {
+
+        private final MessageDigest sha256;
+
+        private final byte[] output = new byte[SHA_256_LENGTH];
+
+        private final TokenDigest probe = new TokenDigest();
+
+        private byte[] input = new byte[1024];
+
+        private DigestBuffers() {
+            try {
+                this.sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        /**
+         * Resume el token sobre estos búferes.
+         *
+         * @return La clave de búsqueda de los búferes. El token ya se ha comprobado y solo contiene caracteres ASCII.
+         */
+        private TokenDigest digest(String source, int offset) {
+            int length = source.length() - offset;
+            if (input.length < length) {
+                input = new byte[Math.max(length, input.length * 2)];
+            }
+
+            for (int i = 0; i < length; i++) {
+                input[i] = (byte) source.charAt(offset + i);
+            }
+
+            try {
+                sha256.update(input, 0, length);
+                sha256.digest(output, 0, SHA_256_LENGTH);
+            } catch (DigestException e) {
+                throw new IllegalStateException("SHA-256 digest failed", e);
+            }
+
+            probe.set(output);
+            return probe;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.zair.configuration;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BCryptCalibratorTests {
+
+    @Test
+    void neverGoesBelowTheMinimumStrength() {
+        assertEquals(4, BCryptCalibrator.calibrate(Duration.ZERO, 4));
+        assertEquals(6, BCryptCalibrator.calibrate(Duration.ofNanos(1), 6));
+    }
+
+    @Test
+    void neverGoesAboveTheBCryptMaximum() {
+        // La extrapolación no ejecuta el hash al factor calculado, así que un objetivo enorme es inmediato
+        assertEquals(31, BCryptCalibrator.calibrate(Duration.ofDays(365 * 100), 4));
+    }
+
+    @Test
+    void higherTargetsNeverLowerTheStrength() {
+        int fast = BCryptCalibrator.calibrate(Duration.ofMillis(1), 4);
+        int slow = BCryptCalibrator.calibrate(Duration.ofMillis(500), 4);
+
+        assertTrue(fast >= 4);
+        assertTrue(slow > fast, "Expected " + slow + " > " + fast);
+    }
+}
@@ -0,0 +1,98 @@
+package com.zair.configuration;
+
+import com.zair.utils.ReadYourWritesTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Dos bases de datos H2 embebidas hacen de principal y de réplica; cada una contiene un usuario distinto, de
+ * modo que el resultado de una consulta indica a cuál se envió.
+ */
+class ReplicaRoutingDataSourceTests {
+
+    private final EmbeddedDatabase primary = database("primary");
+
+    private final EmbeddedDatabase replica = database("replica");
+
+    private final LazyConnectionDataSourceProxy dataSource =
+            new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica));
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    private final TransactionTemplate readWrite = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+    private final TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+    ReplicaRoutingDataSourceTests() {
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void shutdown() {
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void routesReadOnlyTransactionsToReplica() {
+        assertEquals("replica", readOnly.execute(status -> source()));
+        assertEquals("primary", readWrite.execute(status -> source()));
+        assertEquals("primary", source());
+        assertEquals("primary", readOnly.execute(status -> ReplicaRoutingDataSource.onPrimary(this::source)));
+    }
+
+    @Test
+    void readsRecentWritesFromPrimary() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker("jdbc:h2:mem:replica", Duration.ofMinutes(1), 16);
+
+        assertEquals(Optional.of("replica"), tracker.read("user@example.com", this::findSource));
+
+        tracker.recordWrite("user@example.com");
+        assertEquals(Optional.of("primary"), tracker.read("user@example.com", this::findSource));
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaMisses() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker("jdbc:h2:mem:replica", Duration.ofMinutes(1), 16);
+        jdbcTemplate.update("INSERT INTO app_user (email, source) VALUES ('new@example.com', 'primary')");
+
+        assertEquals(Optional.of("primary"), tracker.read("new@example.com", () -> readOnly.execute(status ->
+                jdbcTemplate.queryForList("SELECT source FROM app_user WHERE email = 'new@example.com'", String.class)
+                        .stream()
+                        .findFirst())));
+    }
+
+    private String source() {
+        return jdbcTemplate.queryForObject("SELECT source FROM app_user WHERE email = 'user@example.com'", String.class);
+    }
+
+    /**
+     * Consulta el usuario en su propia transacción de solo lectura, como los métodos del repositorio.
+     */
+    private Optional<String> findSource() {
+        return readOnly.execute(status -> Optional.of(source()));
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(name)
+                .build();
+        new JdbcTemplate(database).execute("CREATE TABLE app_user (email VARCHAR(255) PRIMARY KEY, source VARCHAR(16))");
+        new JdbcTemplate(database).update("INSERT INTO app_user VALUES ('user@example.com', ?)", name);
+
+        return database;
+    }
+}
@@ -0,0 +1,142 @@
+package com.zair.configuration.security;
+
+import com.zair.models.enums.Permission;
+import com.zair.models.enums.UserRole;
+import com.zair.utils.JwtAuthentication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.web.reactive.result.method.RequestMappingInfo;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PermissionAuthorizationManagerTests {
+
+    private final Endpoints endpoints = proxy();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void checksTheTokenPermissionMask() {
+        authenticate(new JwtAuthentication("a", UserRole.CLIENT.getAuthorities(),
+                Permission.mask(Permission.USERS_COMMON, Permission.USERS_IMPORT)));
+
+        assertEquals("import", endpoints.importUsers());
+        assertEquals("open", endpoints.open());
+        assertThrows(AccessDeniedException.class, endpoints::importAndRotate);
+        assertThrows(AccessDeniedException.class, endpoints::client);
+    }
+
+    @Test
+    void derivesPermissionsFromRolesForOtherAuthentications() {
+        authenticate(new UsernamePasswordAuthenticationToken("c", null, AuthorityUtils.createAuthorityList("CLIENT")));
+        assertEquals("client", endpoints.client());
+        assertThrows(AccessDeniedException.class, endpoints::importUsers);
+
+        authenticate(new UsernamePasswordAuthenticationToken("a", null, AuthorityUtils.createAuthorityList("ADMIN")));
+        assertEquals("both", endpoints.importAndRotate());
+        assertThrows(AccessDeniedException.class, endpoints::client);
+    }
+
+    @Test
+    void reactiveChecksTheAnnotationOfTheHandlerMethod() throws Exception {
+        ReactiveAuthorizationManager<AuthorizationContext> manager = PermissionAuthorizationManager.reactive(
+                (authentication, context) -> Mono.just(new AuthorizationDecision(true)), handlerMapping());
+        Authentication importer = new JwtAuthentication("a", UserRole.CLIENT.getAuthorities(),
+                Permission.mask(Permission.USERS_COMMON, Permission.USERS_IMPORT));
+
+        assertTrue(reactiveAllows(manager, "/import", importer));
+        assertFalse(reactiveAllows(manager, "/both", importer));
+        assertTrue(reactiveAllows(manager, "/open", importer));
+        assertTrue(reactiveAllows(manager, "/unmapped", importer));
+        assertFalse(reactiveAllows(manager, "/import", null));
+
+        Authentication client = new UsernamePasswordAuthenticationToken("c", null, AuthorityUtils.createAuthorityList("CLIENT"));
+        assertTrue(reactiveAllows(manager, "/client", client));
+        assertFalse(reactiveAllows(manager, "/import", client));
+    }
+
+    @Test
+    void reactiveKeepsTheRouteDecision() throws Exception {
+        ReactiveAuthorizationManager<AuthorizationContext> manager = PermissionAuthorizationManager.reactive(
+                (authentication, context) -> Mono.just(new AuthorizationDecision(false)), handlerMapping());
+
+        assertFalse(reactiveAllows(manager, "/open", new UsernamePasswordAuthenticationToken("a", null,
+                AuthorityUtils.createAuthorityList("ADMIN"))));
+    }
+
+    private static boolean reactiveAllows(ReactiveAuthorizationManager<AuthorizationContext> manager, String path,
+                                          Authentication authentication) {
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.method(HttpMethod.GET, URI.create(path)));
+
+        return manager.check(Mono.justOrEmpty(authentication), new AuthorizationContext(exchange))
+                .map(AuthorizationDecision::isGranted)
+                .block();
+    }
+
+    private static RequestMappingHandlerMapping handlerMapping() throws NoSuchMethodException {
+        RequestMappingHandlerMapping mapping = new RequestMappingHandlerMapping();
+        Endpoints endpoints = new Endpoints();
+        mapping.registerMapping(RequestMappingInfo.paths("/import").build(), endpoints, Endpoints.class.getMethod("importUsers"));
+        mapping.registerMapping(RequestMappingInfo.paths("/both").build(), endpoints, Endpoints.class.getMethod("importAndRotate"));
+        mapping.registerMapping(RequestMappingInfo.paths("/client").build(), endpoints, Endpoints.class.getMethod("client"));
+        mapping.registerMapping(RequestMappingInfo.paths("/open").build(), endpoints, Endpoints.class.getMethod("open"));
+
+        return mapping;
+    }
+
+    private static void authenticate(Authentication authentication) {
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    private static Endpoints proxy() {
+        ProxyFactory factory = new ProxyFactory(new Endpoints());
+        factory.setProxyTargetClass(true);
+        factory.addAdvisor(PermissionAuthorizationManager.interceptor());
+
+        return (Endpoints) factory.getProxy();
+    }
+
+    static class Endpoints {
+
+        @RequiresPermission(Permission.USERS_IMPORT)
+        public String importUsers() {
+            return "import";
+        }
+
+        @RequiresPermission({Permission.USERS_IMPORT, Permission.KEYS_ROTATE})
+        public String importAndRotate() {
+            return "both";
+        }
+
+        @RequiresPermission(Permission.USERS_CLIENT)
+        public String client() {
+            return "client";
+        }
+
+        public String open() {
+            return "open";
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.zair.configuration.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SecurityRoutesTests {
+
+    private final SecurityRoutes routes = new SecurityRoutesConfig().securityRoutes();
+
+    @Test
+    void matchesWholeSegmentsOnly() {
+        assertTrue(routes.match("/api/auth").permitAll());
+        assertTrue(routes.match("/api/auth/login").permitAll());
+        assertTrue(routes.match("/api/public/").permitAll());
+
+        assertFalse(routes.match("/api/authfoo").permitAll());
+        assertFalse(routes.match("/x/api/authfoo").permitAll());
+        assertFalse(routes.match("/x/api/auth/login").permitAll());
+    }
+
+    @Test
+    void mostSpecificPatternWins() {
+        var admin = new UsernamePasswordAuthenticationToken("a", null, AuthorityUtils.createAuthorityList("ADMIN"));
+        var client = new UsernamePasswordAuthenticationToken("c", null, AuthorityUtils.createAuthorityList("CLIENT"));
+
+        assertTrue(routes.match("/actuator/health").permitAll());
+        assertTrue(routes.match("/actuator/health/liveness").permitAll());
+        assertTrue(routes.match("/actuator/health/readiness").permitAll());
+        assertFalse(routes.match("/actuator/health/db").allows(client));
+        assertTrue(routes.match("/actuator/metrics").allows(admin));
+        assertFalse(routes.match("/api/users/admin").allows(client));
+        assertTrue(routes.match("/api/users/common").allows(client));
+    }
+
+    @Test
+    void unmatchedRoutesRequireAuthentication() {
+        var anonymous = new AnonymousAuthenticationToken("key", "anonymous", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+        var client = new UsernamePasswordAuthenticationToken("c", null, AuthorityUtils.createAuthorityList("CLIENT"));
+
+        assertFalse(routes.match("/api/other").allows(null));
+        assertFalse(routes.match("/api/other").allows(anonymous));
+        assertTrue(routes.match("/api/other").allows(client));
+    }
+
+    @Test
+    void reactiveRoutesMatchDecodedSegmentsWithoutMatrixParameters() {
+        var client = new UsernamePasswordAuthenticationToken("c", null, AuthorityUtils.createAuthorityList("CLIENT"));
+
+        assertFalse(reactiveAllows("/api/%61dmin/keys/rotate", client));
+        assertFalse(reactiveAllows("/api/admin;x=1/keys/rotate", client));
+        assertFalse(reactiveAllows("/api/users/%61dmin", client));
+        assertFalse(reactiveAllows("/api/users/admin;x=1", client));
+        assertFalse(reactiveAllows("/api/users/client/%2e%2e/admin", client));
+        assertTrue(reactiveAllows("/api/users/client", client));
+        assertTrue(reactiveAllows("/api/users/%63lient", client));
+    }
+
+    @Test
+    void detectsAmbiguousRawPaths() {
+        assertTrue(SecurityRoutes.isAmbiguous("/api/admin;x=1/keys"));
+        assertTrue(SecurityRoutes.isAmbiguous("/api/admin%2Fkeys"));
+        assertTrue(SecurityRoutes.isAmbiguous("/api/%2e%2e/admin"));
+        assertTrue(SecurityRoutes.isAmbiguous("/api/%252e/admin"));
+        assertTrue(SecurityRoutes.isAmbiguous("/api/users/../admin"));
+        assertTrue(SecurityRoutes.isAmbiguous("/api/./admin"));
+        assertTrue(SecurityRoutes.isAmbiguous("/api\\admin"));
+
+        assertFalse(SecurityRoutes.isAmbiguous("/api/%61dmin"));
+        assertFalse(SecurityRoutes.isAmbiguous("/api/users/client"));
+        assertFalse(SecurityRoutes.isAmbiguous("/api/public/.well-known/jwks.json"));
+        assertFalse(SecurityRoutes.isAmbiguous("/api/users/a..b"));
+    }
+
+    private boolean reactiveAllows(String rawPath, Authentication authentication) {
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.method(HttpMethod.GET, URI.create(rawPath)));
+
+        return routes.reactiveAuthorizationManager()
+                .check(Mono.just(authentication), new AuthorizationContext(exchange))
+                .block()
+                .isGranted();
+    }
+}
@@ -0,0 +1,77 @@
+package com.zair.controllers;
+
+import com.zair.models.dtos.AuthDTO;
+import com.zair.models.dtos.LoginDTO;
+import com.zair.services.ReactiveAuthService;
+import com.zair.utils.AuthMetrics;
+import com.zair.utils.ClientIpResolver;
+import com.zair.utils.LoginRateLimiter;
+import com.zair.utils.PasswordHashingExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReactiveAuthControllerTests {
+
+    private final ReactiveAuthService service = mock(ReactiveAuthService.class);
+
+    private final PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor(1, 1, Duration.ofMillis(1_500));
+
+    private final WebTestClient client = WebTestClient
+            .bindToController(new ReactiveAuthController(service, hashingExecutor,
+                    new LoginRateLimiter(true, 1024, 10, Duration.ofMinutes(5), 50, Duration.ofMinutes(15), 100,
+                            Duration.ofMinutes(1), AuthMetrics.noop()),
+                    new ClientIpResolver(List.of())))
+            .build();
+
+    @AfterEach
+    void shutdown() {
+        hashingExecutor.shutdown();
+    }
+
+    @Test
+    void respondsWithTheTokenForValidCredentials() {
+        when(service.login(argThat(login -> "secret".equals(login.getPassword())))).thenReturn(Mono.just(new AuthDTO("token")));
+
+        login("secret")
+                .expectStatus().isOk()
+                .expectBody().json("{\"token\": \"token\"}", true);
+    }
+
+    @Test
+    void respondsUnauthorizedForBadCredentials() {
+        when(service.login(any(LoginDTO.class))).thenReturn(Mono.error(new BadCredentialsException("Incorrect username or password")));
+
+        login("wrong")
+                .expectStatus().isUnauthorized()
+                .expectBody().json("{\"error\": \"Invalid credentials\"}", true);
+    }
+
+    @Test
+    void respondsServiceUnavailableWhenHashingIsSaturated() {
+        when(service.login(any(LoginDTO.class))).thenReturn(Mono.error(new RejectedExecutionException()));
+
+        login("secret")
+                .expectStatus().isEqualTo(503)
+                .expectHeader().valueEquals("Retry-After", "2");
+    }
+
+    private WebTestClient.ResponseSpec login(String password) {
+        return client.post().uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"email\": \"user@example.com\", \"password\": \"" + password + "\"}")
+                .exchange();
+    }
+}
@@ -0,0 +1,70 @@
+package com.zair.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zair.models.dtos.IntrospectionResultDTO;
+import com.zair.models.enums.UserRole;
+import com.zair.services.TokenIntrospectionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TokenIntrospectionControllerTests {
+
+    private final TokenIntrospectionService service = mock(TokenIntrospectionService.class);
+
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new TokenIntrospectionController(service, new ObjectMapper()))
+            .build();
+
+    @Test
+    void respondsWithTheResultsInOrderAndAContentLength() throws Exception {
+        String body = "{\"results\":[{\"active\":true,\"sub\":\"user@example.com\",\"user_id\":42,\"role\":\"CLIENT\",\"exp\":1700000000},"
+                + "{\"active\":false,\"reason\":\"REVOKED\"}]}";
+        when(service.introspect(List.of("a", "b"))).thenReturn(List.of(
+                new IntrospectionResultDTO(true, "user@example.com", 42L, UserRole.CLIENT, 1_700_000_000L, null),
+                new IntrospectionResultDTO(false, null, null, null, null, "REVOKED")));
+
+        mockMvc.perform(introspect("{\"tokens\": [\"a\", \"b\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().longValue("Content-Length", body.length()))
+                .andExpect(content().json(body, true));
+    }
+
+    @Test
+    void rejectsBatchesOverTheMaximumWithBadRequest() throws Exception {
+        when(service.introspect(anyList())).thenThrow(new IllegalArgumentException("At most 1 tokens per request"));
+
+        mockMvc.perform(introspect("{\"tokens\": [\"a\", \"b\"]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"error\": \"At most 1 tokens per request\"}", true));
+    }
+
+    @Test
+    void rejectsEmptyBatchesWithBadRequest() throws Exception {
+        mockMvc.perform(introspect("{\"tokens\": []}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"error\": \"At least one token is required\"}", true));
+        mockMvc.perform(introspect("{}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(service);
+    }
+
+    private static RequestBuilder introspect(String body) {
+        return post("/api/admin/tokens/introspect").contentType(MediaType.APPLICATION_JSON).content(body);
+    }
+}
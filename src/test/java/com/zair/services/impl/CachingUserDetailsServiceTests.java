@@ -0,0 +1,50 @@
+package com.zair.services.impl;
+
+import com.zair.models.entities.User;
+import com.zair.models.enums.UserRole;
+import com.zair.utils.AuthMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CachingUserDetailsServiceTests {
+
+    private final AtomicInteger byUsername = new AtomicInteger();
+
+    private final AtomicInteger byId = new AtomicInteger();
+
+    private final CachingUserDetailsService service = new CachingUserDetailsService(
+            username -> user(byUsername.incrementAndGet()),
+            id -> user(byId.incrementAndGet()),
+            true, Duration.ofMinutes(5), 100, new AuthMetrics(new SimpleMeterRegistry(), false));
+
+    @Test
+    void cachesLookupsByUsernameAndById() {
+        service.loadUserByUsername("user@example.com");
+        service.loadUserByUsername("user@example.com");
+        service.loadUserById(42L);
+        service.loadUserById(42L);
+
+        assertEquals(1, byUsername.get());
+        assertEquals(1, byId.get());
+    }
+
+    @Test
+    void evictInvalidatesBothEntriesOfTheUser() {
+        service.loadUserByUsername("user@example.com");
+        service.loadUserById(42L);
+
+        service.evict("user@example.com", 42L);
+
+        assertEquals("Name2", ((User) service.loadUserByUsername("user@example.com")).getName());
+        assertEquals("Name2", ((User) service.loadUserById(42L)).getName());
+    }
+
+    private static User user(int version) {
+        return new User(42L, "Name" + version, "Last", "user@example.com", "password", UserRole.CLIENT);
+    }
+}
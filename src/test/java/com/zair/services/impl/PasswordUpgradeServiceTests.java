@@ -0,0 +1,86 @@
+package com.zair.services.impl;
+
+import com.zair.models.entities.User;
+import com.zair.models.enums.UserRole;
+import com.zair.repositories.UserRepository;
+import com.zair.utils.AuthMetrics;
+import com.zair.utils.ReadYourWritesTracker;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PasswordUpgradeServiceTests {
+
+    private static final String PASSWORD = "password";
+
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(5);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final AtomicReference<User> saved = new AtomicReference<>();
+
+    @Test
+    void rehashesWeakerHashesOnSuccessfulLogin() {
+        User user = user(new BCryptPasswordEncoder(4).encode(PASSWORD));
+
+        login(user);
+
+        User updated = saved.get();
+        assertNotNull(updated);
+        assertFalse(encoder.upgradeEncoding(updated.getPassword()));
+        assertTrue(encoder.matches(PASSWORD, updated.getPassword()));
+        assertTrue(updated.getPassword().startsWith("$2a$05$"));
+    }
+
+    @Test
+    void keepsHashesAtTheCurrentStrength() {
+        String hash = encoder.encode(PASSWORD);
+
+        login(user(hash));
+
+        assertNull(saved.get());
+        verify(userRepository, never()).save(any());
+    }
+
+    private void login(User user) {
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User entity = invocation.getArgument(0);
+            saved.set(entity);
+            return entity;
+        });
+
+        CachingUserDetailsService cache = new CachingUserDetailsService(username -> user, id -> user, false,
+                Duration.ZERO, 0, AuthMetrics.noop());
+        PasswordUpgradeService upgradeService = new PasswordUpgradeService(userRepository, cache,
+                new ReadYourWritesTracker("", Duration.ZERO, 0));
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(username -> userRepository.findByEmail(username).orElseThrow());
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsPasswordService(upgradeService);
+
+        assertEquals(user.getEmail(), provider.authenticate(
+                new UsernamePasswordAuthenticationToken(user.getEmail(), PASSWORD)).getName());
+    }
+
+    private static User user(String hash) {
+        return new User(42L, "Name", "Last", "user@example.com", hash, UserRole.CLIENT);
+    }
+}
@@ -0,0 +1,94 @@
+package com.zair.services.impl;
+
+import com.zair.models.dtos.LoginDTO;
+import com.zair.models.entities.User;
+import com.zair.models.enums.UserRole;
+import com.zair.repositories.ReactiveUserRepository;
+import com.zair.repositories.RevocationStore;
+import com.zair.utils.AuthMetrics;
+import com.zair.utils.JwtUtil;
+import com.zair.utils.PasswordHashingExecutor;
+import com.zair.utils.SigningKeyRing;
+import com.zair.utils.TokenRevocationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactiveAuthServiceImplTests {
+
+    private final PasswordEncoder passwordEncoder = spy(new BCryptPasswordEncoder(4));
+
+    private final ReactiveUserRepository userRepository = mock(ReactiveUserRepository.class);
+
+    private final PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor(1, 4, Duration.ofSeconds(1));
+
+    private final JwtUtil jwtUtil = new JwtUtil("Jz0Op5yWlA3BG4c$8UtR6Q9rFhvx7ohD", 3_600_000L, false, false,
+            new SigningKeyRing("HS256", 3_600_000L, "", "", Duration.ZERO, ""), AuthMetrics.noop());
+
+    private final ReactiveAuthServiceImpl service = new ReactiveAuthServiceImpl(jwtUtil, userRepository, passwordEncoder,
+            hashingExecutor, new TokenRevocationRegistry(
+                    new DefaultListableBeanFactory().getBeanProvider(RevocationStore.class), 1_000, 0.01),
+            AuthMetrics.noop());
+
+    @AfterEach
+    void shutdown() {
+        hashingExecutor.shutdown();
+    }
+
+    @Test
+    void issuesATokenForValidCredentials() {
+        User user = user(passwordEncoder.encode("secret"));
+        when(userRepository.findByEmail("user@example.com")).thenReturn(Mono.just(user));
+
+        StepVerifier.create(service.login(login("user@example.com", "secret")))
+                .assertNext(auth -> assertEquals("user@example.com", jwtUtil.verifyToken(auth.getToken()).subject()))
+                .verifyComplete();
+    }
+
+    @Test
+    void rejectsAWrongPassword() {
+        User user = user(passwordEncoder.encode("secret"));
+        when(userRepository.findByEmail("user@example.com")).thenReturn(Mono.just(user));
+
+        StepVerifier.create(service.login(login("user@example.com", "wrong")))
+                .verifyError(BadCredentialsException.class);
+    }
+
+    @Test
+    void unknownEmailsStillGoThroughThePasswordEncoder() {
+        when(userRepository.findByEmail("nobody@example.com")).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.login(login("nobody@example.com", "secret")))
+                .verifyError(BadCredentialsException.class);
+
+        verify(passwordEncoder, times(1)).matches(eq("secret"), anyString());
+    }
+
+    private static User user(String password) {
+        return new User(42L, "Name", "Last", "user@example.com", password, UserRole.CLIENT);
+    }
+
+    private static LoginDTO login(String email, String password) {
+        LoginDTO login = new LoginDTO();
+        login.setEmail(email);
+        login.setPassword(password);
+
+        return login;
+    }
+}
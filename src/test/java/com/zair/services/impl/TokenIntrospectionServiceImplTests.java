@@ -0,0 +1,145 @@
+package com.zair.services.impl;
+
+import com.zair.models.dtos.IntrospectionResultDTO;
+import com.zair.models.entities.User;
+import com.zair.models.enums.UserRole;
+import com.zair.repositories.RevocationStore;
+import com.zair.utils.AuthMetrics;
+import com.zair.utils.JwtUtil;
+import com.zair.utils.SigningKeyRing;
+import com.zair.utils.TokenRevocationRegistry;
+import com.zair.utils.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenIntrospectionServiceImplTests {
+
+    private final AuthMetrics metrics = new AuthMetrics(new SimpleMeterRegistry(), false);
+
+    private final JwtUtil jwtUtil = new JwtUtil("Jz0Op5yWlA3BG4c$8UtR6Q9rFhvx7ohD", 3_600_000L, true, false,
+            new SigningKeyRing("HS256", 3_600_000L, "", "", Duration.ZERO, ""), metrics);
+
+    private final TokenRevocationRegistry revocationRegistry = new TokenRevocationRegistry(
+            new DefaultListableBeanFactory().getBeanProvider(RevocationStore.class), 1_000, 0.01);
+
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+
+    private final Set<String> lookupThreads = ConcurrentHashMap.newKeySet();
+
+    private final List<TokenIntrospectionServiceImpl> services = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        services.forEach(TokenIntrospectionServiceImpl::shutdown);
+    }
+
+    @Test
+    void keepsTheOrderOfTheTokensAcrossChunks() {
+        List<String> tokens = IntStream.range(0, 40)
+                .mapToObj(i -> i % 5 == 0 ? "not-a-token" : "Bearer " + jwtUtil.generateToken(user(i)))
+                .toList();
+
+        List<IntrospectionResultDTO> results = service(4, 3).introspect(tokens);
+
+        assertEquals(tokens.size(), results.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            IntrospectionResultDTO result = results.get(i);
+            if (i % 5 == 0) {
+                assertFalse(result.isActive());
+                assertEquals("MALFORMED", result.getReason());
+            } else {
+                assertTrue(result.isActive());
+                assertEquals("user" + i + "@example.com", result.getSub());
+                assertEquals(i, result.getUserId());
+            }
+        }
+    }
+
+    @Test
+    void splitsLargeBatchesBetweenTheCallerAndThePool() {
+        List<String> tokens = IntStream.range(0, 12).mapToObj(i -> jwtUtil.generateToken(user(i))).toList();
+
+        service(4, 3).introspect(tokens);
+
+        assertTrue(lookupThreads.contains(Thread.currentThread().getName()));
+        assertTrue(lookupThreads.stream().anyMatch(name -> name.startsWith("token-introspection-")), lookupThreads::toString);
+    }
+
+    @Test
+    void verifiesSmallBatchesOnTheCallingThread() {
+        List<String> tokens = IntStream.range(0, 3).mapToObj(i -> jwtUtil.generateToken(user(i))).toList();
+
+        service(4, 3).introspect(tokens);
+
+        assertEquals(Set.of(Thread.currentThread().getName()), lookupThreads);
+    }
+
+    @Test
+    void reportsRevokedAndUnknownUsers() {
+        User known = user(1);
+        String revoked = jwtUtil.generateToken(user(2));
+        revocationRegistry.revoke(jwtUtil.verifyToken(revoked));
+        String unknown = jwtUtil.generateToken(new User(99L, "Name", "Last", "gone@example.com", "password", UserRole.CLIENT));
+
+        List<IntrospectionResultDTO> results = service(16, 2).introspect(
+                List.of(jwtUtil.generateToken(known), revoked, unknown));
+
+        assertTrue(results.get(0).isActive());
+        assertEquals(UserRole.CLIENT, results.get(0).getRole());
+        assertEquals(new IntrospectionResultDTO(false, null, null, null, null, "REVOKED"), results.get(1));
+        assertEquals(new IntrospectionResultDTO(false, null, null, null, null, "UNKNOWN_USER"), results.get(2));
+    }
+
+    @Test
+    void rejectsBatchesOverTheMaximum() {
+        TokenIntrospectionServiceImpl service = service(16, 2);
+        List<String> tokens = Collections.nCopies(service.getMaxTokens() + 1, "not-a-token");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> service.introspect(tokens));
+        assertEquals("At most 50 tokens per request", e.getMessage());
+    }
+
+    private TokenIntrospectionServiceImpl service(int parallelThreshold, int threads) {
+        CachingUserDetailsService userDetailsService = new CachingUserDetailsService(
+                username -> {
+                    lookupThreads.add(Thread.currentThread().getName());
+                    User user = users.get(username);
+                    if (user == null) {
+                        throw new UsernameNotFoundException("User not found");
+                    }
+                    return user;
+                },
+                id -> {
+                    throw new UsernameNotFoundException("User not found");
+                },
+                false, Duration.ZERO, 0, metrics);
+
+        TokenIntrospectionServiceImpl service = new TokenIntrospectionServiceImpl(new VerifiedTokenCache(jwtUtil, false, 0),
+                revocationRegistry, userDetailsService, jwtUtil, metrics, false, 50, parallelThreshold, threads);
+        services.add(service);
+        return service;
+    }
+
+    private User user(int id) {
+        User user = new User((long) id, "Name", "Last", "user" + id + "@example.com", "password", UserRole.CLIENT);
+        users.put(user.getEmail(), user);
+        return user;
+    }
+}
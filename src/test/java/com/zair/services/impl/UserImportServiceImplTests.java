@@ -0,0 +1,218 @@
+package com.zair.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zair.models.dtos.ImportErrorDTO;
+import com.zair.models.dtos.ImportProgressDTO;
+import com.zair.models.entities.User;
+import com.zair.models.enums.ImportFormat;
+import com.zair.models.enums.UserRole;
+import com.zair.repositories.UserBatchRepository;
+import com.zair.services.UserImportService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserImportServiceImplTests {
+
+    private static final String HEADER = "email,role,name,lastName,password";
+
+    private final UserBatchRepository batchRepository = mock(UserBatchRepository.class);
+
+    private final List<List<User>> batches = new ArrayList<>();
+
+    private final List<ImportErrorDTO> errors = new ArrayList<>();
+
+    private final List<ImportProgressDTO> reports = new ArrayList<>();
+
+    private final UserImportService.Listener listener = new UserImportService.Listener() {
+        @Override
+        public void onError(ImportErrorDTO error) {
+            errors.add(error);
+        }
+
+        @Override
+        public void onProgress(ImportProgressDTO progress) {
+            reports.add(progress);
+        }
+    };
+
+    private UserImportServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        when(batchRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        doAnswer(invocation -> batches.add(List.copyOf(invocation.getArgument(0))))
+                .when(batchRepository).insertAll(any());
+        service = service(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void parsesCsvColumnsInAnyOrderWithQuotedFields() throws Exception {
+        ImportProgressDTO result = importCsv(
+                "ana@example.com,client,\"Ana, María\",\"O\"\"Neil\",secret");
+
+        assertEquals(1, result.getImported());
+        User user = batches.get(0).get(0);
+        assertEquals("Ana, María", user.getName());
+        assertEquals("O\"Neil", user.getLastName());
+        assertEquals("ana@example.com", user.getEmail());
+        assertEquals(UserRole.CLIENT, user.getRole());
+        assertEquals("hashed:secret", user.getPassword());
+    }
+
+    @Test
+    void reportsInvalidRowsWithTheirLineNumbers() throws Exception {
+        ImportProgressDTO result = importCsv(
+                "ana@example.com,CLIENT,Ana,Ruiz",
+                "ana@example.com,GUEST,Ana,Ruiz,secret",
+                "not-an-email,CLIENT,Ana,Ruiz,secret",
+                ",CLIENT,Ana,Ruiz,secret",
+                "ana@example.com,CLIENT, ,Ruiz,secret",
+                "",
+                "ana@example.com,ADMIN,Ana,Ruiz,secret");
+
+        assertEquals(1, result.getImported());
+        assertEquals(5, result.getRejected());
+        assertError(0, 2, null, "Malformed row: Expected 5 fields, found 4");
+        assertError(1, 3, null, "Malformed row: Unknown role: GUEST");
+        assertError(2, 4, "not-an-email", "Invalid email");
+        assertError(3, 5, "", "Missing field: email");
+        assertError(4, 6, "ana@example.com", "Missing field: name");
+    }
+
+    @Test
+    void readsNdjsonRows() throws Exception {
+        ImportProgressDTO result = service.importUsers(reader(
+                "{\"name\":\"Ana\",\"lastName\":\"Ruiz\",\"email\":\"ana@example.com\",\"password\":\"secret\",\"role\":\"ADMIN\"}",
+                "{\"name\":"), ImportFormat.NDJSON, listener);
+
+        assertEquals(1, result.getImported());
+        assertEquals(UserRole.ADMIN, batches.get(0).get(0).getRole());
+        assertEquals(1, errors.size());
+        assertEquals(2, errors.get(0).getLine());
+    }
+
+    @Test
+    void rejectsDuplicatesInTheBatchAndRegisteredEmails() throws Exception {
+        when(batchRepository.findExistingEmails(anyCollection())).thenReturn(Set.of("Taken@example.com"));
+
+        ImportProgressDTO result = importCsv(
+                "ana@example.com,CLIENT,Ana,Ruiz,secret",
+                "ANA@example.com,CLIENT,Ana,Ruiz,secret",
+                "taken@example.com,CLIENT,Ana,Ruiz,secret");
+
+        assertEquals(1, result.getImported());
+        assertError(0, 3, "ANA@example.com", "Duplicate email in import");
+        assertError(1, 4, "taken@example.com", "Email already registered");
+    }
+
+    @Test
+    void insertsInBatchesAndReportsProgressAfterEach() throws Exception {
+        ImportProgressDTO result = importCsv(
+                "a@example.com,CLIENT,A,A,secret",
+                "b@example.com,CLIENT,B,B,secret",
+                "c@example.com,CLIENT,C,C,secret",
+                "d@example.com,CLIENT,D,D,secret",
+                "e@example.com,CLIENT,E,E,secret");
+
+        assertEquals(List.of(2, 2, 1), batches.stream().map(List::size).toList());
+        assertEquals(List.of(2L, 4L, 5L), reports.stream().map(ImportProgressDTO::getImported).toList());
+        assertEquals(5, result.getProcessed());
+        assertEquals(0, result.getRejected());
+    }
+
+    @Test
+    void fallsBackToSingleInsertsWhenTheBatchHitsTheUniqueConstraint() throws Exception {
+        doThrow(new DuplicateKeyException("email")).when(batchRepository).insertAll(any());
+        doThrow(new DuplicateKeyException("email")).when(batchRepository)
+                .insert(argThat(user -> user.getEmail().equals("b@example.com")));
+
+        ImportProgressDTO result = importCsv(
+                "a@example.com,CLIENT,A,A,secret",
+                "b@example.com,CLIENT,B,B,secret");
+
+        assertEquals(1, result.getImported());
+        assertError(0, 3, "b@example.com", "Email already registered");
+    }
+
+    @Test
+    void reportsHashingFailuresAsRowErrors() throws Exception {
+        ImportProgressDTO result = importCsv(
+                "a@example.com,CLIENT,A,A,fail",
+                "b@example.com,CLIENT,B,B,secret");
+
+        assertEquals(1, result.getImported());
+        assertEquals("b@example.com", batches.get(0).get(0).getEmail());
+        assertError(0, 2, "a@example.com", "Password hashing failed");
+    }
+
+    @Test
+    void rejectsHeadersWithoutEveryColumn() {
+        assertThrows(IllegalArgumentException.class, () -> service.importUsers(reader("email,name,lastName,password"),
+                ImportFormat.CSV, listener));
+        assertThrows(IllegalArgumentException.class, () -> service.importUsers(reader(), ImportFormat.CSV, listener));
+    }
+
+    private ImportProgressDTO importCsv(String... rows) throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        lines.addAll(List.of(rows));
+
+        return service.importUsers(reader(lines.toArray(String[]::new)), ImportFormat.CSV, listener);
+    }
+
+    private void assertError(int index, long line, String email, String error) {
+        assertEquals(new ImportErrorDTO(line, email, error), errors.get(index));
+    }
+
+    private UserImportServiceImpl service(int batchSize) {
+        PasswordEncoder encoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                if ("fail".contentEquals(rawPassword)) {
+                    throw new IllegalStateException("Hashing failed");
+                }
+                return "hashed:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals(encode(rawPassword));
+            }
+        };
+
+        return new UserImportServiceImpl(batchRepository, encoder,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), 2, batchSize);
+    }
+
+    private static BufferedReader reader(String... lines) {
+        return new BufferedReader(new StringReader(String.join("\n", lines)));
+    }
+}
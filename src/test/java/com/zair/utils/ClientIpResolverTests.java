@@ -0,0 +1,22 @@
+package com.zair.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClientIpResolverTests {
+
+    @Test
+    void resolvesTheClientBehindTrustedProxies() {
+        ClientIpResolver direct = new ClientIpResolver(List.of());
+        ClientIpResolver proxied = new ClientIpResolver(List.of("10.0.0.0/8", "192.168.1.1"));
+
+        assertEquals("10.0.0.5", direct.resolve("10.0.0.5", List.of("203.0.113.7")));
+        assertEquals("198.51.100.2", proxied.resolve("198.51.100.2", List.of("203.0.113.7")));
+        assertEquals("203.0.113.7", proxied.resolve("10.0.0.5", List.of("1.2.3.4, 203.0.113.7", "192.168.1.1")));
+        assertEquals("spoofed", proxied.resolve("10.0.0.5", List.of("spoofed, 10.1.1.1")));
+        assertEquals("10.0.0.5", proxied.resolve("10.0.0.5", null));
+    }
+}
@@ -0,0 +1,172 @@
+package com.zair.utils;
+
+import com.zair.models.entities.User;
+import com.zair.models.enums.UserRole;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Hs256TokenCodecTests {
+
+    private static final SecretKey KEY = Keys.hmacShaKeyFor("Jz0Op5yWlA3BG4c$8UtR6Q9rFhvx7ohD".getBytes());
+
+    private static final String TOKEN_ID = "3q2-7wAAAAC6ZWmlYYGJPw";
+
+    private final Hs256TokenCodec codec = new Hs256TokenCodec(KEY);
+
+    @Test
+    void encodeMatchesJjwtByteForByte() {
+        long now = System.currentTimeMillis();
+
+        for (User user : new User[]{
+                user(42L, "user@example.com", UserRole.ADMIN),
+                user(7L, "josé.núñez@ejemplo.es", UserRole.CLIENT),
+                user(Long.MAX_VALUE, "a/b+c@example.com", UserRole.CLIENT)
+        }) {
+            assertEquals(jjwtToken(user, now, now + 3_600_000), codec.encode(user, TOKEN_ID, now, now + 3_600_000));
+        }
+    }
+
+    @Test
+    void decodeReadsJjwtTokens() {
+        long now = System.currentTimeMillis();
+        User user = user(42L, "user@example.com", UserRole.ADMIN);
+
+        VerifiedToken verified = codec.decode(jjwtToken(user, now, now + 3_600_000));
+
+        assertNotNull(verified);
+        assertEquals("user@example.com", verified.subject());
+        assertEquals(42L, verified.userId());
+        assertEquals(UserRole.ADMIN, verified.role());
+        assertEquals(UserRole.ADMIN.getPermissions(), verified.permissions());
+        assertEquals((now + 3_600_000) / 1000, verified.expiration().getEpochSecond());
+        assertEquals(now / 1000, verified.issuedAt().getEpochSecond());
+        assertEquals(TOKEN_ID, verified.tokenId());
+    }
+
+    @Test
+    void decodeReadsTokensWithoutTokenId() {
+        long now = System.currentTimeMillis();
+        String token = Jwts.builder().header().type("JWT").and().subject("user@example.com")
+                .claim("role", "CLIENT").claim("user_id", 7L)
+                .issuedAt(new Date(now)).expiration(new Date(now + 3_600_000)).signWith(KEY, Jwts.SIG.HS256).compact();
+
+        VerifiedToken verified = codec.decode(token);
+
+        assertNotNull(verified);
+        assertEquals(7L, verified.userId());
+        assertEquals(UserRole.CLIENT.getPermissions(), verified.permissions());
+        assertNull(verified.tokenId());
+    }
+
+    @Test
+    void decodeFallsBackForUnexpectedTokens() {
+        long now = System.currentTimeMillis();
+        User user = user(42L, "user@example.com", UserRole.ADMIN);
+        String token = jjwtToken(user, now, now + 3_600_000);
+
+        // Firma alterada
+        char last = token.charAt(token.length() - 2);
+        assertNull(codec.decode(token.substring(0, token.length() - 2) + (last == 'A' ? 'B' : 'A') + token.charAt(token.length() - 1)));
+        // Token expirado
+        assertNull(codec.decode(jjwtToken(user, now - 7_200_000, now - 3_600_000)));
+        // Claims adicionales
+        assertNull(codec.decode(Jwts.builder().header().type("JWT").and().subject("user@example.com").claim("x", 1)
+                .issuedAt(new Date(now)).expiration(new Date(now + 3_600_000)).signWith(KEY, Jwts.SIG.HS256).compact()));
+        // Basura estructural
+        assertNull(codec.decode("not-a-token"));
+    }
+
+    @Test
+    void validateReportsRejectionReasons() {
+        long now = System.currentTimeMillis();
+        User user = user(42L, "user@example.com", UserRole.ADMIN);
+        String token = jjwtToken(user, now, now + 3_600_000);
+        int payloadChar = token.indexOf('.') + 10;
+        String tampered = token.substring(0, payloadChar) + (token.charAt(payloadChar) == 'A' ? 'B' : 'A')
+                + token.substring(payloadChar + 1);
+
+        assertEquals(TokenValidation.Invalid.BAD_SIGNATURE, codec.validate(tampered));
+        assertEquals(TokenValidation.Invalid.EXPIRED, codec.validate(jjwtToken(user, now - 7_200_000, now - 3_600_000)));
+        assertNull(codec.validate("not-a-token"));
+
+        // Sin HMAC solo se rechaza lo que no depende de la firma, y ningún token se acepta
+        assertNull(codec.validate(tampered, false));
+        assertNull(codec.validate(token, false));
+        assertEquals(TokenValidation.Invalid.EXPIRED, codec.validate(jjwtToken(user, now - 7_200_000, now - 3_600_000), false));
+        assertEquals(TokenValidation.Invalid.BAD_SIGNATURE, codec.validate(token.substring(0, token.length() - 4), false));
+
+        assertFalse(TokenValidation.isWellFormed("Bearer not-a-token", 7));
+        assertFalse(TokenValidation.isWellFormed(token + ".x", 0));
+        assertTrue(TokenValidation.isWellFormed("Bearer " + token, 7));
+    }
+
+    @Test
+    void encodeCompactMatchesJjwtAndDecodes() {
+        long now = System.currentTimeMillis();
+
+        for (User user : new User[]{
+                user(42L, "user@example.com", UserRole.ADMIN),
+                user(7L, "josé.núñez@ejemplo.es", UserRole.CLIENT)
+        }) {
+            String token = codec.encodeCompact(user, TOKEN_ID, now, now + 3_600_000);
+            assertEquals(Jwts.builder()
+                    .claim("v", 1)
+                    .subject(user.getId().toString())
+                    .claim("r", user.getRole().getCode())
+                    .id(TOKEN_ID)
+                    .issuedAt(new Date(now))
+                    .expiration(new Date(now + 3_600_000))
+                    .signWith(KEY, Jwts.SIG.HS256)
+                    .compact(), token);
+
+            VerifiedToken verified = codec.decode(token);
+            assertNotNull(verified);
+            assertNull(verified.subject());
+            assertEquals(user.getId(), verified.userId());
+            assertEquals(user.getRole(), verified.role());
+            assertEquals(TOKEN_ID, verified.tokenId());
+            assertTrue(token.length() < codec.encode(user, TOKEN_ID, now, now + 3_600_000).length());
+        }
+    }
+
+    @Test
+    void encodeFallsBackForValuesThatNeedEscaping() {
+        assertNull(codec.encode(user(1L, "quote\"@example.com", UserRole.CLIENT), TOKEN_ID, 0, 1000));
+        assertNull(codec.encode(user(null, "user@example.com", UserRole.CLIENT), TOKEN_ID, 0, 1000));
+    }
+
+    private static String jjwtToken(User user, long issuedAt, long expiration) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("user_id", user.getId());
+        claims.put("role", user.getRole().name());
+        claims.put("perms", user.getRole().getPermissions());
+
+        return Jwts.builder()
+                .header()
+                .type("JWT")
+                .and()
+                .subject(user.getEmail())
+                .claims(claims)
+                .id(TOKEN_ID)
+                .issuedAt(new Date(issuedAt))
+                .expiration(new Date(expiration))
+                .signWith(KEY, Jwts.SIG.HS256)
+                .compact();
+    }
+
+    private static User user(Long id, String email, UserRole role) {
+        return new User(id, "Name", "Last", email, "password", role);
+    }
+}
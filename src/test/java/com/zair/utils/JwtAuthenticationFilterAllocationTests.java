@@ -0,0 +1,119 @@
+package com.zair.utils;
+
+import com.zair.configuration.security.SecurityRoutesConfig;
+import com.zair.models.entities.User;
+import com.zair.models.enums.UserRole;
+import com.zair.repositories.RevocationStore;
+import com.zair.services.impl.CachingUserDetailsService;
+import jakarta.servlet.FilterChain;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Verifica el presupuesto de asignación de memoria por solicitud autenticada de JwtAuthenticationFilter,
+ * con la caché de tokens y las métricas habilitadas, midiendo los bytes asignados por el hilo con ThreadMXBean.
+ * <p>
+ * La medición se hace en un hilo de plataforma propio: los búferes de {@link BufferPool} se reparten por hilo,
+ * y en un hilo dedicado la ranura que se llena durante el calentamiento se reutiliza en cada solicitud medida.
+ */
+class JwtAuthenticationFilterAllocationTests {
+
+    /**
+     * Bytes por solicitud: JwtPrincipal, JwtAuthentication, WebAuthenticationDetails, el contexto de seguridad
+     * y la búsqueda de la cabecera en MockHttpServletRequest, con margen para las variaciones del JIT.
+     */
+    private static final long ALLOCATION_BUDGET_BYTES = 256;
+
+    private static final int WARMUP_REQUESTS = 50_000;
+
+    private static final int MEASURED_REQUESTS = 20_000;
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void authenticatedRequestStaysWithinAllocationBudget(boolean stateless) throws Throwable {
+        assumeTrue(THREAD_MX_BEAN.isThreadAllocatedMemorySupported());
+        THREAD_MX_BEAN.setThreadAllocatedMemoryEnabled(true);
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                measure(stateless);
+            } catch (Throwable e) {
+                failure.set(e);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        }, "allocation-budget");
+        thread.start();
+        thread.join();
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    private static void measure(boolean stateless) throws Exception {
+        AuthMetrics metrics = new AuthMetrics(new SimpleMeterRegistry(), false);
+        JwtUtil jwtUtil = new JwtUtil("Jz0Op5yWlA3BG4c$8UtR6Q9rFhvx7ohD", 3_600_000L, false, false,
+                new SigningKeyRing("HS256", 3_600_000L, "", "", Duration.ZERO, ""), metrics);
+        TokenRevocationRegistry registry = new TokenRevocationRegistry(
+                new DefaultListableBeanFactory().getBeanProvider(RevocationStore.class), 1_000, 0.01);
+        User user = new User(42L, "Name", "Last", "user@example.com", "password", UserRole.CLIENT);
+
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, new VerifiedTokenCache(jwtUtil, true, 1_000),
+                registry, new CachingUserDetailsService(username -> user, id -> user, false, Duration.ZERO, 0, metrics), metrics, new SecurityRoutesConfig().securityRoutes());
+        ReflectionTestUtils.setField(filter, "statelessMode", stateless);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/client");
+        request.setServletPath("/api/users/client");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(user));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> { };
+
+        filter.doFilterInternal(request, response, chain);
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(UserRole.CLIENT.getAuthorities(), SecurityContextHolder.getContext().getAuthentication().getAuthorities());
+
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            SecurityContextHolder.clearContext();
+            filter.doFilterInternal(request, response, chain);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            SecurityContextHolder.clearContext();
+            filter.doFilterInternal(request, response, chain);
+        }
+        long perRequest = (THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - before) / MEASURED_REQUESTS;
+
+        assertEquals(200, response.getStatus());
+        assertTrue(perRequest <= ALLOCATION_BUDGET_BYTES,
+                () -> "stateless=" + stateless + " allocated " + perRequest + " bytes per request, budget is " + ALLOCATION_BUDGET_BYTES);
+    }
+}
@@ -0,0 +1,129 @@
+package com.zair.utils;
+
+import com.zair.configuration.security.SecurityRoutesConfig;
+import com.zair.models.entities.User;
+import com.zair.models.enums.UserRole;
+import com.zair.repositories.RevocationStore;
+import com.zair.services.impl.CachingUserDetailsService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Verifica la respuesta de JwtAuthenticationFilter a los tokens aceptados y rechazados, con y sin el códec
+ * HS256 rápido.
+ */
+class JwtAuthenticationFilterTests {
+
+    private static final String SECRET = "Jz0Op5yWlA3BG4c$8UtR6Q9rFhvx7ohD";
+
+    private final User user = new User(42L, "Name", "Last", "user@example.com", "password", UserRole.CLIENT);
+
+    private final AtomicInteger chainCalls = new AtomicInteger();
+
+    private final FilterChain chain = (req, res) -> chainCalls.incrementAndGet();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void authenticatesValidTokens(boolean fastCodec) throws Exception {
+        JwtUtil jwtUtil = jwtUtil(fastCodec);
+        MockHttpServletResponse response = filter(jwtUtil, jwtUtil.generateToken(user));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(1, chainCalls.get());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void rejectsTamperedTokensWithoutThrowing(boolean fastCodec) throws Exception {
+        JwtUtil jwtUtil = jwtUtil(fastCodec);
+        String token = jwtUtil.generateToken(user);
+        int payloadChar = token.indexOf('.') + 10;
+        String tampered = token.substring(0, payloadChar) + (token.charAt(payloadChar) == 'A' ? 'B' : 'A')
+                + token.substring(payloadChar + 1);
+
+        assertRejected(jwtUtil, tampered, TokenValidation.Invalid.BAD_SIGNATURE);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void rejectsExpiredTokensWithoutThrowing(boolean fastCodec) throws Exception {
+        long now = System.currentTimeMillis();
+        String expired = Jwts.builder().header().type("JWT").and()
+                .subject(user.getEmail())
+                .claim("role", user.getRole().name())
+                .claim("user_id", user.getId())
+                .issuedAt(new Date(now - 7_200_000))
+                .expiration(new Date(now - 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), Jwts.SIG.HS256)
+                .compact();
+
+        assertRejected(jwtUtil(fastCodec), expired, TokenValidation.Invalid.EXPIRED);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void rejectsMalformedTokensWithoutThrowing(boolean fastCodec) throws Exception {
+        JwtUtil jwtUtil = jwtUtil(fastCodec);
+
+        assertRejected(jwtUtil, "not-a-token", TokenValidation.Invalid.MALFORMED);
+        assertRejected(jwtUtil, "a.b.c", TokenValidation.Invalid.MALFORMED);
+    }
+
+    private void assertRejected(JwtUtil jwtUtil, String token, TokenValidation.Invalid reason) throws Exception {
+        MockHttpServletResponse response = assertDoesNotThrow(() -> filter(jwtUtil, token));
+
+        assertEquals(401, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertEquals("{\"error\": \"" + reason.message() + "\"}", response.getContentAsString());
+        assertEquals(0, chainCalls.get());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private MockHttpServletResponse filter(JwtUtil jwtUtil, String token) throws Exception {
+        AuthMetrics metrics = new AuthMetrics(new SimpleMeterRegistry(), false);
+        TokenRevocationRegistry registry = new TokenRevocationRegistry(
+                new DefaultListableBeanFactory().getBeanProvider(RevocationStore.class), 1_000, 0.01);
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, new VerifiedTokenCache(jwtUtil, true, 1_000),
+                registry, new CachingUserDetailsService(username -> user, id -> user, false, Duration.ZERO, 0, metrics),
+                metrics, new SecurityRoutesConfig().securityRoutes());
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/client");
+        request.setServletPath("/api/users/client");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilterInternal(request, response, chain);
+        return response;
+    }
+
+    private static JwtUtil jwtUtil(boolean fastCodec) {
+        return new JwtUtil(SECRET, 3_600_000L, fastCodec, false,
+                new SigningKeyRing("HS256", 3_600_000L, "", "", Duration.ZERO, ""),
+                new AuthMetrics(new SimpleMeterRegistry(), false));
+    }
+}
@@ -0,0 +1,94 @@
+package com.zair.utils;
+
+import com.zair.models.entities.User;
+import com.zair.models.enums.UserRole;
+import com.zair.repositories.ReactiveUserRepository;
+import com.zair.repositories.RevocationStore;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.context.SecurityContext;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtServerSecurityContextRepositoryTests {
+
+    private static final String SECRET = "Jz0Op5yWlA3BG4c$8UtR6Q9rFhvx7ohD";
+
+    private final User user = new User(42L, "Name", "Last", "user@example.com", "password", UserRole.CLIENT);
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 3_600_000L, false, false,
+            new SigningKeyRing("HS256", 3_600_000L, "", "", Duration.ZERO, ""), AuthMetrics.noop());
+
+    private final TokenRevocationRegistry revocationRegistry = new TokenRevocationRegistry(
+            new DefaultListableBeanFactory().getBeanProvider(RevocationStore.class), 1_000, 0.01);
+
+    private final ReactiveUserRepository userRepository = mock(ReactiveUserRepository.class);
+
+    private final JwtServerSecurityContextRepository repository = new JwtServerSecurityContextRepository(
+            new JwtReactiveAuthenticationManager(jwtUtil, new VerifiedTokenCache(jwtUtil, true, 1_000),
+                    revocationRegistry, userRepository, AuthMetrics.noop()));
+
+    @Test
+    void loadsTheUserOfAValidToken() {
+        when(userRepository.findByEmail("user@example.com")).thenReturn(Mono.just(user));
+
+        StepVerifier.create(load("Bearer " + jwtUtil.generateToken(user)))
+                .assertNext(context -> {
+                    assertEquals(user, context.getAuthentication().getPrincipal());
+                    assertEquals(UserRole.CLIENT.getAuthorities(), context.getAuthentication().getAuthorities());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void rejectsRevokedTokens() {
+        when(userRepository.findByEmail("user@example.com")).thenReturn(Mono.just(user));
+        String token = jwtUtil.generateToken(user);
+        revocationRegistry.revoke(jwtUtil.verifyToken(token));
+
+        StepVerifier.create(load("Bearer " + token)).verifyComplete();
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        when(userRepository.findByEmail("user@example.com")).thenReturn(Mono.just(user));
+        long now = System.currentTimeMillis();
+        String expired = Jwts.builder().header().type("JWT").and()
+                .subject(user.getEmail())
+                .claim("role", user.getRole().name())
+                .claim("user_id", user.getId())
+                .issuedAt(new Date(now - 7_200_000))
+                .expiration(new Date(now - 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), Jwts.SIG.HS256)
+                .compact();
+
+        StepVerifier.create(load("Bearer " + expired)).verifyComplete();
+    }
+
+    @Test
+    void ignoresRequestsWithoutABearerToken() {
+        StepVerifier.create(load(null)).verifyComplete();
+        StepVerifier.create(load("Basic dXNlcjpwYXNz")).verifyComplete();
+    }
+
+    private Mono<SecurityContext> load(String authorization) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/users/client");
+        if (authorization != null) {
+            request.header(HttpHeaders.AUTHORIZATION, authorization);
+        }
+
+        return repository.load(MockServerWebExchange.from(request));
+    }
+}
@@ -0,0 +1,74 @@
+package com.zair.utils;
+
+import com.zair.models.entities.LoginEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginEventPipelineTests {
+
+    @Test
+    void writesFullBatchesAndFlushesTheRestOnShutdown() throws Exception {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        List<LoginEvent> events = new CopyOnWriteArrayList<>();
+        LoginEventPipeline pipeline = new LoginEventPipeline(batch -> {
+            batchSizes.add(batch.size());
+            events.addAll(batch);
+        }, true, 64, 4, Duration.ofMinutes(1), LoginEventPipeline.OverflowPolicy.DROP, 10, Duration.ZERO);
+
+        for (int i = 0; i < 10; i++) {
+            pipeline.record("user" + i + "@example.com", i % 2 == 0 ? (long) i + 1 : null, i % 2 == 0, "10.0.0." + i);
+        }
+        pipeline.shutdown();
+
+        assertEquals(List.of(4, 4, 2), batchSizes);
+        assertEquals(10, pipeline.getWrittenCount());
+        assertEquals("user3@example.com", events.get(3).getEmail());
+        assertNull(events.get(3).getUserId());
+        assertFalse(events.get(3).isSuccess());
+        assertEquals(5L, events.get(4).getUserId());
+        assertEquals("10.0.0.4", events.get(4).getIpAddress());
+    }
+
+    @Test
+    void dropsEventsWithoutWaitingWhenTheStoreIsSlow() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<LoginEvent> written = new ArrayList<>();
+        LoginEventPipeline pipeline = new LoginEventPipeline(batch -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (written) {
+                written.addAll(batch);
+            }
+        }, true, 8, 1, Duration.ofMillis(1), LoginEventPipeline.OverflowPolicy.DROP, 10, Duration.ZERO);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            pipeline.record("user@example.com", 1L, true, "10.0.0.1");
+        }
+        long elapsed = System.nanoTime() - start;
+
+        // Un lote retenido por el almacén y el búfer lleno; el resto se descarta sin esperar
+        assertTrue(pipeline.getDroppedCount() >= 100 - 8 - 1);
+        assertTrue(elapsed < TimeUnit.SECONDS.toNanos(1));
+        assertTrue(pipeline.getLagMillis() >= 0);
+
+        release.countDown();
+        pipeline.shutdown();
+        assertEquals(100, pipeline.getDroppedCount() + written.size());
+        assertEquals(0, pipeline.getPendingCount());
+    }
+}
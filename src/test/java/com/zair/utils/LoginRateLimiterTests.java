@@ -0,0 +1,86 @@
+package com.zair.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginRateLimiterTests {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final LoginRateLimiter limiter = new LoginRateLimiter(true, 1024, 3, Duration.ofSeconds(30),
+            5, Duration.ofSeconds(60), 10, Duration.ofSeconds(10), AuthMetrics.noop(), clock::get);
+
+    @Test
+    void admitsBurstThenRejectsWithRetryAfter() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("user@example.com", "10.0.0.1"));
+        }
+
+        long retryAfter = limiter.tryAcquire("USER@example.com ", "10.0.0.1");
+        assertEquals(Duration.ofSeconds(10).toMillis(), retryAfter);
+        assertEquals(0, limiter.tryAcquire("other@example.com", "10.0.0.1"));
+    }
+
+    @Test
+    void failuresFromOneClientDoNotLockOutAnother() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("user@example.com", "10.0.0.1");
+        }
+
+        assertTrue(limiter.tryAcquire("user@example.com", "10.0.0.1") > 0);
+        assertEquals(0, limiter.tryAcquire("user@example.com", "10.0.0.2"));
+    }
+
+    @Test
+    void limitsOneAccountAcrossManyClients() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("user@example.com", "10.0.0." + i));
+        }
+
+        assertEquals(Duration.ofSeconds(12).toMillis(), limiter.tryAcquire("user@example.com", "10.0.1.1"));
+        assertEquals(Duration.ofSeconds(12).toMillis(), limiter.tryAcquire("User@example.com", "10.0.1.2"));
+        assertEquals(0, limiter.tryAcquire("other@example.com", "10.0.1.1"));
+
+        // El rechazo por cuenta no consume la cuota del par correo electrónico e IP
+        clock.addAndGet(Duration.ofSeconds(12).toNanos());
+        assertEquals(0, limiter.tryAcquire("user@example.com", "10.0.1.1"));
+    }
+
+    @Test
+    void successfulLoginsDoNotCount() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire("user@example.com", "10.0.0.1"));
+            limiter.loginSucceeded("User@example.com", "10.0.0.1");
+            clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        }
+    }
+
+    @Test
+    void refillsContinuously() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("user@example.com", "10.0.0.1");
+        }
+
+        clock.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertEquals(Duration.ofSeconds(1).toMillis(), limiter.tryAcquire("user@example.com", "10.0.0.1"));
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals(0, limiter.tryAcquire("user@example.com", "10.0.0.1"));
+        assertTrue(limiter.tryAcquire("user@example.com", "10.0.0.1") > 0);
+    }
+
+    @Test
+    void limitsClientIpAcrossAccounts() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire("user" + i + "@example.com", "10.0.0.1"));
+        }
+
+        assertEquals(Duration.ofSeconds(1).toMillis(), limiter.tryAcquire("fresh@example.com", "10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("fresh@example.com", "10.0.0.2"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.zair.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingExecutorTests {
+
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, Duration.ofMillis(1_500));
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void rejectsTasksWhenThePoolAndQueueAreFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> running = executor.submit(() -> {
+            started.countDown();
+            release.await();
+            return "first";
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = executor.submit(() -> "second");
+
+        assertEquals(1, executor.getQueueDepth());
+        assertThrows(RejectedExecutionException.class, () -> executor.submit(() -> "third"));
+        assertEquals(1, executor.getRejectedCount());
+
+        Thread.sleep(20);
+        release.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+
+        assertEquals(2, executor.getCompletedCount());
+        assertTrue(executor.getTotalWaitTime().toMillis() >= 20, executor.getTotalWaitTime()::toString);
+        assertTrue(executor.getTotalHashTime().toMillis() >= 20, executor.getTotalHashTime()::toString);
+    }
+
+    @Test
+    void roundsRetryAfterUpToWholeSeconds() {
+        assertEquals(2, executor.getRetryAfterSeconds());
+
+        PasswordHashingExecutor shortRetry = new PasswordHashingExecutor(1, 1, Duration.ofMillis(100));
+        try {
+            assertEquals(1, shortRetry.getRetryAfterSeconds());
+        } finally {
+            shortRetry.shutdown();
+        }
+    }
+
+    @Test
+    void completesExceptionallyWhenTheTaskFails() {
+        CompletableFuture<String> future = executor.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+}
@@ -0,0 +1,99 @@
+package com.zair.utils;
+
+import com.zair.models.entities.User;
+import com.zair.models.enums.UserRole;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SigningKeyRingTests {
+
+    private static final String SECRET = "Jz0Op5yWlA3BG4c$8UtR6Q9rFhvx7ohD";
+
+    private static final User USER = new User(42L, "Name", "Last", "user@example.com", "password", UserRole.CLIENT);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ES256", "EdDSA", "RS256"})
+    void tokensVerifyLocallyWithThePublishedJwks(String algorithm) {
+        SigningKeyRing keyRing = new SigningKeyRing(algorithm, 3_600_000L, "", "", Duration.ZERO, "");
+        String token = new JwtUtil(SECRET, 3_600_000L, false, false, keyRing, AuthMetrics.noop()).generateToken(USER);
+
+        // Un servicio externo solo necesita el JWKS publicado
+        JwkSet jwks = Jwks.setParser().build().parse(keyRing.jwks());
+        String subject = Jwts.parser()
+                .keyLocator(header -> jwks.getKeys().stream()
+                        .filter(jwk -> jwk.getId().equals(((JwsHeader) header).getKeyId()))
+                        .map(jwk -> ((PublicJwk<?>) jwk).toKey())
+                        .findFirst()
+                        .orElse(null))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+
+        assertEquals("user@example.com", subject);
+    }
+
+    @Test
+    void retiredKeysKeepVerifyingAfterRotation() {
+        SigningKeyRing keyRing = new SigningKeyRing("ES256", 3_600_000L, "", "", Duration.ZERO, "");
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 3_600_000L, false, false, keyRing, AuthMetrics.noop());
+        String before = jwtUtil.generateToken(USER);
+        String previousKeyId = keyRing.activeKey().keyId();
+        String previousETag = keyRing.jwksETag();
+
+        keyRing.rotate();
+        String after = jwtUtil.generateToken(USER);
+
+        assertNotEquals(previousKeyId, keyRing.activeKey().keyId());
+        assertNotEquals(previousETag, keyRing.jwksETag());
+        assertEquals(42L, jwtUtil.verifyToken(before).userId());
+        assertEquals(42L, jwtUtil.verifyToken(after).userId());
+    }
+
+    @Test
+    void acceptsSharedSecretTokensAndRejectsUnknownKeys() {
+        JwtUtil hmac = new JwtUtil(SECRET, 3_600_000L, false, false, new SigningKeyRing("HS256", 3_600_000L, "", "", Duration.ZERO, ""), AuthMetrics.noop());
+        JwtUtil asymmetric = new JwtUtil(SECRET, 3_600_000L, false, false, new SigningKeyRing("ES256", 3_600_000L, "", "", Duration.ZERO, ""), AuthMetrics.noop());
+        JwtUtil otherRing = new JwtUtil(SECRET, 3_600_000L, false, false, new SigningKeyRing("ES256", 3_600_000L, "", "", Duration.ZERO, ""), AuthMetrics.noop());
+
+        // Los tokens HS256 emitidos antes del cambio de algoritmo siguen siendo válidos hasta el límite configurado
+        assertEquals(42L, asymmetric.verifyToken(hmac.generateToken(USER)).userId());
+        assertThrows(JwtException.class, () -> asymmetric.verifyToken(otherRing.generateToken(USER)));
+    }
+
+    @Test
+    void rejectsSharedSecretTokensAfterTheCutoff() {
+        JwtUtil hmac = new JwtUtil(SECRET, 3_600_000L, false, false, new SigningKeyRing("HS256", 3_600_000L, "", "", Duration.ZERO, ""), AuthMetrics.noop());
+        SigningKeyRing keyRing = new SigningKeyRing("ES256", 3_600_000L, "", "", Duration.ZERO, Instant.now().minusSeconds(1).toString());
+        JwtUtil asymmetric = new JwtUtil(SECRET, 3_600_000L, false, false, keyRing, AuthMetrics.noop());
+
+        assertFalse(keyRing.acceptsLegacyHs256());
+        assertThrows(JwtException.class, () -> asymmetric.verifyToken(hmac.generateToken(USER)));
+    }
+
+    @Test
+    void jwksETagIsTheDigestOfTheDocument() throws Exception {
+        SigningKeyRing keyRing = new SigningKeyRing("ES256", 3_600_000L, "", "", Duration.ZERO, "");
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(keyRing.jwks().getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"", keyRing.jwksETag());
+    }
+}
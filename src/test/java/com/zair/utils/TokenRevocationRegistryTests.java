@@ -0,0 +1,94 @@
+package com.zair.utils;
+
+import com.zair.models.enums.UserRole;
+import com.zair.repositories.RevocationStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenRevocationRegistryTests {
+
+    private final TokenRevocationRegistry registry = new TokenRevocationRegistry(
+            new DefaultListableBeanFactory().getBeanProvider(RevocationStore.class), 16, 0.01);
+
+    @Test
+    void revokesSingleTokenById() {
+        VerifiedToken revoked = token(1L, "a", Instant.now().minusSeconds(10));
+        VerifiedToken other = token(1L, "b", Instant.now().minusSeconds(10));
+
+        registry.revoke(revoked);
+
+        assertTrue(registry.isRevoked(revoked));
+        assertFalse(registry.isRevoked(other));
+    }
+
+    @Test
+    void watermarkRevokesEarlierTokensOfUserOnly() {
+        VerifiedToken earlier = token(1L, "a", Instant.now().minusSeconds(10));
+        VerifiedToken otherUser = token(2L, "b", Instant.now().minusSeconds(10));
+
+        registry.revokeAll(1L);
+
+        assertTrue(registry.isRevoked(earlier));
+        assertFalse(registry.isRevoked(otherUser));
+        assertFalse(registry.isRevoked(token(1L, "c", Instant.now().plusSeconds(2))));
+    }
+
+    @Test
+    void watermarkSeparatesTokensIssuedInTheSameSecond() throws InterruptedException {
+        long before = System.currentTimeMillis();
+        VerifiedToken earlier = token(1L, TokenIds.generate(before), Instant.ofEpochMilli(before));
+
+        registry.revokeAll(1L);
+        Thread.sleep(2);
+
+        long after = System.currentTimeMillis();
+        VerifiedToken later = token(1L, TokenIds.generate(after), Instant.ofEpochMilli(after));
+        // Sin el instante en el jti solo queda el segundo de iat, y el token se revoca por precaución
+        VerifiedToken legacy = token(1L, "legacy-id", Instant.ofEpochSecond(after / 1000));
+
+        assertTrue(registry.isRevoked(earlier));
+        assertFalse(registry.isRevoked(later));
+        assertTrue(registry.isRevoked(legacy));
+    }
+
+    @Test
+    void tokenIdsCarryTheIssueInstantOnlyWhenItMatchesIat() {
+        long now = System.currentTimeMillis();
+        String tokenId = TokenIds.generate(now);
+
+        assertEquals(24, tokenId.length());
+        assertEquals(now, TokenIds.issuedAtMillis(tokenId, now / 1000));
+        assertEquals(-1, TokenIds.issuedAtMillis(tokenId, now / 1000 + 1));
+        assertEquals(-1, TokenIds.issuedAtMillis("3q2-7wAAAAC6ZWmlYYGJPw", now / 1000));
+        assertEquals(-1, TokenIds.issuedAtMillis(null, now / 1000));
+    }
+
+    @Test
+    void keepsRevocationsAcrossFilterRebuildsAndMapResizes() {
+        Instant issuedAt = Instant.now().minusSeconds(10);
+
+        for (long i = 0; i < 1_000; i++) {
+            registry.revoke(token(i, "token-" + i, issuedAt));
+            registry.revokeAll(10_000 + i);
+        }
+
+        for (long i = 0; i < 1_000; i++) {
+            assertTrue(registry.isRevoked(token(i, "token-" + i, issuedAt)));
+            assertTrue(registry.isRevoked(token(10_000 + i, "other-" + i, issuedAt)));
+        }
+        assertFalse(registry.isRevoked(token(5_000L, "token-x", issuedAt)));
+        assertEquals(1_000, registry.revokedTokenCount());
+        assertEquals(1_000, registry.watermarkCount());
+    }
+
+    private static VerifiedToken token(Long userId, String tokenId, Instant issuedAt) {
+        return new VerifiedToken("user@example.com", userId, UserRole.CLIENT, UserRole.CLIENT.getPermissions(),
+                issuedAt.plusSeconds(3600), issuedAt, tokenId);
+    }
+}